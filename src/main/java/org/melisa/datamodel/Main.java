@@ -1,21 +1,42 @@
 package org.melisa.datamodel;
 
+import org.melisa.datamodel.io.BulkLoadDialect;
 import org.melisa.datamodel.io.ExcelFileReader;
 import org.melisa.datamodel.io.SqlGenerator;
+import org.melisa.datamodel.io.SqlScriptPipeline;
 import org.melisa.datamodel.model.DecomposedRelation;
+import org.melisa.datamodel.model.Relation;
+import org.melisa.datamodel.model.RowSource;
 import org.melisa.datamodel.normalization.FirstNormalizer;
+import org.melisa.datamodel.normalization.HeuristicCache;
+import org.melisa.datamodel.normalization.MultiValueRelations;
+import org.melisa.datamodel.normalization.RowExpansionBudget;
 import org.melisa.datamodel.normalization.SecondNormalizer;
+import org.melisa.datamodel.normalization.ThirdNormalizer;
 
 
+import java.io.BufferedWriter;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
 
 
 public class Main {
+
+    // Rows per multi-row INSERT statement
+    private static final int INSERT_BATCH_SIZE = 1000;
+
     public static void main(String[] args) {
         Scanner scanner = new Scanner(System.in);
 
@@ -27,67 +48,138 @@ public class Main {
         String tableNameInput = scanner.nextLine();
         String tableNameBase = tableNameInput.trim().isEmpty() ? "EXCEL_DATA" : tableNameInput.trim();
 
-        try (InputStream fileInputStream = new FileInputStream(filePath)) {
+        System.out.println("Please enter the target normal form (2NF or 3NF).");
+        System.out.println("If left blank, the data will be decomposed to 2NF:");
+        boolean thirdNormalForm = scanner.nextLine().trim().toUpperCase().startsWith("3");
+
+        System.out.println("Please enter how multivalue cells (e.g. 'red; blue') are normalized: ROWS or CHILD.");
+        System.out.println("If left blank, a row is generated per combination of values, CHILD moves them into child relations:");
+        boolean childRelations = scanner.nextLine().trim().toUpperCase().startsWith("C");
+
+        System.out.println("Please enter the SQL output mode: INSERT, POSTGRESQL or MYSQL (the latter two write CSV files for bulk loading).");
+        System.out.println("If left blank, INSERT statements will be generated:");
+        String outputModeInput = scanner.nextLine().trim().toUpperCase();
+        BulkLoadDialect bulkLoadDialect = switch (outputModeInput) {
+            case "POSTGRESQL" -> BulkLoadDialect.POSTGRESQL;
+            case "MYSQL" -> BulkLoadDialect.MYSQL;
+            default -> null; // INSERT statements
+        };
+
+        try {
             // --- Step 1: Read Excel Data ---
             System.out.println("\n--- Step 1: Reading Excel data ---");
-            // NOTE: Assumes org.melisa.datamodel.io.ReadExcelFile class exists with a static readExcelData method
-            List<Map<String, Object>> excelData = ExcelFileReader.readExcelData(fileInputStream);
-            System.out.println("Excel data read successfully. Number of rows detected: " + excelData.size());
+            RowSource excelData;
+            if (filePath.toLowerCase().endsWith(".xlsx")) {
+                // .xlsx files are streamed row by row instead of being loaded into memory
+                excelData = ExcelFileReader.rowSource(new File(filePath));
+                System.out.println("Excel data will be streamed from: " + filePath);
+            } else {
+                // Legacy .xls files are only supported by the workbook reader
+                try (InputStream fileInputStream = new FileInputStream(filePath)) {
+                    List<Map<String, Object>> rows = ExcelFileReader.readExcelData(fileInputStream);
+                    System.out.println("Excel data read successfully. Number of rows detected: " + rows.size());
+                    excelData = RowSource.of(rows);
+                }
+            }
 
 
             // --- Step 2: Normalizing data to First Normal Form (1NF) ---
             System.out.println("\n--- Step 2: Normalizing data to First Normal Form (1NF) ---");
-            // NOTE: Assumes org.melisa.datamodel.normalization.Normalizer class exists with a static normalizeTo1NF method
-            List<Map<String, Object>> normalized1NFData = FirstNormalizer.normalizeTo1NF(excelData);
+            // The 1NF heuristics run lazily while the rows are read, 2NF is the first stage that needs all rows.
+            // They are materialized in columnar form, the map view is handed to the later stages.
+            HeuristicCache heuristicCache = new HeuristicCache();
+            RowExpansionBudget expansionBudget = new RowExpansionBudget();
+            MultiValueRelations multiValueRelations = new MultiValueRelations();
+            // The heuristics run on chunks of rows in parallel, the rows keep their order
+            boolean parallel = Runtime.getRuntime().availableProcessors() > 1;
+            RowSource normalized1NFSource = childRelations
+                    ? FirstNormalizer.normalizeTo1NF(excelData, heuristicCache, multiValueRelations, parallel)
+                    : FirstNormalizer.normalizeTo1NF(excelData, heuristicCache, FirstNormalizer.HeuristicImplementation.SCANNER,
+                    expansionBudget, parallel);
+            Relation normalized1NFRelation = Relation.from(normalized1NFSource);
+            List<Map<String, Object>> normalized1NFData = normalized1NFRelation.asMaps();
             System.out.println("1NF Normalization complete. Number of normalized rows: " + normalized1NFData.size());
+            System.out.println("Heuristic cache: " + heuristicCache);
+            if (expansionBudget.cappedRows() > 0) {
+                System.out.println("Row expansion budget exceeded: " + expansionBudget);
+            }
+            if (childRelations) {
+                System.out.println("Multivalue columns moved into child relations: " + multiValueRelations.columnNames()
+                        + " (" + multiValueRelations.valueCount() + " values)");
+            }
 
 
-            // --- Step 3: Normalizing data to Second Normal Form (2NF) ---
-            System.out.println("\n--- Step 3: Decomposing data to Second Normal Form (2NF) ---");
-            SecondNormalizer secondNormalizer = new SecondNormalizer();
+            // --- Step 3: Normalizing data to Second (or Third) Normal Form ---
+            List<DecomposedRelation> decomposedRelations;
+            if (thirdNormalForm) {
+                System.out.println("\n--- Step 3: Synthesizing Third Normal Form (3NF) relations ---");
+                decomposedRelations = new ThirdNormalizer().normalizeTo3NF(normalized1NFData, tableNameBase);
+                System.out.println("3NF Synthesis complete. Generated " + decomposedRelations.size() + " new relation(s).");
+            } else {
+                System.out.println("\n--- Step 3: Decomposing data to Second Normal Form (2NF) ---");
+                SecondNormalizer secondNormalizer = new SecondNormalizer();
 
-            // *** ADAPTATION 1: Pass tableNameBase IN, and capture the List of org.melisa.datamodel.model.DecomposedRelation objects ***
-            List<DecomposedRelation> decomposedRelations =
-                    secondNormalizer.normalizeTo2NF(normalized1NFData, tableNameBase);
+                // *** ADAPTATION 1: Pass tableNameBase IN, and capture the List of org.melisa.datamodel.model.DecomposedRelation objects ***
+                decomposedRelations = secondNormalizer.normalizeTo2NF(normalized1NFData, tableNameBase);
 
-            System.out.println("2NF Decomposition complete. Generated " + decomposedRelations.size() + " new relation(s).");
+                System.out.println("2NF Decomposition complete. Generated " + decomposedRelations.size() + " new relation(s).");
+            }
+            if (childRelations) {
+                // The child relations reference the main relation, so they come after it
+                decomposedRelations = new ArrayList<>(decomposedRelations);
+                decomposedRelations.addAll(multiValueRelations.toDecomposedRelations(tableNameBase, decomposedRelations));
+            }
 
 
             // --- Step 4: Display Results and Generate SQL script ---
-            System.out.println("\n--- Step 4: Displaying 2NF Relations and Generating SQL ---");
-
-            // *** ADAPTATION 2: Loop over the List<org.melisa.datamodel.model.DecomposedRelation> ***
-            for (DecomposedRelation relation : decomposedRelations) {
-                // The relation name is now pre-built and SQL-sanitized by the org.melisa.datamodel.normalization.SecondNormalizer
-                String relationName = relation.name(); // Get the full name (e.g., "SHOP_SIZE_DETAILS")
-                List<Map<String, Object>> relationData = relation.data();
-
-                System.out.println("\n== Relation Name: " + relationName + " ==");
-                // Print the key metadata from the relation object
-                System.out.println("   Primary Keys: " + relation.primaryKeys());
-                System.out.println("   Foreign Keys: " + relation.foreignKeys());
-
-                // Display the data preview for the new relation
-                for (Map<String, Object> row : relationData) {
-                    System.out.println(row);
+            System.out.println("\n--- Step 4: Displaying Relations and Generating SQL ---");
+
+            // Shared buffered writer for the SQL scripts. It is flushed after every script and never closed (System.out).
+            Writer sqlOutput = new BufferedWriter(new OutputStreamWriter(System.out));
+
+            if (bulkLoadDialect == null) {
+                // INSERT scripts are generated concurrently, one task per relation, and printed in FK order
+                SqlScriptPipeline pipeline = new SqlScriptPipeline(Runtime.getRuntime().availableProcessors(), INSERT_BATCH_SIZE);
+                pipeline.generateScripts(decomposedRelations, (relation, script) -> {
+                    printRelation(relation);
+                    System.out.println("\n--- START SQL SCRIPT for " + relation.name() + " ---\n");
+                    script.transferTo(sqlOutput);
+                    sqlOutput.flush();
+                    System.out.println("\n--- END SQL SCRIPT for " + relation.name() + " ---\n");
+                });
+            } else {
+                // *** ADAPTATION 2: Loop over the List<org.melisa.datamodel.model.DecomposedRelation> ***
+                for (DecomposedRelation relation : DecomposedRelation.inDependencyOrder(decomposedRelations)) {
+                    // The relation name is now pre-built and SQL-sanitized by the org.melisa.datamodel.normalization.SecondNormalizer
+                    String relationName = relation.name(); // Get the full name (e.g., "SHOP_SIZE_DETAILS")
+                    printRelation(relation);
+
+                    System.out.println("\n--- START SQL SCRIPT for " + relationName + " ---\n");
+                    // *** ADAPTATION 3: Pass key metadata to the org.melisa.datamodel.io.SqlGenerator's updated method ***
+                    // The data file is placed next to the Excel file
+                    Path dataFile = Path.of(filePath).toAbsolutePath().resolveSibling(relationName + ".csv");
+                    try (Writer dataOutput = Files.newBufferedWriter(dataFile, StandardCharsets.UTF_8)) {
+                        SqlGenerator.writeBulkLoadScript(
+                                RowSource.of(relation.data()),
+                                relationName,
+                                relation.primaryKeys(),
+                                relation.foreignKeys(),
+                                bulkLoadDialect,
+                                dataFile.toString(),
+                                sqlOutput,
+                                dataOutput
+                        );
+                    }
+                    System.out.println("-- Data file written: " + dataFile);
+                    System.out.println("\n--- END SQL SCRIPT for " + relationName + " ---\n");
                 }
-
-                // *** ADAPTATION 3: Pass key metadata to the org.melisa.datamodel.io.SqlGenerator's updated method ***
-                String sqlScript = SqlGenerator.generateSqlScript(
-                        relationData,
-                        relationName,
-                        relation.primaryKeys(),
-                        relation.foreignKeys()
-                );
-
-                System.out.println("\n--- START SQL SCRIPT for " + relationName + " ---\n");
-                System.out.println(sqlScript);
-                System.out.println("\n--- END SQL SCRIPT for " + relationName + " ---\n");
             }
 
 
         } catch (IOException e) {
             System.err.println("Error reading the Excel file. Please check the path and file permissions: " + e.getMessage());
+        } catch (UncheckedIOException e) {
+            System.err.println("Error reading the Excel file. Please check the path and file permissions: " + e.getCause().getMessage());
         } catch (IllegalArgumentException e) {
             System.err.println("Error with Excel file format or content: " + e.getMessage());
         } catch (Exception e) {
@@ -97,5 +189,19 @@ public class Main {
             scanner.close(); // Ensure the main scanner is closed
         }
     }
-}
 
+    /**
+     * Prints the name, the key metadata and a preview of the rows of a relation.
+     */
+    private static void printRelation(DecomposedRelation relation) {
+        System.out.println("\n== Relation Name: " + relation.name() + " ==");
+        // Print the key metadata from the relation object
+        System.out.println("   Primary Keys: " + relation.primaryKeys());
+        System.out.println("   Foreign Keys: " + relation.foreignKeys());
+
+        // Display the data preview for the new relation
+        for (Map<String, Object> row : relation.data()) {
+            System.out.println(row);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package org.melisa.datamodel.io;
+
+import java.util.List;
+
+/**
+ * Target databases for the bulk mode of {@link SqlGenerator}: the rows are written to a CSV file
+ * (comma separated, header line, strings enclosed in double quotes) that the database loads in one
+ * statement, which is much faster than replaying INSERT statements.
+ *
+ * The dialects only differ in the load statement and in how NULL is written to the file.
+ */
+public enum BulkLoadDialect {
+
+    /**
+     * PostgreSQL {@code COPY ... FROM}: an unquoted empty field is NULL, a quoted empty field is an empty string.
+     */
+    POSTGRESQL("") {
+        @Override
+        public String loadStatement(String sqlTableName, List<String> sqlColumnNames, String dataFilePath) {
+            return "COPY " + sqlTableName + " (" + String.join(", ", sqlColumnNames) + ")\n"
+                    + "FROM " + quoteSqlString(dataFilePath) + "\n"
+                    + "WITH (FORMAT csv, HEADER true, NULL '', ENCODING 'UTF8');\n";
+        }
+    },
+
+    /**
+     * MySQL {@code LOAD DATA LOCAL INFILE}: without an escape character, the unquoted word NULL is NULL.
+     */
+    MYSQL("NULL") {
+        @Override
+        public String loadStatement(String sqlTableName, List<String> sqlColumnNames, String dataFilePath) {
+            return "LOAD DATA LOCAL INFILE " + quoteSqlString(dataFilePath) + "\n"
+                    + "INTO TABLE " + sqlTableName + "\n"
+                    + "CHARACTER SET utf8mb4\n"
+                    + "FIELDS TERMINATED BY ',' OPTIONALLY ENCLOSED BY '\"' ESCAPED BY ''\n"
+                    + "LINES TERMINATED BY '\\n'\n"
+                    + "IGNORE 1 LINES\n"
+                    + "(" + String.join(", ", sqlColumnNames) + ");\n";
+        }
+    };
+
+    private final String nullToken;
+
+    BulkLoadDialect(String nullToken) {
+        this.nullToken = nullToken;
+    }
+
+    /**
+     * Builds the statement that loads the data file into the table.
+     *
+     * @param sqlTableName   The SQL-sanitized table name.
+     * @param sqlColumnNames The columns in the order of the data file.
+     * @param dataFilePath   The path of the data file.
+     * @return The load statement, terminated by ";\n".
+     */
+    public abstract String loadStatement(String sqlTableName, List<String> sqlColumnNames, String dataFilePath);
+
+    /**
+     * Formats a value as a CSV field, consistent with the SQL types inferred by {@link SqlGenerator}.
+     *
+     * @param value The Java object value.
+     * @return The CSV field (numbers plain, booleans as 1/0, everything else quoted).
+     */
+    public String formatCsvValue(Object value) {
+        return switch (value) {
+            case null -> nullToken;
+            case Boolean boolValue -> boolValue ? "1" : "0"; // SMALLINT, like the INSERT statements
+            case Number numValue -> numValue.toString();
+            default -> "\"" + value.toString().replace("\"", "\"\"") + "\"";
+        };
+    }
+
+    private static String quoteSqlString(String value) {
+        return "'" + value.replace("'", "''") + "'";
+    }
+}
@@ -1,12 +1,31 @@
 package org.melisa.datamodel.io;
 
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.usermodel.WorkbookFactory;
-// import org.apache.poi.ss.util.CellReference; // Not directly used in the provided code, can remove if not used elsewhere
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.melisa.datamodel.model.RowSource;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
 
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.StreamSupport;
 // import java.time.LocalDateTime; // Not directly used in the final version of getCellValueAsString
 
 public class ExcelFileReader {
@@ -49,6 +68,88 @@ public class ExcelFileReader {
         return data;
     }
 
+    /**
+     * Streams the rows of the first sheet of an .xlsx file to a consumer using the XSSF event model.
+     * Unlike {@link #readExcelData(InputStream)}, no workbook object model is built: the sheet XML is
+     * parsed with SAX and every row is handed to the consumer as soon as it is complete. The header
+     * row and the cell values are treated exactly like in {@link #readExcelData(InputStream)}.
+     *
+     * @param file        The .xlsx file to read.
+     * @param rowConsumer Receives one map per data row, keys are column names.
+     * @throws IOException              If an error occurs while reading the file.
+     * @throws IllegalArgumentException If the file format is invalid or no header row is found.
+     */
+    public static void streamExcelData(File file, Consumer<Map<String, Object>> rowConsumer) throws IOException {
+        if (!file.isFile()) {
+            throw new FileNotFoundException("Excel file not found: " + file.getPath());
+        }
+        try {
+            streamExcelData(OPCPackage.open(file, PackageAccess.READ), rowConsumer);
+        } catch (InvalidFormatException e) {
+            throw new IllegalArgumentException("The file is not a valid .xlsx workbook: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Streams the rows of the first sheet of an .xlsx workbook to a consumer using the XSSF event model.
+     * Prefer {@link #streamExcelData(File, Consumer)} when the workbook is on disk, because opening a
+     * package from a stream has to buffer the compressed archive first.
+     *
+     * @param inputStream The InputStream of the .xlsx file.
+     * @param rowConsumer Receives one map per data row, keys are column names.
+     * @throws IOException              If an error occurs while reading the file.
+     * @throws IllegalArgumentException If the file format is invalid or no header row is found.
+     */
+    public static void streamExcelData(InputStream inputStream, Consumer<Map<String, Object>> rowConsumer) throws IOException {
+        try {
+            streamExcelData(OPCPackage.open(inputStream), rowConsumer);
+        } catch (InvalidFormatException e) {
+            throw new IllegalArgumentException("The stream is not a valid .xlsx workbook: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Exposes the first sheet of an .xlsx file as a {@link RowSource}. Every pass re-parses the file
+     * with the streaming reader, so rows are pulled one at a time and never held all at once.
+     *
+     * @param file The .xlsx file to read.
+     * @return A RowSource over the data rows, keys are column names. I/O errors surface as
+     * {@link java.io.UncheckedIOException} while the rows are consumed.
+     */
+    public static RowSource rowSource(File file) {
+        return () -> {
+            ExcelRowSpliterator spliterator = new ExcelRowSpliterator(file);
+            return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+        };
+    }
+
+    private static void streamExcelData(OPCPackage opcPackage, Consumer<Map<String, Object>> rowConsumer) throws IOException {
+        try {
+            XSSFReader xssfReader = new XSSFReader(opcPackage);
+            StylesTable styles = xssfReader.getStylesTable();
+            ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(opcPackage);
+
+            Iterator<InputStream> sheets = xssfReader.getSheetsData();
+            if (!sheets.hasNext()) {
+                throw new IllegalArgumentException("The workbook does not contain any sheet.");
+            }
+
+            StreamingRowHandler rowHandler = new StreamingRowHandler(rowConsumer);
+            try (InputStream sheetStream = sheets.next()) {
+                XMLReader sheetParser = XMLHelper.newXMLReader();
+                // Same formatter settings as the DOM reader, cached formula results instead of formulas
+                sheetParser.setContentHandler(new XSSFSheetXMLHandler(styles, sharedStrings, rowHandler, DATA_FORMATTER, false));
+                sheetParser.parse(new InputSource(sheetStream));
+            }
+            rowHandler.verifyHeaderFound();
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Error while streaming the Excel sheet: " + e.getMessage(), e);
+        } finally {
+            // Read-only access: discard the package without trying to save it
+            opcPackage.revert();
+        }
+    }
+
     /**
      * Extracts column names from the header row.
      * This version is more robust in extracting string values from cells,
@@ -61,8 +162,6 @@ public class ExcelFileReader {
      * Ensures uniqueness by adding suffixes if duplicates are found.
      */
     private static List<String> getColumnNames(Row headerRow) {
-        List<String> columnNames = new ArrayList<>();
-
         int maxColNum = -1;
         if (headerRow != null) {
             for (Cell cell : headerRow) {
@@ -73,14 +172,28 @@ public class ExcelFileReader {
         }
 
         // Iterate up to maxColNum to ensure all columns (even empty ones in the middle) are considered
+        List<String> rawColumnNames = new ArrayList<>();
         for (int i = 0; i <= maxColNum; i++) {
             Cell cell = headerRow.getCell(i);
-            String rawColumnName = null;
+            // Use the static DATA_FORMATTER to get the displayed cell value as a string
+            rawColumnNames.add(cell != null ? DATA_FORMATTER.formatCellValue(cell) : null);
+        }
+        return toUniqueColumnNames(rawColumnNames);
+    }
 
-            if (cell != null) {
-                // Use the static DATA_FORMATTER to get the displayed cell value as a string
-                rawColumnName = DATA_FORMATTER.formatCellValue(cell);
-            }
+    /**
+     * Turns the raw header values into the final column names. Shared by the DOM based
+     * reader and the streaming reader so both produce identical column names.
+     *
+     * @param rawColumnNames The displayed header values, indexed by column (null for missing cells).
+     * @return A list of column names. If a value is blank, a default "ColumnN" name is assigned.
+     * Otherwise, the trimmed value is used. Ensures uniqueness by adding suffixes if duplicates are found.
+     */
+    private static List<String> toUniqueColumnNames(List<String> rawColumnNames) {
+        List<String> columnNames = new ArrayList<>();
+
+        for (int i = 0; i < rawColumnNames.size(); i++) {
+            String rawColumnName = rawColumnNames.get(i);
 
             String columnName;
             if (rawColumnName == null || rawColumnName.trim().isEmpty()) {
@@ -142,9 +255,84 @@ public class ExcelFileReader {
         // - For BOOLEAN cells, it returns "TRUE" or "FALSE".
         // This ensures the org.melisa.datamodel.normalization.Normalizer receives the cell content exactly as displayed in Excel.
         String cellValue = DATA_FORMATTER.formatCellValue(cell);
+        return normalizeCellText(cellValue);
+    }
 
-        // Trim the result and return null if it's empty after trimming (i.e., was blank or just whitespace)
+    /**
+     * Trims a displayed cell value and maps blank values to null.
+     *
+     * @param cellValue The displayed cell value (may be null).
+     * @return The trimmed value, or null if it was blank or just whitespace.
+     */
+    private static String normalizeCellText(String cellValue) {
         return (cellValue != null && !cellValue.trim().isEmpty()) ? cellValue.trim() : null;
     }
 
+    /**
+     * SAX callback for the XSSF event model. Collects the header row into column names and then
+     * assembles one row at a time, handing every finished row to the consumer. Only the values of
+     * the current row are held, so memory grows with the number of columns and not with the file size.
+     */
+    private static class StreamingRowHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final Consumer<Map<String, Object>> rowConsumer;
+        private List<String> columnNames;
+        private final List<String> currentValues = new ArrayList<>();
+        private int nextColumnIndex;
+
+        StreamingRowHandler(Consumer<Map<String, Object>> rowConsumer) {
+            this.rowConsumer = rowConsumer;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            if (columnNames == null && rowNum != 0) {
+                throw new IllegalArgumentException("No header row found in the Excel sheet (expected at row 0).");
+            }
+            nextColumnIndex = 0;
+            currentValues.clear();
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            // The cell reference may be missing for some generators, fall back to the next position
+            int columnIndex = (cellReference != null) ? new CellReference(cellReference).getCol() : nextColumnIndex;
+            nextColumnIndex = columnIndex + 1;
+
+            // The header defines the width of the relation; cells to the right of it are ignored
+            if (columnNames != null && columnIndex >= columnNames.size()) {
+                return;
+            }
+            while (currentValues.size() <= columnIndex) {
+                currentValues.add(null);
+            }
+            currentValues.set(columnIndex, formattedValue);
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (columnNames == null) {
+                columnNames = toUniqueColumnNames(new ArrayList<>(currentValues));
+                return;
+            }
+
+            Map<String, Object> rowData = new LinkedHashMap<>();
+            for (int i = 0; i < columnNames.size(); i++) {
+                String value = (i < currentValues.size()) ? currentValues.get(i) : null;
+                rowData.put(columnNames.get(i), normalizeCellText(value));
+            }
+            rowConsumer.accept(rowData);
+        }
+
+        @Override
+        public void headerFooter(String text, boolean isHeader, String tagName) {
+            // Headers and footers are not part of the data model
+        }
+
+        void verifyHeaderFound() {
+            if (columnNames == null) {
+                throw new IllegalArgumentException("No header row found in the Excel sheet (expected at row 0).");
+            }
+        }
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,158 @@
+package org.melisa.datamodel.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over the data rows of the first sheet of an .xlsx file, built on the SAX based
+ * {@link ExcelFileReader#streamExcelData(File, Consumer)}.
+ *
+ * The SAX parser pushes rows, while a Spliterator is pulled. Bulk traversal
+ * ({@link #forEachRemaining(Consumer)}) simply runs the parser in the calling thread. Only when rows are
+ * pulled one at a time ({@link #tryAdvance(Consumer)}) the parser is moved to a background thread that
+ * hands rows over through a small bounded queue, so memory stays flat in both cases.
+ */
+class ExcelRowSpliterator implements Spliterator<Map<String, Object>>, AutoCloseable {
+
+    // Number of rows the background parser may run ahead of the consumer
+    private static final int HANDOFF_CAPACITY = 256;
+
+    // Marker objects for the handoff queue
+    private static final Object END_OF_SHEET = new Object();
+
+    private final File file;
+    private boolean consumed;
+    private BlockingQueue<Object> handoff;
+    private Thread producer;
+
+    ExcelRowSpliterator(File file) {
+        this.file = file;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Map<String, Object>> action) {
+        if (consumed) {
+            return false;
+        }
+        if (producer == null) {
+            startProducer();
+        }
+
+        Object next = takeFromHandoff();
+        if (next == END_OF_SHEET) {
+            consumed = true;
+            return false;
+        }
+        if (next instanceof Failure failure) {
+            consumed = true;
+            throw failure.asUncheckedException();
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, Object> row = (Map<String, Object>) next;
+        action.accept(row);
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super Map<String, Object>> action) {
+        if (producer != null) {
+            // Pulling was already started, continue draining the background parser
+            while (tryAdvance(action)) {
+                // Keep going until END_OF_SHEET
+            }
+            return;
+        }
+        if (consumed) {
+            return;
+        }
+        consumed = true;
+        try {
+            ExcelFileReader.streamExcelData(file, action::accept);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Spliterator<Map<String, Object>> trySplit() {
+        return null; // The sheet is parsed sequentially
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE; // Unknown until the sheet has been parsed
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+
+    /**
+     * Stops the background parser if the consumer abandons the pass early.
+     */
+    @Override
+    public void close() {
+        consumed = true;
+        if (producer != null) {
+            producer.interrupt();
+        }
+    }
+
+    private void startProducer() {
+        BlockingQueue<Object> queue = new ArrayBlockingQueue<>(HANDOFF_CAPACITY);
+        handoff = queue;
+        producer = Thread.ofVirtual().name("excel-row-reader").start(() -> {
+            try {
+                ExcelFileReader.streamExcelData(file, row -> putIntoHandoff(queue, row));
+                putIntoHandoff(queue, END_OF_SHEET);
+            } catch (CancellationException e) {
+                // Consumer closed the pass, nothing left to report
+            } catch (IOException | RuntimeException e) {
+                try {
+                    putIntoHandoff(queue, new Failure(e));
+                } catch (CancellationException ignored) {
+                    // Consumer is gone as well
+                }
+            }
+        });
+    }
+
+    private static void putIntoHandoff(BlockingQueue<Object> queue, Object element) {
+        try {
+            queue.put(element);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Reading of the Excel sheet was cancelled.");
+        }
+    }
+
+    private Object takeFromHandoff() {
+        try {
+            return handoff.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new CancellationException("Interrupted while waiting for the next Excel row.");
+        }
+    }
+
+    /**
+     * Carries an exception of the background parser over to the consuming thread.
+     */
+    private record Failure(Exception cause) {
+        RuntimeException asUncheckedException() {
+            if (cause instanceof IOException ioException) {
+                return new UncheckedIOException(ioException);
+            }
+            return (RuntimeException) cause;
+        }
+    }
+}
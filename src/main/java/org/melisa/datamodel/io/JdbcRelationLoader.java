@@ -0,0 +1,209 @@
+package org.melisa.datamodel.io;
+
+import org.melisa.datamodel.model.DecomposedRelation;
+import org.melisa.datamodel.model.RowSource;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads decomposed relations directly into a database over JDBC, without generating and re-parsing a
+ * SQL script. The tables are created from the same inferred schema (and with the same PK/FK constraints)
+ * as the scripts of {@link SqlGenerator}, in foreign key order, and the rows are sent as
+ * {@link PreparedStatement} batches.
+ *
+ * The load runs in its own transactions: one for the CREATE TABLE statements, then the rows are committed
+ * every {@code commitInterval} rows, so the database never has to hold an unbounded transaction.
+ * If anything fails, the current transaction is rolled back and the exception is rethrown.
+ */
+public class JdbcRelationLoader {
+
+    private static final int DEFAULT_BATCH_SIZE = 1_000;
+    private static final int DEFAULT_COMMIT_INTERVAL = 50_000;
+
+    private final int batchSize;
+    private final int commitInterval;
+
+    /**
+     * Creates a loader with batches of 1,000 rows and a commit every 50,000 rows.
+     */
+    public JdbcRelationLoader() {
+        this(DEFAULT_BATCH_SIZE, DEFAULT_COMMIT_INTERVAL);
+    }
+
+    /**
+     * @param batchSize      The number of rows sent to the database with one executeBatch call.
+     * @param commitInterval The number of rows after which the transaction is committed (rounded up to whole batches).
+     * @throws IllegalArgumentException If one of the values is smaller than 1.
+     */
+    public JdbcRelationLoader(int batchSize, int commitInterval) {
+        if (batchSize < 1 || commitInterval < 1) {
+            throw new IllegalArgumentException("Batch size and commit interval must be at least 1, but were "
+                    + batchSize + " and " + commitInterval + ".");
+        }
+        this.batchSize = batchSize;
+        this.commitInterval = commitInterval;
+    }
+
+    /**
+     * Creates one table per relation and loads its rows.
+     *
+     * @param connection The target database. Its auto-commit setting is restored afterwards, it is not closed.
+     * @param relations  The relations to load, in any order.
+     * @return The total number of loaded rows.
+     * @throws SQLException             If a statement fails (the current transaction is rolled back).
+     * @throws IllegalArgumentException If the foreign keys of the relations form a cycle.
+     */
+    public long load(Connection connection, List<DecomposedRelation> relations) throws SQLException {
+        List<DecomposedRelation> orderedRelations = DecomposedRelation.inDependencyOrder(relations);
+
+        // Infer every schema first, a relation without rows gets no table (like the scripts)
+        List<SqlGenerator.ColumnSchema> schemas = new ArrayList<>();
+        for (DecomposedRelation relation : orderedRelations) {
+            schemas.add(SqlGenerator.inferColumnSchema(RowSource.of(relation.data())));
+        }
+
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            // --- Step 1: Create the tables (referenced tables first) ---
+            try (Statement statement = connection.createStatement()) {
+                for (int i = 0; i < orderedRelations.size(); i++) {
+                    DecomposedRelation relation = orderedRelations.get(i);
+                    if (schemas.get(i).sqlTypes().isEmpty()) {
+                        continue;
+                    }
+                    StringBuilder createTable = new StringBuilder();
+                    SqlGenerator.appendCreateTable(createTable, SqlGenerator.toSqlIdentifier(relation.name()),
+                            schemas.get(i).sqlTypes(), relation.primaryKeys(), relation.foreignKeys());
+                    statement.execute(createTable.toString());
+                }
+            }
+            connection.commit();
+
+            // --- Step 2: Load the rows (referenced tables first, so every FK value already exists) ---
+            long loadedRows = 0;
+            for (int i = 0; i < orderedRelations.size(); i++) {
+                if (!schemas.get(i).sqlTypes().isEmpty()) {
+                    loadedRows += loadRows(connection, orderedRelations.get(i), schemas.get(i));
+                }
+            }
+            connection.commit();
+            return loadedRows;
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Sends the rows of one relation as PreparedStatement batches.
+     */
+    private long loadRows(Connection connection, DecomposedRelation relation, SqlGenerator.ColumnSchema schema) throws SQLException {
+        String sqlTableName = SqlGenerator.toSqlIdentifier(relation.name());
+        SqlGenerator.InsertTemplate rowLayout = new SqlGenerator.InsertTemplate(sqlTableName, schema);
+        List<String> sqlColumnNames = new ArrayList<>(schema.sqlTypes().keySet());
+        int[] sqlTypes = new int[sqlColumnNames.size()];
+        for (int column = 0; column < sqlTypes.length; column++) {
+            sqlTypes[column] = schema.sqlTypes().get(sqlColumnNames.get(column)).jdbcType();
+        }
+
+        String insert = "INSERT INTO " + sqlTableName + " (" + String.join(", ", sqlColumnNames) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(sqlColumnNames.size(), "?")) + ")";
+
+        long loadedRows = 0;
+        int rowsInBatch = 0;
+        int rowsSinceCommit = 0;
+        try (PreparedStatement statement = connection.prepareStatement(insert)) {
+            for (Map<String, Object> row : relation.data()) {
+                for (int column = 0; column < sqlTypes.length; column++) {
+                    bindValue(statement, column + 1, sqlTypes[column], rowLayout.valueAt(row, column));
+                }
+                statement.addBatch();
+                loadedRows++;
+                rowsSinceCommit++;
+                if (++rowsInBatch == batchSize) {
+                    statement.executeBatch();
+                    rowsInBatch = 0;
+                    if (rowsSinceCommit >= commitInterval) {
+                        connection.commit();
+                        rowsSinceCommit = 0;
+                    }
+                }
+            }
+            if (rowsInBatch > 0) {
+                statement.executeBatch();
+            }
+        }
+        return loadedRows;
+    }
+
+    /**
+     * Binds a cell value, converted to the column type. Strings are parsed the same way the type
+     * inference of {@link SqlGenerator} recognized them.
+     */
+    static void bindValue(PreparedStatement statement, int parameter, int jdbcType, Object value) throws SQLException {
+        if (value == null) {
+            statement.setNull(parameter, jdbcType);
+            return;
+        }
+        String text = (value instanceof String strValue) ? strValue.trim() : null;
+        switch (jdbcType) {
+            case Types.SMALLINT -> {
+                if (value instanceof Boolean boolValue) {
+                    statement.setShort(parameter, (short) (boolValue ? 1 : 0));
+                } else if (text != null && (text.equalsIgnoreCase("true") || text.equalsIgnoreCase("false"))) {
+                    statement.setShort(parameter, (short) (text.equalsIgnoreCase("true") ? 1 : 0));
+                } else {
+                    statement.setShort(parameter, Short.parseShort(text != null ? text : value.toString()));
+                }
+            }
+            case Types.INTEGER, Types.BIGINT -> {
+                if (value instanceof Boolean boolValue) {
+                    statement.setLong(parameter, boolValue ? 1 : 0);
+                } else if (value instanceof Number number) {
+                    statement.setLong(parameter, number.longValue());
+                } else {
+                    statement.setLong(parameter, Long.parseLong(text != null ? text : value.toString()));
+                }
+            }
+            case Types.DECIMAL -> {
+                if (value instanceof Boolean boolValue) {
+                    statement.setBigDecimal(parameter, boolValue ? BigDecimal.ONE : BigDecimal.ZERO);
+                } else {
+                    statement.setBigDecimal(parameter, new BigDecimal(text != null ? text : value.toString()));
+                }
+            }
+            case Types.DATE -> statement.setDate(parameter, (value instanceof LocalDateTime dateTime)
+                    ? Date.valueOf(dateTime.toLocalDate())
+                    : Date.valueOf(LocalDate.parse(text != null ? text : value.toString())));
+            case Types.TIMESTAMP -> statement.setTimestamp(parameter, (value instanceof LocalDateTime dateTime)
+                    ? Timestamp.valueOf(dateTime)
+                    : toTimestamp(text != null ? text : value.toString()));
+            default -> statement.setString(parameter, (value instanceof Boolean boolValue)
+                    ? (boolValue ? "1" : "0") // Same representation as in the INSERT scripts
+                    : value.toString());
+        }
+    }
+
+    private static Timestamp toTimestamp(String text) {
+        // A TIMESTAMP column may also contain plain dates (DATE promoted to TIMESTAMP)
+        return text.contains("T")
+                ? Timestamp.valueOf(LocalDateTime.parse(text))
+                : Timestamp.valueOf(LocalDate.parse(text).atStartOfDay());
+    }
+}
@@ -1,12 +1,29 @@
 package org.melisa.datamodel.io;
 
+import org.melisa.datamodel.model.RowSource;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList; // Import ArrayList
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Generates SQL CREATE TABLE and INSERT statements from normalized data.
@@ -20,28 +37,66 @@ public class SqlGenerator {
 
     // Regex for common ISO date/datetime string formats
     private static final Pattern SQL_DATE_PATTERN = Pattern.compile("^\\d{4}-\\d{2}-\\d{2}(T\\d{2}:\\d{2}(:\\d{2}(\\.\\d+)?)?)?$");
-    private static final String DEFAULT_STRING_TYPE = "VARCHAR(255)";
-    private static final String TYPE_INTEGER = "INTEGER";
-    private static final String TYPE_DECIMAL = "DECIMAL(18, 4)";
-    private static final String TYPE_BOOLEAN = "SMALLINT";
-    private static final String TYPE_DATE = "DATE";
-    private static final String TYPE_TIMESTAMP = "TIMESTAMP";
+
+    // Shorter ASCII digit runs always fit an int, longer ones are checked with Long.parseLong
+    private static final int MAX_SAFE_INT_DIGITS = 9;
+
+    // Largest DECIMAL precision supported by all common databases
+    private static final int MAX_DECIMAL_PRECISION = 38;
+
+    // Row sources with at least this many rows (if known) are inferred on parallel chunks
+    private static final int PARALLEL_INFERENCE_THRESHOLD = 20_000;
+
+    // Random access row sources with at least this many rows are inferred from a sample first
+    private static final int SAMPLED_INFERENCE_THRESHOLD = 100_000;
+    private static final int DEFAULT_SAMPLE_SIZE = 1_000;
+
+    // Fixed seed, so the sample (and the amount of widening work) is reproducible between runs
+    private static final long SAMPLE_SEED = 0x5EED_5A3B1EL;
+
+    // Precompiled patterns and memo for toSqlIdentifier
+    private static final Pattern NON_IDENTIFIER_CHARACTERS = Pattern.compile("[^a-zA-Z0-9_]");
+    private static final Pattern LEADING_DIGIT = Pattern.compile("^\\d.*");
+    private static final Pattern EDGE_UNDERSCORES = Pattern.compile("^_|_$");
+    private static final int MAX_CACHED_IDENTIFIERS = 10_000;
+    private static final Map<String, String> SQL_IDENTIFIER_CACHE = new ConcurrentHashMap<>();
+
+    // Characters buffered before they are encoded and handed to a byte channel
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
 
     /**
      * Converts a string name to a SQL-friendly identifier (e.g., UPPERCASE_WITH_UNDERSCORES).
+     * The conversion runs several regular expressions, so results are memoized: column names repeat
+     * for every row and every relation (SecondNormalizer and ThirdNormalizer use this method as well).
      *
      * @param name The original column name.
      * @return A sanitized, SQL-safe identifier.
      */
     public static String toSqlIdentifier(String name) {
-        if (name == null || name.trim().isEmpty()) {
+        if (name == null) {
             return "UNKNOWN_COLUMN";
         }
-        String sanitized = name.trim().replaceAll("[^a-zA-Z0-9_]", "_");
-        if (sanitized.matches("^\\d.*")) {
+        String cached = SQL_IDENTIFIER_CACHE.get(name);
+        if (cached != null) {
+            return cached;
+        }
+        String sanitized = sanitizeIdentifier(name);
+        // The cache is bounded, unusual inputs (e.g. generated names) are simply not remembered
+        if (SQL_IDENTIFIER_CACHE.size() < MAX_CACHED_IDENTIFIERS) {
+            SQL_IDENTIFIER_CACHE.put(name, sanitized);
+        }
+        return sanitized;
+    }
+
+    private static String sanitizeIdentifier(String name) {
+        if (name.trim().isEmpty()) {
+            return "UNKNOWN_COLUMN";
+        }
+        String sanitized = NON_IDENTIFIER_CHARACTERS.matcher(name.trim()).replaceAll("_");
+        if (LEADING_DIGIT.matcher(sanitized).matches()) {
             sanitized = "_" + sanitized;
         }
-        sanitized = sanitized.replaceAll("^_|_$", "");
+        sanitized = EDGE_UNDERSCORES.matcher(sanitized).replaceAll("");
         if (sanitized.isEmpty()) {
             return "DEFAULT_COLUMN";
         }
@@ -54,11 +109,11 @@ public class SqlGenerator {
      * infers types from String objects, mapping them to standard SQL types.
      *
      * @param value The Java object value from the data map.
-     * @return A string representing the SQL data type (e.g., "INTEGER", "DECIMAL(18, 4)").
+     * @return The SQL data type (e.g., INTEGER, DECIMAL).
      */
-    private static String getSqlType(Object value) {
+    private static SqlType getSqlType(Object value) {
         if (value == null) {
-            return DEFAULT_STRING_TYPE; // Default for nulls
+            return SqlType.VARCHAR; // Default for nulls
         }
 
         // Use modern switch expression for clean type matching
@@ -66,18 +121,18 @@ public class SqlGenerator {
             // Case 1: The org.melisa.datamodel.normalization.Normalizer's heuristics already typed the object correctly.
             // FIX: Use unique, named variables (i, l, d, f, b, ldt)
             // as unnamed patterns (_) are not standard in Java 21.
-            case Integer i -> TYPE_INTEGER;
-            case Long l -> TYPE_INTEGER;
-            case Double d -> TYPE_DECIMAL;
-            case Float f -> TYPE_DECIMAL;
-            case Boolean b -> TYPE_BOOLEAN;
-            case LocalDateTime ldt -> TYPE_TIMESTAMP;
+            case Integer i -> SqlType.INTEGER;
+            case Long l -> (l == (int) (long) l) ? SqlType.INTEGER : SqlType.BIGINT;
+            case Double d -> SqlType.DECIMAL;
+            case Float f -> SqlType.DECIMAL;
+            case Boolean b -> SqlType.SMALLINT;
+            case LocalDateTime ldt -> SqlType.TIMESTAMP;
 
             // Case 2: The object is a String that needs type inference.
             case String strValue -> inferSqlTypeFromString(strValue);
 
             // Fallback for any other unexpected Java types
-            default -> DEFAULT_STRING_TYPE;
+            default -> SqlType.VARCHAR;
         };
     }
 
@@ -86,86 +141,146 @@ public class SqlGenerator {
      * Checks for Boolean, Date, Integer, and Double before defaulting to VARCHAR.
      *
      * @param value The String value to analyze.
-     * @return The inferred SQL data type as a String.
+     * @return The inferred SQL data type.
      */
-    private static String inferSqlTypeFromString(String value) {
+    private static SqlType inferSqlTypeFromString(String value) {
         String trimmed = value.trim();
         if (trimmed.isEmpty()) {
-            return DEFAULT_STRING_TYPE;
+            return SqlType.VARCHAR;
         }
 
         // Check 1: Boolean
         if (trimmed.equalsIgnoreCase("true") || trimmed.equalsIgnoreCase("false")) {
-            return TYPE_BOOLEAN;
+            return SqlType.SMALLINT;
         }
 
-        // Check 2: Date/Datetime
-        if (SQL_DATE_PATTERN.matcher(trimmed).matches()) {
-            return trimmed.contains("T") ? TYPE_TIMESTAMP : TYPE_DATE;
+        // Check 2: Date/Datetime (the regex only runs on strings shaped like "yyyy-...")
+        if (trimmed.length() >= 10 && trimmed.charAt(4) == '-' && SQL_DATE_PATTERN.matcher(trimmed).matches()) {
+            return trimmed.contains("T") ? SqlType.TIMESTAMP : SqlType.DATE;
         }
 
         // Check 3: Numeric (Integer or Double)
-        try {
-            // Try parsing as a whole number
-            Long.parseLong(trimmed);
-            return TYPE_INTEGER; // Use Long to handle large numbers, but map to SQL INTEGER
-        } catch (NumberFormatException e1) {
-            // Not an integer, try parsing as a floating-point number
-            try {
-                Double.parseDouble(trimmed);
-                return TYPE_DECIMAL; // Use DECIMAL for floating-point precision
-            } catch (NumberFormatException e2) {
-                // Not a number, fall through to default
-            }
-        }
-
-        // Default: Treat as a standard text string
-        return DEFAULT_STRING_TYPE;
+        return scanNumber(trimmed);
     }
 
-
     /**
-     * Promotes a SQL data type to a more general one if a conflicting type is found.
-     * This is crucial for columns with mixed data (e.g., "10" and "10.5").
+     * Classifies a trimmed string exactly like Long.parseLong followed by Double.parseDouble would
+     * (INTEGER or BIGINT if the first accepts it, DECIMAL if only the second does, VARCHAR otherwise), but
+     * with a single character scan instead of two thrown exceptions per non-numeric string.
+     *
+     * The scanner covers plain decimal notation: [+-] digits [. digits] [e [+-] digits] [fFdD].
+     * The rare forms it does not cover (NaN, Infinity, hexadecimal floats, non-ASCII digits) are
+     * delegated to the parse methods.
      *
-     * @param existingType The currently inferred SQL type for a column.
-     * @param newType      The new type encountered for the same column.
-     * @return The most general (or compatible) SQL type.
+     * @param trimmed The trimmed, non-empty string.
+     * @return INTEGER, BIGINT, DECIMAL or VARCHAR.
      */
-    private static String promoteSqlType(String existingType, String newType) {
-        if (existingType.equals(newType)) {
-            return existingType;
+    static SqlType scanNumber(String trimmed) {
+        int length = trimmed.length();
+        int position = 0;
+        char first = trimmed.charAt(0);
+        if (first == '+' || first == '-') {
+            position++;
         }
 
-        // Promotion priority: VARCHAR > DECIMAL > INTEGER > SMALLINT
-        // (Date types are handled separately)
+        int integerDigits = 0;
+        while (position < length && isAsciiDigit(trimmed.charAt(position))) {
+            position++;
+            integerDigits++;
+        }
+        if (position == length && integerDigits > 0) {
+            // Whole number, unless it overflows a long (then it is still a valid double)
+            return (integerDigits <= MAX_SAFE_INT_DIGITS) ? SqlType.INTEGER : parseWholeNumber(trimmed);
+        }
 
-        if (existingType.equals(DEFAULT_STRING_TYPE) || newType.equals(DEFAULT_STRING_TYPE)) {
-            return DEFAULT_STRING_TYPE;
+        int fractionDigits = 0;
+        if (position < length && trimmed.charAt(position) == '.') {
+            position++;
+            while (position < length && isAsciiDigit(trimmed.charAt(position))) {
+                position++;
+                fractionDigits++;
+            }
         }
-        if (existingType.equals(TYPE_DECIMAL) || newType.equals(TYPE_DECIMAL)) {
-            // Promote INTEGER/SMALLINT to DECIMAL if mixed
-            if (newType.equals(TYPE_INTEGER) || existingType.equals(TYPE_INTEGER) || newType.equals(TYPE_BOOLEAN) || existingType.equals(TYPE_BOOLEAN)) {
-                return TYPE_DECIMAL;
+        if (integerDigits + fractionDigits == 0) {
+            return needsParseFallback(trimmed) ? parseWithFallback(trimmed) : SqlType.VARCHAR;
+        }
+
+        if (position < length && (trimmed.charAt(position) == 'e' || trimmed.charAt(position) == 'E')) {
+            position++;
+            if (position < length && (trimmed.charAt(position) == '+' || trimmed.charAt(position) == '-')) {
+                position++;
             }
+            int exponentDigits = 0;
+            while (position < length && isAsciiDigit(trimmed.charAt(position))) {
+                position++;
+                exponentDigits++;
+            }
+            if (exponentDigits == 0) {
+                return needsParseFallback(trimmed) ? parseWithFallback(trimmed) : SqlType.VARCHAR;
+            }
+        }
+
+        // Optional float/double type suffix, accepted by Double.parseDouble
+        if (position == length - 1 && "fFdD".indexOf(trimmed.charAt(position)) >= 0) {
+            position++;
         }
-        if (existingType.equals(TYPE_INTEGER) || newType.equals(TYPE_INTEGER)) {
-            // Promote SMALLINT to INTEGER if mixed
-            if (newType.equals(TYPE_BOOLEAN) || existingType.equals(TYPE_BOOLEAN)) {
-                return TYPE_INTEGER;
+        if (position == length) {
+            return SqlType.DECIMAL;
+        }
+        return needsParseFallback(trimmed) ? parseWithFallback(trimmed) : SqlType.VARCHAR;
+    }
+
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * @return INTEGER or BIGINT depending on the range of the whole number, DECIMAL if it does not fit a long.
+     */
+    private static SqlType parseWholeNumber(String digits) {
+        try {
+            long value = Long.parseLong(digits);
+            return (value == (int) value) ? SqlType.INTEGER : SqlType.BIGINT;
+        } catch (NumberFormatException e) {
+            return SqlType.DECIMAL;
+        }
+    }
+
+    /**
+     * Strings the scanner cannot judge on its own: NaN/Infinity, hexadecimal floats and non-ASCII digits.
+     */
+    private static boolean needsParseFallback(String trimmed) {
+        for (int i = 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if (c > 0x7F || c == 'N' || c == 'I' || c == 'x' || c == 'X') {
+                return true;
             }
         }
-        if (existingType.equals(TYPE_TIMESTAMP) || newType.equals(TYPE_TIMESTAMP)) {
-            // Promote DATE to TIMESTAMP if mixed
-            if (newType.equals(TYPE_DATE) || existingType.equals(TYPE_DATE)) {
-                return TYPE_TIMESTAMP;
+        return false;
+    }
+
+    /**
+     * The original exception driven classification, only used for the rare strings of {@link #needsParseFallback(String)}.
+     */
+    private static SqlType parseWithFallback(String trimmed) {
+        try {
+            // Try parsing as a whole number
+            long value = Long.parseLong(trimmed);
+            return (value == (int) value) ? SqlType.INTEGER : SqlType.BIGINT;
+        } catch (NumberFormatException e1) {
+            // Not an integer, try parsing as a floating-point number
+            try {
+                Double.parseDouble(trimmed);
+                return SqlType.DECIMAL; // Use DECIMAL for floating-point precision
+            } catch (NumberFormatException e2) {
+                // Not a number, fall through to default
             }
         }
 
-        return DEFAULT_STRING_TYPE; // Should be covered by the first check
+        // Default: Treat as a standard text string
+        return SqlType.VARCHAR;
     }
 
-
     /**
      * Generates a SQL script containing CREATE TABLE and INSERT statements
      * based on the normalized data and including key constraints.
@@ -173,8 +288,8 @@ public class SqlGenerator {
      * @param normalizedData The List of data rows (maps).
      * @param tableName      The desired name for the SQL table.
      * @param primaryKeys    A List of SQL-sanitized column names forming the primary key.
-     * @param foreignKeys    A Map where the key is the FK column name (SQL-sanitized) and
-     * the value is the reference string (e.g., "REFERENCE_TABLE(COLUMN)").
+     * @param foreignKeys    A Map where the key is the FK column name (SQL-sanitized, comma separated for
+     * composite keys) and the value is the reference string (e.g., "REFERENCE_TABLE(COLUMN)").
      * @return A String containing the full SQL script.
      */
     public static String generateSqlScript(
@@ -183,43 +298,229 @@ public class SqlGenerator {
             List<String> primaryKeys,
             Map<String, String> foreignKeys) {
 
-        StringBuilder sqlBuilder = new StringBuilder();
-
         if (normalizedData == null || normalizedData.isEmpty()) {
             return "-- No data to generate SQL for.\n";
         }
+        return generateSqlScript(RowSource.of(normalizedData), tableName, primaryKeys, foreignKeys);
+    }
+
+    /**
+     * Generates the same script as {@link #generateSqlScript(List, String, List, Map)}, but pulls the rows
+     * from a {@link RowSource}. The source is read twice: once to determine the schema and once to
+     * generate the INSERT statements, so the rows never have to be materialized.
+     *
+     * @param normalizedData The source of data rows (maps).
+     * @param tableName      The desired name for the SQL table.
+     * @param primaryKeys    A List of SQL-sanitized column names forming the primary key.
+     * @param foreignKeys    A Map where the key is the FK column name (SQL-sanitized, comma separated for
+     * composite keys) and the value is the reference string (e.g., "REFERENCE_TABLE(COLUMN)").
+     * @return A String containing the full SQL script.
+     */
+    public static String generateSqlScript(
+            RowSource normalizedData,
+            String tableName,
+            List<String> primaryKeys,
+            Map<String, String> foreignKeys) {
+
+        StringWriter sqlWriter = new StringWriter();
+        try {
+            writeSqlScript(normalizedData, tableName, primaryKeys, foreignKeys, sqlWriter);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // A StringWriter never fails
+        }
+        return sqlWriter.toString();
+    }
+
+    /**
+     * Streams the SQL script to a byte channel (UTF-8), e.g. a FileChannel or
+     * {@code Channels.newChannel(System.out)}. At most one buffer of characters is held in memory,
+     * independent of the number of rows. The channel is flushed but not closed.
+     *
+     * @param normalizedData The source of data rows (maps).
+     * @param tableName      The desired name for the SQL table.
+     * @param primaryKeys    A List of SQL-sanitized column names forming the primary key.
+     * @param foreignKeys    A Map of FK column name(s) to reference string, see {@link #generateSqlScript(RowSource, String, List, Map)}.
+     * @param channel        The destination of the script.
+     * @throws IOException If writing to the channel fails.
+     */
+    public static void writeSqlScript(
+            RowSource normalizedData,
+            String tableName,
+            List<String> primaryKeys,
+            Map<String, String> foreignKeys,
+            WritableByteChannel channel) throws IOException {
+
+        Writer channelWriter = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        writeSqlScript(normalizedData, tableName, primaryKeys, foreignKeys, channelWriter);
+        channelWriter.flush(); // Not closed, that would close the caller's channel
+    }
+
+    /**
+     * Streams the SQL script statement by statement to a Writer, while the rows are pulled from the source.
+     * Only the statement that is currently being written is buffered here, so memory stays flat however
+     * many rows there are. Pass a buffered Writer to avoid one write call per statement.
+     * The Writer is flushed but not closed.
+     *
+     * @param normalizedData The source of data rows (maps).
+     * @param tableName      The desired name for the SQL table.
+     * @param primaryKeys    A List of SQL-sanitized column names forming the primary key.
+     * @param foreignKeys    A Map of FK column name(s) to reference string, see {@link #generateSqlScript(RowSource, String, List, Map)}.
+     * @param writer         The destination of the script.
+     * @throws IOException If writing fails.
+     */
+    public static void writeSqlScript(
+            RowSource normalizedData,
+            String tableName,
+            List<String> primaryKeys,
+            Map<String, String> foreignKeys,
+            Writer writer) throws IOException {
+
+        writeSqlScript(normalizedData, tableName, primaryKeys, foreignKeys, 1, writer);
+    }
+
+    /**
+     * Streams the SQL script with multi-row INSERT statements: up to batchSize rows share one
+     * {@code INSERT INTO ... VALUES (...), (...);} statement, so the column list is written once per
+     * batch and the database parses far fewer statements. A batch size of 1 gives one INSERT per row.
+     *
+     * @param normalizedData The source of data rows (maps).
+     * @param tableName      The desired name for the SQL table.
+     * @param primaryKeys    A List of SQL-sanitized column names forming the primary key.
+     * @param foreignKeys    A Map of FK column name(s) to reference string, see {@link #generateSqlScript(RowSource, String, List, Map)}.
+     * @param batchSize      The maximum number of rows per INSERT statement.
+     * @param writer         The destination of the script.
+     * @throws IOException              If writing fails.
+     * @throws IllegalArgumentException If batchSize is smaller than 1.
+     */
+    public static void writeSqlScript(
+            RowSource normalizedData,
+            String tableName,
+            List<String> primaryKeys,
+            Map<String, String> foreignKeys,
+            int batchSize,
+            Writer writer) throws IOException {
+
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1, but was " + batchSize + ".");
+        }
+
+        StringBuilder sqlBuilder = new StringBuilder();
 
         String sqlTableName = toSqlIdentifier(tableName);
 
         // --- Step 1: Determine Comprehensive Schema (All Columns and Most General Types) ---
-        Map<String, String> columnSchema = new LinkedHashMap<>();
+        ColumnSchema schema = inferColumnSchema(normalizedData);
 
-        for (Map<String, Object> row : normalizedData) {
-            for (Map.Entry<String, Object> entry : row.entrySet()) {
-                String originalColumnName = entry.getKey();
-                String sqlColumnName = toSqlIdentifier(originalColumnName);
-                String inferredType = getSqlType(entry.getValue());
+        if (schema.sqlTypes().isEmpty()) {
+            writer.write("-- No data to generate SQL for.\n");
+            writer.flush();
+            return;
+        }
 
-                if (!columnSchema.containsKey(sqlColumnName)) {
-                    columnSchema.put(sqlColumnName, inferredType);
-                } else {
-                    String existingType = columnSchema.get(sqlColumnName);
-                    String promotedType = promoteSqlType(existingType, inferredType);
-                    columnSchema.put(sqlColumnName, promotedType);
-                }
+        // --- Step 2: Generate CREATE TABLE Statement ---
+        appendCreateTable(sqlBuilder, sqlTableName, schema.sqlTypes(), primaryKeys, foreignKeys);
+        sqlBuilder.append(";\n\n");
+        writer.append(sqlBuilder);
+
+
+        // --- Step 3: Generate INSERT Statements (one reused buffer per statement) ---
+        // The column list and the original column of every SQL column are resolved once per relation
+        InsertTemplate insertTemplate = new InsertTemplate(sqlTableName, schema);
+        int[] rowsInStatement = {0};
+        writeRows(normalizedData, row -> {
+            if (rowsInStatement[0] == 0) {
+                sqlBuilder.setLength(0);
+                insertTemplate.appendStatementStart(sqlBuilder);
+            } else {
+                sqlBuilder.append(",\n       ");
+            }
+            insertTemplate.appendValues(sqlBuilder, row);
+            if (++rowsInStatement[0] == batchSize) {
+                sqlBuilder.append(";\n");
+                writer.append(sqlBuilder);
+                rowsInStatement[0] = 0;
             }
+        });
+        if (rowsInStatement[0] > 0) {
+            // Last, partially filled batch
+            sqlBuilder.append(";\n");
+            writer.append(sqlBuilder);
         }
+        writer.flush();
+    }
+
+    /**
+     * Bulk mode: instead of INSERT statements, the rows are written as a CSV data file (with a header line),
+     * and the script contains the CREATE TABLE statement followed by one dialect specific bulk load statement
+     * ({@code COPY} or {@code LOAD DATA}) that reads the file. Both Writers are flushed but not closed.
+     *
+     * @param normalizedData The source of data rows (maps).
+     * @param tableName      The desired name for the SQL table.
+     * @param primaryKeys    A List of SQL-sanitized column names forming the primary key.
+     * @param foreignKeys    A Map of FK column name(s) to reference string, see {@link #generateSqlScript(RowSource, String, List, Map)}.
+     * @param dialect        The target database.
+     * @param dataFilePath   The path of the data file, as the database server (or client) will see it.
+     * @param scriptWriter   The destination of the script.
+     * @param dataWriter     The destination of the CSV data.
+     * @throws IOException If writing fails.
+     */
+    public static void writeBulkLoadScript(
+            RowSource normalizedData,
+            String tableName,
+            List<String> primaryKeys,
+            Map<String, String> foreignKeys,
+            BulkLoadDialect dialect,
+            String dataFilePath,
+            Writer scriptWriter,
+            Writer dataWriter) throws IOException {
+
+        StringBuilder sqlBuilder = new StringBuilder();
+        String sqlTableName = toSqlIdentifier(tableName);
+        ColumnSchema schema = inferColumnSchema(normalizedData);
+
+        if (schema.sqlTypes().isEmpty()) {
+            scriptWriter.write("-- No data to generate SQL for.\n");
+            scriptWriter.flush();
+            return;
+        }
+
+        appendCreateTable(sqlBuilder, sqlTableName, schema.sqlTypes(), primaryKeys, foreignKeys);
+        sqlBuilder.append(";\n\n");
+        List<String> sqlColumnNames = new ArrayList<>(schema.sqlTypes().keySet());
+        sqlBuilder.append(dialect.loadStatement(sqlTableName, sqlColumnNames, dataFilePath)).append("\n");
+        scriptWriter.append(sqlBuilder);
+        scriptWriter.flush();
+
+        // Data file: header line, then one line per row in schema column order
+        InsertTemplate rowLayout = new InsertTemplate(sqlTableName, schema);
+        sqlBuilder.setLength(0);
+        sqlBuilder.append(String.join(",", sqlColumnNames)).append("\n");
+        dataWriter.append(sqlBuilder);
+        writeRows(normalizedData, row -> {
+            sqlBuilder.setLength(0);
+            rowLayout.appendCsvLine(sqlBuilder, row, dialect);
+            dataWriter.append(sqlBuilder);
+        });
+        dataWriter.flush();
+    }
+
+    /**
+     * Appends the CREATE TABLE statement including the key constraints (without the terminating semicolon,
+     * so JdbcRelationLoader can execute it as is).
+     */
+    static void appendCreateTable(
+            StringBuilder sqlBuilder, String sqlTableName, Map<String, ColumnType> columnSchema,
+            List<String> primaryKeys, Map<String, String> foreignKeys) {
 
-        // --- Step 2: Generate CREATE TABLE Statement (Refactored for Cleanliness) ---
         sqlBuilder.append("CREATE TABLE ").append(sqlTableName).append(" (\n");
 
         // Use a List to manage definitions, avoiding trailing comma bugs.
         List<String> createDefinitions = new ArrayList<>();
 
         // Add all column definitions (Name and Type)
-        for (Map.Entry<String, String> entry : columnSchema.entrySet()) {
+        for (Map.Entry<String, ColumnType> entry : columnSchema.entrySet()) {
             StringBuilder columnDef = new StringBuilder();
-            columnDef.append("    ").append(entry.getKey()).append(" ").append(entry.getValue());
+            columnDef.append("    ").append(entry.getKey()).append(" ").append(entry.getValue().sqlName());
             // Add NOT NULL constraint if column is part of the primary key
             if (primaryKeys != null && primaryKeys.contains(entry.getKey())) {
                 columnDef.append(" NOT NULL");
@@ -238,7 +539,8 @@ public class SqlGenerator {
             for (Map.Entry<String, String> fkEntry : foreignKeys.entrySet()) {
                 String fkColumn = fkEntry.getKey();
                 String fkReference = fkEntry.getValue();
-                String fkName = "FK_" + sqlTableName + "_" + fkColumn;
+                // Composite FKs are keyed by their column list ("A, B")
+                String fkName = "FK_" + sqlTableName + "_" + fkColumn.replace(", ", "_");
 
                 StringBuilder fkDef = new StringBuilder();
                 fkDef.append("    CONSTRAINT ").append(fkName);
@@ -250,52 +552,550 @@ public class SqlGenerator {
 
         // Join all definitions with a comma and newline
         sqlBuilder.append(String.join(",\n", createDefinitions));
-        sqlBuilder.append("\n);\n\n");
+        sqlBuilder.append("\n)");
+    }
 
+    /**
+     * Receives the rows of one pass and may fail with an IOException (the destination is a Writer).
+     */
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(Map<String, Object> row) throws IOException;
+    }
 
-        // --- Step 3: Generate INSERT Statements ---
-        for (Map<String, Object> row : normalizedData) {
-            sqlBuilder.append("INSERT INTO ").append(sqlTableName).append(" (");
+    /**
+     * Runs one pass over the rows, passing IOExceptions of the RowWriter through unchanged.
+     */
+    private static void writeRows(RowSource normalizedData, RowWriter rowWriter) throws IOException {
+        try {
+            normalizedData.forEachRow(row -> {
+                try {
+                    rowWriter.write(row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
 
-            StringBuilder cols = new StringBuilder();
-            StringBuilder values = new StringBuilder();
+    /**
+     * The result of the schema pass.
+     *
+     * @param sqlTypes      SQL column name to its sized SQL type, in order of first appearance.
+     * @param originalNames SQL column name to the original column names mapping to it (usually exactly one).
+     */
+    record ColumnSchema(Map<String, ColumnType> sqlTypes, Map<String, List<String>> originalNames) {
+    }
 
-            // Iterate through the determined schema to ensure all columns are included in order
-            for (String sqlColumnName : columnSchema.keySet()) {
-                String originalColumnName = null;
-                for (String keyInRow : row.keySet()) {
-                    if (toSqlIdentifier(keyInRow).equals(sqlColumnName)) {
-                        originalColumnName = keyInRow;
-                        break;
+    /**
+     * The SQL type of one column, sized to the data it holds.
+     *
+     * @param type      The inferred type.
+     * @param length    VARCHAR only: the longest value in characters.
+     * @param precision DECIMAL only: the total number of digits.
+     * @param scale     DECIMAL only: the number of digits after the decimal point.
+     */
+    record ColumnType(SqlType type, int length, int precision, int scale) {
+
+        /**
+         * @return The type as written in a CREATE TABLE statement (e.g. "VARCHAR(12)" or "DECIMAL(7, 2)").
+         */
+        String sqlName() {
+            return switch (type) {
+                case VARCHAR -> "VARCHAR(" + length + ")";
+                case DECIMAL -> "DECIMAL(" + precision + ", " + scale + ")";
+                default -> type.sqlName();
+            };
+        }
+
+        /**
+         * @return The matching {@link java.sql.Types} constant.
+         */
+        int jdbcType() {
+            return type.jdbcType();
+        }
+    }
+
+    /**
+     * Determines every column with its most general SQL type.
+     *
+     * Large random access sources (e.g. materialized lists) are inferred from a sample first and then
+     * verified (see {@link #inferColumnSchema(RowSource, int)}). All other sources are inferred in one full pass.
+     *
+     * @param normalizedData The source of data rows (maps).
+     * @return The SQL columns with their types and original names, in order of first appearance.
+     */
+    static ColumnSchema inferColumnSchema(RowSource normalizedData) {
+        List<Map<String, Object>> rows = normalizedData.randomAccessRows();
+        if (rows != null && rows.size() >= SAMPLED_INFERENCE_THRESHOLD) {
+            return inferColumnSchema(normalizedData, DEFAULT_SAMPLE_SIZE);
+        }
+        return verifyColumnSchema(normalizedData, Map.of());
+    }
+
+    /**
+     * Infers the schema from a random sample of rows and then checks all rows against it.
+     *
+     * The sample is drawn by index, so it costs no extra pass, and the rows are then read exactly once.
+     * Its types are only a starting point: the verification pass promotes a column whenever a value does
+     * not fit its current type, so the result is always identical to a full inference. With the final types
+     * known up front, nearly every value passes the cheap per-type check instead of being classified, also
+     * in chunks of a parallel pass. Sources without random access (or not larger than the sample) would need
+     * an extra pass for the sample and are inferred in one full pass instead.
+     *
+     * @param normalizedData The source of data rows (maps).
+     * @param sampleSize     The number of rows drawn for the sample.
+     * @return The SQL columns with their types and original names, in order of first appearance.
+     * @throws IllegalArgumentException If sampleSize is smaller than 1.
+     */
+    static ColumnSchema inferColumnSchema(RowSource normalizedData, int sampleSize) {
+        if (sampleSize < 1) {
+            throw new IllegalArgumentException("Sample size must be at least 1, but was " + sampleSize + ".");
+        }
+        List<Map<String, Object>> rows = normalizedData.randomAccessRows();
+        if (rows == null || rows.size() <= sampleSize) {
+            return verifyColumnSchema(normalizedData, Map.of());
+        }
+
+        // Rows drawn at random indexes (with replacement), the fixed seed keeps the sample reproducible
+        SchemaAccumulator sampleSchema = new SchemaAccumulator(Map.of());
+        SplittableRandom random = new SplittableRandom(SAMPLE_SEED);
+        for (int i = 0; i < sampleSize; i++) {
+            sampleSchema.add(rows.get(random.nextInt(rows.size())));
+        }
+        Map<String, SqlType> expectedTypes = new HashMap<>();
+        sampleSchema.columns.forEach((sqlColumnName, statistics) -> expectedTypes.put(sqlColumnName, statistics.type));
+        return verifyColumnSchema(normalizedData, expectedTypes);
+    }
+
+    /**
+     * Runs one pass over the rows, widens the expected types wherever a value does not fit and
+     * measures the values (length, digits) in the same pass.
+     *
+     * Row sources of known, large size are split into chunks that are checked in parallel. The partial
+     * schemas are merged in row order with {@link SqlType#promote(SqlType)}, which is associative, so the
+     * result is identical to a sequential pass.
+     *
+     * @param normalizedData The source of data rows (maps).
+     * @param expectedTypes  The starting type per SQL column name (empty for a full inference).
+     * @return The SQL columns with their types and original names, in order of first appearance.
+     */
+    private static ColumnSchema verifyColumnSchema(RowSource normalizedData, Map<String, SqlType> expectedTypes) {
+        try (Stream<Map<String, Object>> rows = normalizedData.rows()) {
+            Spliterator<Map<String, Object>> spliterator = rows.spliterator();
+            boolean parallel = spliterator.getExactSizeIfKnown() >= PARALLEL_INFERENCE_THRESHOLD;
+            SchemaAccumulator schema = StreamSupport.stream(spliterator, parallel)
+                    .collect(() -> new SchemaAccumulator(expectedTypes), SchemaAccumulator::add, SchemaAccumulator::merge);
+
+            Map<String, ColumnType> sqlTypes = new LinkedHashMap<>();
+            schema.columns.forEach((sqlColumnName, statistics) -> sqlTypes.put(sqlColumnName, statistics.toColumnType()));
+            return new ColumnSchema(sqlTypes, schema.originalNames);
+        }
+    }
+
+    /**
+     * Partial schema of a chunk of rows. Chunks are merged left to right, so the column order
+     * stays the order of first appearance.
+     */
+    private static final class SchemaAccumulator {
+        private final Map<String, SqlType> expectedTypes;
+        private final Map<String, ColumnStatistics> columns = new LinkedHashMap<>();
+        private final Map<String, List<String>> originalNames = new LinkedHashMap<>();
+
+        SchemaAccumulator(Map<String, SqlType> expectedTypes) {
+            this.expectedTypes = expectedTypes;
+        }
+
+        void add(Map<String, Object> row) {
+            for (Map.Entry<String, Object> entry : row.entrySet()) {
+                String sqlColumnName = toSqlIdentifier(entry.getKey());
+                ColumnStatistics statistics = columns.get(sqlColumnName);
+                if (statistics == null) {
+                    statistics = new ColumnStatistics(expectedTypes.get(sqlColumnName));
+                    columns.put(sqlColumnName, statistics);
+                    originalNames.put(sqlColumnName, new ArrayList<>(List.of(entry.getKey())));
+                } else {
+                    addOriginalName(sqlColumnName, entry.getKey());
+                }
+                statistics.add(entry.getValue());
+            }
+        }
+
+        void merge(SchemaAccumulator later) {
+            for (Map.Entry<String, ColumnStatistics> entry : later.columns.entrySet()) {
+                ColumnStatistics statistics = columns.get(entry.getKey());
+                if (statistics == null) {
+                    columns.put(entry.getKey(), entry.getValue());
+                    originalNames.put(entry.getKey(), later.originalNames.get(entry.getKey()));
+                } else {
+                    statistics.merge(entry.getValue());
+                    for (String originalColumnName : later.originalNames.get(entry.getKey())) {
+                        addOriginalName(entry.getKey(), originalColumnName);
                     }
                 }
+            }
+        }
 
-                Object value = (originalColumnName != null) ? row.get(originalColumnName) : null;
+        private void addOriginalName(String sqlColumnName, String originalColumnName) {
+            List<String> names = originalNames.get(sqlColumnName);
+            if (!names.contains(originalColumnName)) {
+                names.add(originalColumnName);
+            }
+        }
+    }
+
+    /**
+     * Type and size of one column, collected value by value with primitive counters.
+     *
+     * The longest value (as written to the script) sizes a VARCHAR column. The largest number of
+     * integer digits and the largest number of fraction digits size a DECIMAL column, so every value
+     * fits without rounding. Digits are only counted while the column is still numeric.
+     */
+    private static final class ColumnStatistics {
+        private SqlType type;
+        private int maxLength;
+        private int integerDigits;
+        private int scale;
+        private boolean unboundedDecimal; // NaN, Infinity or a hexadecimal float, no DECIMAL(p, s) holds these
+
+        ColumnStatistics(SqlType expectedType) {
+            this.type = expectedType;
+        }
 
-                if (cols.length() > 0) {
-                    cols.append(", ");
-                    values.append(", ");
+        void add(Object value) {
+            maxLength = Math.max(maxLength, valueLength(value));
+            if (type == SqlType.VARCHAR) {
+                return; // Top of the lattice, the value cannot change the type any more
+            }
+            if (type != null && value instanceof String strValue && addIfFits(strValue.trim())) {
+                return;
+            }
+            SqlType valueType = getSqlType(value);
+            type = (type == null) ? valueType : type.promote(valueType);
+            if (type.isNumeric() && valueType.isNumeric()) {
+                countDigits(value);
+            }
+        }
+
+        void merge(ColumnStatistics later) {
+            type = (type == null) ? later.type : (later.type == null) ? type : type.promote(later.type);
+            maxLength = Math.max(maxLength, later.maxLength);
+            integerDigits = Math.max(integerDigits, later.integerDigits);
+            scale = Math.max(scale, later.scale);
+            unboundedDecimal |= later.unboundedDecimal;
+        }
+
+        ColumnType toColumnType() {
+            if (type == SqlType.DECIMAL) {
+                if (unboundedDecimal || integerDigits > MAX_DECIMAL_PRECISION) {
+                    // Not representable as a portable DECIMAL, keep the values as text
+                    return new ColumnType(SqlType.VARCHAR, Math.max(1, maxLength), 0, 0);
                 }
-                cols.append(sqlColumnName);
-                values.append(formatSqlValue(value));
+                // Fraction digits are given up first when the total exceeds the largest precision
+                int decimalScale = Math.min(scale, MAX_DECIMAL_PRECISION - integerDigits);
+                return new ColumnType(SqlType.DECIMAL, 0, Math.max(1, integerDigits + decimalScale), decimalScale);
             }
-            sqlBuilder.append(cols).append(")\nVALUES (").append(values).append(");\n");
+            if (type == SqlType.VARCHAR) {
+                return new ColumnType(SqlType.VARCHAR, Math.max(1, maxLength), 0, 0);
+            }
+            return new ColumnType(type, 0, 0, 0);
         }
 
-        return sqlBuilder.toString();
+        /**
+         * Fast check of a string for a column that already has a type: the common shapes that cannot
+         * widen the type (plain numbers, booleans, ISO dates) are recognized with one character scan,
+         * which also counts the digits, instead of classifying the value. Anything else (including the
+         * values that would widen the column) is left to the classification.
+         *
+         * @param trimmed The trimmed string value.
+         * @return true if the value fits the current type and was counted.
+         */
+        private boolean addIfFits(String trimmed) {
+            return switch (type) {
+                case SMALLINT -> {
+                    boolean fits = trimmed.equalsIgnoreCase("true") || trimmed.equalsIgnoreCase("false");
+                    if (fits) {
+                        integerDigits = Math.max(integerDigits, 1);
+                    }
+                    yield fits;
+                }
+                case INTEGER, BIGINT, DECIMAL -> addIfPlainNumberFits(trimmed);
+                case DATE -> trimmed.length() == 10 && isIsoDateTime(trimmed);
+                case TIMESTAMP -> isIsoDateTime(trimmed);
+                default -> false;
+            };
+        }
+
+        /**
+         * Scans plain notation ([+-] digits [. digits]) and counts its digits like {@link #countDigits(String)}
+         * if the number is not more general than the column type.
+         */
+        private boolean addIfPlainNumberFits(String trimmed) {
+            int length = trimmed.length();
+            int position = (length > 0 && (trimmed.charAt(0) == '+' || trimmed.charAt(0) == '-')) ? 1 : 0;
+            int digitsStart = position;
+            while (position < length - 1 && trimmed.charAt(position) == '0' && isAsciiDigit(trimmed.charAt(position + 1))) {
+                position++; // Leading zeros do not need precision
+            }
+            int leadingZeros = position - digitsStart;
+            int wholeDigits = 0;
+            while (position < length && isAsciiDigit(trimmed.charAt(position))) {
+                position++;
+                wholeDigits++;
+            }
+            boolean fraction = position < length && trimmed.charAt(position) == '.';
+            int fractionDigits = 0;
+            if (fraction) {
+                position++;
+                while (position < length && isAsciiDigit(trimmed.charAt(position))) {
+                    position++;
+                    fractionDigits++;
+                }
+            }
+            if (position != length || leadingZeros + wholeDigits + fractionDigits == 0) {
+                return false;
+            }
+
+            // Upper bound of the type scanNumber gives (INTEGER up to 9 digits, a long up to 18 digits)
+            int scannedDigits = leadingZeros + wholeDigits;
+            SqlType valueType = fraction ? SqlType.DECIMAL
+                    : (scannedDigits <= MAX_SAFE_INT_DIGITS) ? SqlType.INTEGER
+                    : (scannedDigits < 19) ? SqlType.BIGINT : SqlType.DECIMAL;
+            if (type.promote(valueType) != type) {
+                return false;
+            }
+            integerDigits = Math.max(integerDigits, wholeDigits);
+            scale = Math.max(scale, fractionDigits);
+            return true;
+        }
+
+        /**
+         * Character scan equivalent of {@link #SQL_DATE_PATTERN}.
+         */
+        private static boolean isIsoDateTime(String trimmed) {
+            int length = trimmed.length();
+            if (length < 10 || !isDigitRun(trimmed, 0, 4) || trimmed.charAt(4) != '-' || !isDigitRun(trimmed, 5, 2)
+                    || trimmed.charAt(7) != '-' || !isDigitRun(trimmed, 8, 2)) {
+                return false;
+            }
+            if (length == 10) {
+                return true;
+            }
+            if (length < 16 || trimmed.charAt(10) != 'T' || !isDigitRun(trimmed, 11, 2)
+                    || trimmed.charAt(13) != ':' || !isDigitRun(trimmed, 14, 2)) {
+                return false;
+            }
+            if (length == 16) {
+                return true;
+            }
+            if (length < 19 || trimmed.charAt(16) != ':' || !isDigitRun(trimmed, 17, 2)) {
+                return false;
+            }
+            return length == 19 || (length > 20 && trimmed.charAt(19) == '.' && isDigitRun(trimmed, 20, length - 20));
+        }
+
+        private static boolean isDigitRun(String text, int start, int count) {
+            for (int i = start; i < start + count; i++) {
+                if (!isAsciiDigit(text.charAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Counts the integer and fraction digits of a value that was classified as numeric.
+         */
+        private void countDigits(Object value) {
+            switch (value) {
+                case Integer i -> integerDigits = Math.max(integerDigits, wholeNumberDigits(i));
+                case Long l -> integerDigits = Math.max(integerDigits, wholeNumberDigits(l));
+                case Boolean b -> integerDigits = Math.max(integerDigits, 1);
+                case Double d -> countDigits(d.isNaN() || d.isInfinite() ? null : BigDecimal.valueOf(d));
+                case Float f -> countDigits(f.isNaN() || f.isInfinite() ? null : new BigDecimal(f.toString()));
+                case String strValue -> countDigits(strValue.trim());
+                default -> {
+                    // getSqlType only classifies the types above as numeric
+                }
+            }
+        }
+
+        private void countDigits(String trimmed) {
+            if (trimmed.equalsIgnoreCase("true") || trimmed.equalsIgnoreCase("false")) {
+                integerDigits = Math.max(integerDigits, 1);
+                return;
+            }
+
+            // Plain notation ([+-] digits [. digits]) is counted directly
+            int length = trimmed.length();
+            int position = (trimmed.charAt(0) == '+' || trimmed.charAt(0) == '-') ? 1 : 0;
+            while (position < length - 1 && trimmed.charAt(position) == '0' && isAsciiDigit(trimmed.charAt(position + 1))) {
+                position++; // Leading zeros do not need precision
+            }
+            int wholeDigits = 0;
+            while (position < length && isAsciiDigit(trimmed.charAt(position))) {
+                position++;
+                wholeDigits++;
+            }
+            int fractionDigits = 0;
+            if (position < length && trimmed.charAt(position) == '.') {
+                position++;
+                while (position < length && isAsciiDigit(trimmed.charAt(position))) {
+                    position++;
+                    fractionDigits++;
+                }
+            }
+            if (position == length) {
+                integerDigits = Math.max(integerDigits, wholeDigits);
+                scale = Math.max(scale, fractionDigits);
+                return;
+            }
+
+            // Exponent, type suffix or one of the rare forms of the parse fallback
+            String number = ("fFdD".indexOf(trimmed.charAt(length - 1)) >= 0) ? trimmed.substring(0, length - 1) : trimmed;
+            try {
+                countDigits(new BigDecimal(number));
+            } catch (NumberFormatException e) {
+                countDigits((BigDecimal) null);
+            }
+        }
+
+        private void countDigits(BigDecimal number) {
+            if (number == null) {
+                unboundedDecimal = true;
+                return;
+            }
+            integerDigits = Math.max(integerDigits, number.precision() - number.scale());
+            scale = Math.max(scale, number.scale());
+        }
+
+        private static int wholeNumberDigits(long value) {
+            int digits = 1;
+            for (long remaining = value / 10; remaining != 0; remaining /= 10) {
+                digits++;
+            }
+            return digits;
+        }
+
+        /**
+         * @return The number of characters the value takes in the script (see formatSqlValue).
+         */
+        private static int valueLength(Object value) {
+            return switch (value) {
+                case null -> 0;
+                case String strValue -> strValue.length();
+                case Boolean b -> 1;
+                case Integer i -> wholeNumberDigits(i) + (i < 0 ? 1 : 0);
+                case Long l -> wholeNumberDigits(l) + (l < 0 ? 1 : 0);
+                default -> value.toString().length();
+            };
+        }
+    }
+
+    /**
+     * INSERT statement layout of one relation: the constant part of the statement is built once,
+     * and every row is read by a precomputed original column name per SQL column.
+     * Also used by JdbcRelationLoader to read the values of a row in schema column order.
+     */
+    static final class InsertTemplate {
+        private final String statementPrefix;
+        private final String[] sqlColumnNames;
+        private final String[] originalColumnNames; // null if several original names map to the SQL column
+        private final SqlType[] columnTypes;
+
+        InsertTemplate(String sqlTableName, ColumnSchema schema) {
+            this.sqlColumnNames = schema.sqlTypes().keySet().toArray(new String[0]);
+            this.originalColumnNames = new String[sqlColumnNames.length];
+            this.columnTypes = new SqlType[sqlColumnNames.length];
+            for (int i = 0; i < sqlColumnNames.length; i++) {
+                List<String> names = schema.originalNames().get(sqlColumnNames[i]);
+                originalColumnNames[i] = (names.size() == 1) ? names.get(0) : null;
+                columnTypes[i] = schema.sqlTypes().get(sqlColumnNames[i]).type();
+            }
+            this.statementPrefix = "INSERT INTO " + sqlTableName + " (" + String.join(", ", sqlColumnNames) + ")\nVALUES ";
+        }
+
+        /**
+         * Appends the constant start of an INSERT statement, up to and including "VALUES ".
+         */
+        void appendStatementStart(StringBuilder sqlBuilder) {
+            sqlBuilder.append(statementPrefix);
+        }
+
+        /**
+         * Appends the value tuple "(v1, v2, ...)" of a single row.
+         *
+         * @param sqlBuilder The statement buffer.
+         * @param row        The row to insert.
+         */
+        void appendValues(StringBuilder sqlBuilder, Map<String, Object> row) {
+            sqlBuilder.append('(');
+            // Iterate through the determined schema to ensure all columns are included in order
+            for (int i = 0; i < sqlColumnNames.length; i++) {
+                if (i > 0) {
+                    sqlBuilder.append(", ");
+                }
+                sqlBuilder.append(formatSqlValue(valueAt(row, i), columnTypes[i]));
+            }
+            sqlBuilder.append(')');
+        }
+
+        /**
+         * Appends a single row as a CSV line in schema column order.
+         */
+        void appendCsvLine(StringBuilder sqlBuilder, Map<String, Object> row, BulkLoadDialect dialect) {
+            for (int i = 0; i < sqlColumnNames.length; i++) {
+                if (i > 0) {
+                    sqlBuilder.append(',');
+                }
+                sqlBuilder.append(dialect.formatCsvValue(valueAt(row, i)));
+            }
+            sqlBuilder.append('\n');
+        }
+
+        /**
+         * @return The value of the given schema column in the row (null if the row does not have the column).
+         */
+        Object valueAt(Map<String, Object> row, int column) {
+            return (originalColumnNames[column] != null)
+                    ? row.get(originalColumnNames[column])
+                    : findValueBySqlName(row, sqlColumnNames[column]);
+        }
+
+        /**
+         * Fallback for colliding names (e.g. "Unit Price" and "Unit_Price"): the first key of the row that maps to the SQL column.
+         */
+        private static Object findValueBySqlName(Map<String, Object> row, String sqlColumnName) {
+            for (Map.Entry<String, Object> entry : row.entrySet()) {
+                if (toSqlIdentifier(entry.getKey()).equals(sqlColumnName)) {
+                    return entry.getValue();
+                }
+            }
+            return null;
+        }
     }
 
     /**
      * Formats a Java object value into a SQL literal string for INSERT statements.
      *
-     * @param value The Java object value (e.g., Integer, Double, String).
+     * @param value      The Java object value (e.g., Integer, Double, String).
+     * @param columnType The type of the column the value is inserted into.
      * @return A SQL-formatted string representation of the value (e.g., 123, 'Hello').
      */
-    private static String formatSqlValue(Object value) {
+    private static String formatSqlValue(Object value, SqlType columnType) {
         if (value == null) {
             return "NULL";
         }
 
+        // A VARCHAR column holds every value as text (e.g. a number next to text, NaN, or a number too
+        // large for DECIMAL), so its values are quoted like strings instead of relying on an implicit cast
+        if (columnType == SqlType.VARCHAR && !(value instanceof String)) {
+            String text = (value instanceof Boolean boolValue) ? (boolValue ? "1" : "0") : value.toString();
+            return "'" + text.replace("'", "''") + "'";
+        }
+
         // Numbers should NOT be quoted.
         // Booleans are converted to 1 (true) or 0 (false) for SMALLINT.
         // All others (including dates/datetimes which are treated as strings) MUST be quoted.
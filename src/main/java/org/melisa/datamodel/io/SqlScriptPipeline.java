@@ -0,0 +1,167 @@
+package org.melisa.datamodel.io;
+
+import org.melisa.datamodel.model.DecomposedRelation;
+import org.melisa.datamodel.model.RowSource;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generates the SQL scripts of several relations concurrently, but hands them out in dependency order
+ * (referenced relations before the relations with the foreign keys), so the combined output can be
+ * replayed as is.
+ *
+ * Type inference and literal formatting of one relation do not depend on any other relation, so every
+ * relation becomes one task on a bounded thread pool. Each task streams its script into a temporary
+ * file, so memory stays flat like with {@link SqlGenerator#writeSqlScript}. The calling thread waits
+ * for the scripts in output order and passes each one on as soon as it (and all before it) is complete.
+ * The total wall time therefore approaches the time of the largest relation.
+ */
+public class SqlScriptPipeline {
+
+    /**
+     * Receives the finished script of one relation, on the calling thread and in dependency order.
+     */
+    @FunctionalInterface
+    public interface ScriptConsumer {
+        /**
+         * @param relation The relation the script belongs to.
+         * @param script   The complete script (only readable during this call).
+         * @throws IOException If passing the script on fails.
+         */
+        void accept(DecomposedRelation relation, Reader script) throws IOException;
+    }
+
+    private final int parallelism;
+    private final int batchSize;
+
+    /**
+     * @param parallelism The number of scripts generated at the same time.
+     * @param batchSize   The maximum number of rows per INSERT statement (1 = one INSERT per row).
+     * @throws IllegalArgumentException If one of the values is smaller than 1.
+     */
+    public SqlScriptPipeline(int parallelism, int batchSize) {
+        if (parallelism < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Parallelism and batch size must be at least 1, but were "
+                    + parallelism + " and " + batchSize + ".");
+        }
+        this.parallelism = parallelism;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Generates the scripts of all relations and writes them, one after another, to a single Writer.
+     *
+     * @param relations The relations, in any order.
+     * @param writer    The destination (flushed, not closed).
+     * @throws IOException If generating or writing a script fails.
+     */
+    public void writeScripts(List<DecomposedRelation> relations, Writer writer) throws IOException {
+        generateScripts(relations, (relation, script) -> script.transferTo(writer));
+        writer.flush();
+    }
+
+    /**
+     * Generates the scripts of all relations concurrently and passes them to the consumer in dependency order.
+     *
+     * @param relations The relations, in any order.
+     * @param consumer  Receives one script per relation.
+     * @throws IOException              If generating a script or the consumer fails.
+     * @throws IllegalArgumentException If the foreign keys of the relations form a cycle.
+     */
+    public void generateScripts(List<DecomposedRelation> relations, ScriptConsumer consumer) throws IOException {
+        List<DecomposedRelation> orderedRelations = DecomposedRelation.inDependencyOrder(relations);
+        List<Future<Path>> scripts = new ArrayList<>();
+        int consumed = 0;
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, Math.max(1, orderedRelations.size())));
+        try {
+            for (DecomposedRelation relation : orderedRelations) {
+                scripts.add(executor.submit(() -> generateScript(relation)));
+            }
+
+            // Output order is fixed, completion order is not
+            for (; consumed < orderedRelations.size(); consumed++) {
+                Path script = awaitScript(scripts.get(consumed));
+                try (Reader reader = Files.newBufferedReader(script, StandardCharsets.UTF_8)) {
+                    consumer.accept(orderedRelations.get(consumed), reader);
+                } finally {
+                    Files.deleteIfExists(script);
+                }
+            }
+        } finally {
+            if (consumed < scripts.size()) {
+                // Failure: stop the remaining tasks and remove the scripts nobody will read
+                scripts.forEach(script -> script.cancel(true));
+            }
+            executor.close(); // Waits for running tasks
+            for (int i = consumed; i < scripts.size(); i++) {
+                deleteQuietly(scripts.get(i));
+            }
+        }
+    }
+
+    /**
+     * Task body: streams the script of one relation into a new temporary file.
+     */
+    private Path generateScript(DecomposedRelation relation) throws IOException {
+        Path script = Files.createTempFile("sql-script-", ".sql");
+        try (Writer writer = Files.newBufferedWriter(script, StandardCharsets.UTF_8)) {
+            if (relation.data().isEmpty()) {
+                writer.write("-- No data to generate SQL for.\n"); // Same as SqlGenerator.generateSqlScript(List, ...)
+            } else {
+                SqlGenerator.writeSqlScript(RowSource.of(relation.data()), relation.name(),
+                        relation.primaryKeys(), relation.foreignKeys(), batchSize, writer);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(script);
+            throw e;
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            // Cancelled while writing, the result would never be collected
+            Files.deleteIfExists(script);
+            throw new InterruptedIOException("SQL script generation was cancelled.");
+        }
+        return script;
+    }
+
+    private static Path awaitScript(Future<Path> script) throws IOException {
+        try {
+            return script.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a SQL script.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("SQL script generation failed.", cause);
+        }
+    }
+
+    private static void deleteQuietly(Future<Path> script) {
+        if (script.state() != Future.State.SUCCESS) {
+            return; // Failed or cancelled tasks leave no file behind
+        }
+        try {
+            Files.deleteIfExists(script.resultNow());
+        } catch (IOException e) {
+            // Best effort while another exception is already on its way, the file is in the temp directory
+        }
+    }
+}
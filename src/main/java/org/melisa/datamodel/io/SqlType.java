@@ -0,0 +1,75 @@
+package org.melisa.datamodel.io;
+
+import java.sql.Types;
+
+/**
+ * The portable SQL column types inferred by {@link SqlGenerator}.
+ *
+ * The types form a small lattice, and {@link #promote(SqlType)} returns the least general type that can
+ * hold values of both types:
+ * <pre>
+ *   SMALLINT &lt; INTEGER &lt; BIGINT &lt; DECIMAL &lt; VARCHAR
+ *   DATE &lt; TIMESTAMP &lt; VARCHAR
+ * </pre>
+ * A numeric and a temporal type only meet in VARCHAR. Because promote is associative and commutative,
+ * the schema of a relation can be inferred on chunks of rows independently and merged in any grouping.
+ */
+enum SqlType {
+    SMALLINT("SMALLINT", Types.SMALLINT, 0, 1),   // Booleans (1/0)
+    INTEGER("INTEGER", Types.INTEGER, 0, 2),
+    BIGINT("BIGINT", Types.BIGINT, 0, 3),         // Whole numbers outside the int range
+    DECIMAL("DECIMAL", Types.DECIMAL, 0, 4),      // Sized per column, see SqlGenerator.ColumnType
+    DATE("DATE", Types.DATE, 1, 1),
+    TIMESTAMP("TIMESTAMP", Types.TIMESTAMP, 1, 2),
+    VARCHAR("VARCHAR", Types.VARCHAR, -1, Integer.MAX_VALUE);
+
+    private final String sqlName;
+    private final int jdbcType;
+    private final int family; // Chain of the lattice (numeric = 0, temporal = 1, -1 = top)
+    private final int rank;   // Position within the chain
+
+    SqlType(String sqlName, int jdbcType, int family, int rank) {
+        this.sqlName = sqlName;
+        this.jdbcType = jdbcType;
+        this.family = family;
+        this.rank = rank;
+    }
+
+    /**
+     * @return The name of the type, without the size of DECIMAL and VARCHAR columns.
+     */
+    String sqlName() {
+        return sqlName;
+    }
+
+    /**
+     * @return true for the numeric chain (SMALLINT up to DECIMAL).
+     */
+    boolean isNumeric() {
+        return family == 0;
+    }
+
+    /**
+     * @return The matching {@link java.sql.Types} constant.
+     */
+    int jdbcType() {
+        return jdbcType;
+    }
+
+    /**
+     * Promotes this type to a more general one if a conflicting type is found in the same column
+     * (e.g. "10" and "10.5" give DECIMAL).
+     *
+     * @param other The type of another value of the same column.
+     * @return The least general type that can hold both.
+     */
+    SqlType promote(SqlType other) {
+        if (this == other) {
+            return this;
+        }
+        if (this.family != other.family || this == VARCHAR || other == VARCHAR) {
+            return VARCHAR;
+        }
+        return (this.rank >= other.rank) ? this : other;
+    }
+}
@@ -1,7 +1,10 @@
 package org.melisa.datamodel.model;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * A Java Record representing a single decomposed relation (table) resulting from the normalization
@@ -11,13 +14,83 @@ import java.util.Map;
  * @param name The name of the resulting relation (used for SQL table naming).
  * @param data The rows (List of Maps) belonging to this relation.
  * @param primaryKeys A list of SQL-sanitized column names that form the primary key.
- * @param foreignKeys A map where the key is the local foreign key column name (SQL-sanitized)
- * and the value is the reference string (e.g., "REFERENCED_TABLE(COLUMN_NAME)").
+ * @param foreignKeys A map where the key is the local foreign key column name (SQL-sanitized, comma separated
+ * for composite keys, e.g. "A, B") and the value is the reference string (e.g., "REFERENCED_TABLE(COLUMN_NAME)").
+ *
+ * The rows can also be carried in columnar form: a relation created from a {@link Relation} exposes
+ * the rows through the read-only map view of that relation, and {@link #relation()} returns it again
+ * without any conversion.
  */
 public record DecomposedRelation(
         String name,
         List<Map<String, Object>> data,
         List<String> primaryKeys,
         Map<String, String> foreignKeys) {
-    // No explicit constructor or getters needed!
+
+    /**
+     * Creates a decomposed relation whose rows are stored in a columnar {@link Relation}.
+     */
+    public DecomposedRelation(String name, Relation relation, List<String> primaryKeys, Map<String, String> foreignKeys) {
+        this(name, relation.asMaps(), primaryKeys, foreignKeys);
+    }
+
+    /**
+     * @return The rows in columnar form. Free for relations created from a {@link Relation},
+     * map based rows are converted on every call.
+     */
+    public Relation relation() {
+        return Relation.of(data);
+    }
+
+    /**
+     * @return The names of the relations referenced by the foreign keys of this relation
+     * (the table name of each "REFERENCED_TABLE(COLUMN_NAME)" reference), in FK order.
+     */
+    public Set<String> referencedRelations() {
+        Set<String> referenced = new LinkedHashSet<>();
+        for (String reference : foreignKeys.values()) {
+            int columnsStart = reference.indexOf('(');
+            referenced.add((columnsStart < 0 ? reference : reference.substring(0, columnsStart)).trim());
+        }
+        return referenced;
+    }
+
+    /**
+     * Orders relations so that every relation comes after the relations it references, which is the
+     * order in which their tables can be created and filled. Relations that do not depend on each other
+     * keep their original order; references to relations outside the list are ignored.
+     *
+     * @param relations The relations to order.
+     * @return A new list in dependency order.
+     * @throws IllegalArgumentException If the foreign keys form a cycle.
+     */
+    public static List<DecomposedRelation> inDependencyOrder(List<DecomposedRelation> relations) {
+        Set<String> names = new LinkedHashSet<>();
+        relations.forEach(relation -> names.add(relation.name()));
+
+        List<DecomposedRelation> remaining = new ArrayList<>(relations);
+        List<DecomposedRelation> ordered = new ArrayList<>();
+        Set<String> placed = new LinkedHashSet<>();
+        while (!remaining.isEmpty()) {
+            DecomposedRelation next = null;
+            for (DecomposedRelation candidate : remaining) {
+                boolean ready = candidate.referencedRelations().stream()
+                        .allMatch(referenced -> placed.contains(referenced)
+                                || !names.contains(referenced)
+                                || referenced.equals(candidate.name()));
+                if (ready) {
+                    next = candidate;
+                    break;
+                }
+            }
+            if (next == null) {
+                throw new IllegalArgumentException("The foreign keys of the relations form a cycle: "
+                        + remaining.stream().map(DecomposedRelation::name).toList());
+            }
+            remaining.remove(next);
+            ordered.add(next);
+            placed.add(next.name());
+        }
+        return ordered;
+    }
 }
@@ -0,0 +1,689 @@
+package org.melisa.datamodel.model;
+
+import java.util.*;
+
+/**
+ * A column-oriented, immutable relation (table). Instead of one LinkedHashMap per row, every column
+ * is stored in its own typed array:
+ * <ul>
+ *     <li>Integer, Long and Double columns use primitive int[], long[] and double[] arrays.</li>
+ *     <li>All other columns (Strings, mixed types, columns with nulls) are dictionary encoded: every
+ *     distinct value is stored once and the rows only hold an int code pointing into the dictionary.</li>
+ * </ul>
+ * Spreadsheet data repeats the same values very often, so this is a small fraction of the map based size.
+ *
+ * Existing code that works on {@code List<Map<String, Object>>} can use {@link #asMaps()} and {@link #row(int)},
+ * which are read-only views on top of the columns (no data is copied).
+ *
+ * A row does not have to contain every column (rows produced by the heuristics can be ragged).
+ * Such a cell is "absent": the row view does not contain the key at all, exactly like the original map.
+ */
+public final class Relation {
+
+    private final List<String> columnNames;
+    private final Map<String, Integer> columnIndexes;
+    private final Column[] columns;
+    private final int rowCount;
+
+    private Relation(List<String> columnNames, Column[] columns, int rowCount) {
+        this.columnNames = List.copyOf(columnNames);
+        this.columns = columns;
+        this.rowCount = rowCount;
+        this.columnIndexes = new HashMap<>();
+        for (int i = 0; i < columnNames.size(); i++) {
+            columnIndexes.put(columnNames.get(i), i);
+        }
+    }
+
+    /**
+     * Returns the relation behind the given rows. If the list is a view created by {@link #asMaps()},
+     * the underlying relation is returned without copying, otherwise the rows are converted.
+     *
+     * @param rows The rows (maps) of the relation.
+     * @return The columnar relation for these rows.
+     */
+    public static Relation of(List<Map<String, Object>> rows) {
+        if (rows instanceof MapListView view) {
+            return view.relation();
+        }
+        Builder builder = new Builder();
+        rows.forEach(builder::addRow);
+        return builder.build();
+    }
+
+    /**
+     * Materializes one pass of a RowSource directly into columnar form, without an intermediate list.
+     *
+     * @param source The rows to store.
+     * @return The columnar relation.
+     */
+    public static Relation from(RowSource source) {
+        Builder builder = new Builder();
+        source.forEachRow(builder::addRow);
+        return builder.build();
+    }
+
+    /**
+     * @return A new builder that appends rows one at a time.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public List<String> columnNames() {
+        return columnNames;
+    }
+
+    public int columnCount() {
+        return columns.length;
+    }
+
+    public int rowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @param columnName The name of a column.
+     * @return The position of the column, or -1 if the relation has no such column.
+     */
+    public int columnIndex(String columnName) {
+        Integer index = columnIndexes.get(columnName);
+        return (index != null) ? index : -1;
+    }
+
+    /**
+     * @return true if the cell exists in the row (it may still hold null), false if the row lacks the column.
+     */
+    public boolean isPresent(int row, int column) {
+        return !columns[column].isAbsent(row);
+    }
+
+    /**
+     * @return The value of the cell, or null if the cell holds null or is absent.
+     */
+    public Object get(int row, int column) {
+        Column storage = columns[column];
+        return storage.isAbsent(row) ? null : storage.get(row);
+    }
+
+    /**
+     * Returns dense value codes for a column: two rows get the same code exactly when their cells are equal.
+     * Codes start at 0. An absent cell is treated as its own value, distinct from null.
+     * Dictionary encoded columns return their codes directly, other columns are encoded on first use.
+     *
+     * @param column The position of the column.
+     * @return One code per row. The array is shared and must not be modified.
+     */
+    public int[] valueCodes(int column) {
+        return columns[column].valueCodes(rowCount);
+    }
+
+    /**
+     * @return A read-only Map view of a single row, keys are column names in column order.
+     */
+    public Map<String, Object> row(int row) {
+        Objects.checkIndex(row, rowCount);
+        return new RowView(row);
+    }
+
+    /**
+     * @return A read-only List view of all rows, for callers that work on {@code List<Map<String, Object>>}.
+     */
+    public List<Map<String, Object>> asMaps() {
+        return new MapListView();
+    }
+
+    /**
+     * Creates a relation that consists of the given columns only. The column storage is shared,
+     * so a projection does not copy any data.
+     *
+     * @param projectedColumnNames The columns to keep, in the desired order.
+     * @return The projected relation with the same number of rows.
+     * @throws IllegalArgumentException If a column does not exist.
+     */
+    public Relation project(List<String> projectedColumnNames) {
+        Column[] projected = new Column[projectedColumnNames.size()];
+        for (int i = 0; i < projected.length; i++) {
+            int index = columnIndex(projectedColumnNames.get(i));
+            if (index < 0) {
+                throw new IllegalArgumentException("Unknown column: " + projectedColumnNames.get(i));
+            }
+            projected[i] = columns[index];
+        }
+        return new Relation(projectedColumnNames, projected, rowCount);
+    }
+
+    /**
+     * Removes duplicate rows, keeping the first occurrence of every row (like {@code Stream.distinct()} on maps).
+     * Rows are compared through their value codes, so no row objects or composite keys are built.
+     *
+     * @return A relation without duplicate rows, or this relation if all rows are already distinct.
+     */
+    public Relation distinct() {
+        if (rowCount == 0 || columns.length == 0) {
+            return (rowCount <= 1) ? this : selectRows(new int[]{0});
+        }
+
+        // Combine the codes column by column: rowCodes[i] identifies the values of row i in columns 0..c
+        int[] rowCodes = valueCodes(0).clone();
+        for (int c = 1; c < columns.length; c++) {
+            int[] columnCodes = valueCodes(c);
+            Map<Long, Integer> combinedCodes = new HashMap<>();
+            for (int row = 0; row < rowCount; row++) {
+                long pair = ((long) rowCodes[row] << 32) | (columnCodes[row] & 0xFFFFFFFFL);
+                Integer code = combinedCodes.get(pair);
+                if (code == null) {
+                    code = combinedCodes.size();
+                    combinedCodes.put(pair, code);
+                }
+                rowCodes[row] = code;
+            }
+        }
+
+        BitSet seen = new BitSet();
+        int[] firstOccurrences = new int[rowCount];
+        int distinctRows = 0;
+        for (int row = 0; row < rowCount; row++) {
+            if (!seen.get(rowCodes[row])) {
+                seen.set(rowCodes[row]);
+                firstOccurrences[distinctRows++] = row;
+            }
+        }
+        return (distinctRows == rowCount) ? this : selectRows(Arrays.copyOf(firstOccurrences, distinctRows));
+    }
+
+    /**
+     * Creates a relation containing only the given rows, in the given order.
+     *
+     * @param rows Positions of the rows to keep.
+     * @return A new relation with compact column storage.
+     */
+    public Relation selectRows(int[] rows) {
+        Column[] selected = new Column[columns.length];
+        for (int c = 0; c < columns.length; c++) {
+            selected[c] = columns[c].select(rows);
+        }
+        return new Relation(columnNames, selected, rows.length);
+    }
+
+    /**
+     * Appends rows one at a time and decides the storage of every column from the values it sees.
+     * A column starts as a primitive column if its first value is an Integer, Long or Double and is
+     * converted into a dictionary encoded column as soon as another type or null shows up.
+     */
+    public static final class Builder {
+        private final List<String> columnNames = new ArrayList<>();
+        private final Map<String, ColumnBuilder> columnBuilders = new HashMap<>();
+        private final List<ColumnBuilder> orderedBuilders = new ArrayList<>();
+        private int rowCount;
+
+        private Builder() {
+        }
+
+        /**
+         * Appends one row. Columns that were not seen before are added, and earlier rows are treated
+         * as not containing them.
+         *
+         * @param row The row to append, keys are column names.
+         * @return This builder.
+         */
+        public Builder addRow(Map<String, Object> row) {
+            for (Map.Entry<String, Object> entry : row.entrySet()) {
+                ColumnBuilder columnBuilder = columnBuilders.get(entry.getKey());
+                if (columnBuilder == null) {
+                    columnBuilder = new ColumnBuilder();
+                    columnBuilder.appendAbsent(rowCount); // The column did not exist in the earlier rows
+                    columnBuilders.put(entry.getKey(), columnBuilder);
+                    orderedBuilders.add(columnBuilder);
+                    columnNames.add(entry.getKey());
+                }
+                columnBuilder.append(entry.getValue());
+            }
+            rowCount++;
+            // Columns the row did not contain are absent in this row
+            for (ColumnBuilder columnBuilder : orderedBuilders) {
+                if (columnBuilder.size < rowCount) {
+                    columnBuilder.appendAbsent(1);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * @return The immutable relation with all appended rows.
+         */
+        public Relation build() {
+            Column[] columns = new Column[orderedBuilders.size()];
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = orderedBuilders.get(i).build();
+            }
+            return new Relation(columnNames, columns, rowCount);
+        }
+    }
+
+    // --- Column storage ---
+
+    private enum StorageKind { UNDECIDED, INT, LONG, DOUBLE, DICTIONARY }
+
+    /**
+     * Collects the values of one column. Primitive storage is kept as long as every value has the
+     * same boxed type, otherwise the column falls back to dictionary encoding.
+     */
+    private static final class ColumnBuilder {
+        private static final int INITIAL_CAPACITY = 16;
+
+        private StorageKind kind = StorageKind.UNDECIDED;
+        private int size;
+        private final BitSet absent = new BitSet();
+
+        private int[] ints;
+        private long[] longs;
+        private double[] doubles;
+
+        private int[] codes;
+        private List<Object> dictionary;
+        private Map<Object, Integer> dictionaryIndex;
+
+        void appendAbsent(int count) {
+            if (count == 0) {
+                return;
+            }
+            ensureCapacity(size + count);
+            absent.set(size, size + count);
+            if (kind == StorageKind.DICTIONARY) {
+                Arrays.fill(codes, size, size + count, -1);
+            }
+            size += count;
+        }
+
+        void append(Object value) {
+            if (kind == StorageKind.UNDECIDED) {
+                kind = switch (value) {
+                    case Integer i -> StorageKind.INT;
+                    case Long l -> StorageKind.LONG;
+                    case Double d -> StorageKind.DOUBLE;
+                    case null, default -> StorageKind.DICTIONARY;
+                };
+                allocate(Math.max(INITIAL_CAPACITY, size + 1));
+            } else if (!fitsStorage(value)) {
+                convertToDictionary();
+            }
+
+            ensureCapacity(size + 1);
+            switch (kind) {
+                case INT -> ints[size] = (Integer) value;
+                case LONG -> longs[size] = (Long) value;
+                case DOUBLE -> doubles[size] = (Double) value;
+                default -> codes[size] = encode(value);
+            }
+            size++;
+        }
+
+        private boolean fitsStorage(Object value) {
+            return switch (kind) {
+                case INT -> value instanceof Integer;
+                case LONG -> value instanceof Long;
+                case DOUBLE -> value instanceof Double;
+                default -> true;
+            };
+        }
+
+        private int encode(Object value) {
+            Integer code = dictionaryIndex.get(value);
+            if (code == null) {
+                code = dictionary.size();
+                dictionary.add(value);
+                dictionaryIndex.put(value, code);
+            }
+            return code;
+        }
+
+        private void allocate(int capacity) {
+            switch (kind) {
+                case INT -> ints = new int[capacity];
+                case LONG -> longs = new long[capacity];
+                case DOUBLE -> doubles = new double[capacity];
+                case DICTIONARY -> {
+                    codes = new int[capacity];
+                    // Rows before the first value are all absent
+                    Arrays.fill(codes, 0, size, -1);
+                    dictionary = new ArrayList<>();
+                    dictionaryIndex = new HashMap<>();
+                }
+                default -> { }
+            }
+        }
+
+        private void ensureCapacity(int capacity) {
+            int current = currentCapacity();
+            if (current >= capacity) {
+                return;
+            }
+            int newCapacity = Math.max(capacity, current * 2);
+            switch (kind) {
+                case INT -> ints = Arrays.copyOf(ints, newCapacity);
+                case LONG -> longs = Arrays.copyOf(longs, newCapacity);
+                case DOUBLE -> doubles = Arrays.copyOf(doubles, newCapacity);
+                case DICTIONARY -> codes = Arrays.copyOf(codes, newCapacity);
+                default -> { } // Nothing allocated yet, only the absent bits are tracked
+            }
+        }
+
+        private int currentCapacity() {
+            return switch (kind) {
+                case INT -> ints.length;
+                case LONG -> longs.length;
+                case DOUBLE -> doubles.length;
+                case DICTIONARY -> codes.length;
+                case UNDECIDED -> Integer.MAX_VALUE;
+            };
+        }
+
+        private void convertToDictionary() {
+            Object[] existing = new Object[size];
+            for (int row = 0; row < size; row++) {
+                existing[row] = absent.get(row) ? null : boxedValue(row);
+            }
+            int capacity = currentCapacity();
+            ints = null;
+            longs = null;
+            doubles = null;
+            kind = StorageKind.DICTIONARY;
+            codes = new int[capacity];
+            dictionary = new ArrayList<>();
+            dictionaryIndex = new HashMap<>();
+            for (int row = 0; row < size; row++) {
+                codes[row] = absent.get(row) ? -1 : encode(existing[row]);
+            }
+        }
+
+        private Object boxedValue(int row) {
+            return switch (kind) {
+                case INT -> ints[row];
+                case LONG -> longs[row];
+                case DOUBLE -> doubles[row];
+                default -> dictionary.get(codes[row]);
+            };
+        }
+
+        Column build() {
+            return switch (kind) {
+                case INT -> new IntColumn(Arrays.copyOf(ints, size), absent);
+                case LONG -> new LongColumn(Arrays.copyOf(longs, size), absent);
+                case DOUBLE -> new DoubleColumn(Arrays.copyOf(doubles, size), absent);
+                case DICTIONARY -> new DictionaryColumn(Arrays.copyOf(codes, size), dictionary.toArray(), absent);
+                // Only absent cells so far: an empty dictionary column where every code is "absent"
+                case UNDECIDED -> {
+                    int[] absentCodes = new int[size];
+                    Arrays.fill(absentCodes, -1);
+                    yield new DictionaryColumn(absentCodes, new Object[0], absent);
+                }
+            };
+        }
+    }
+
+    /**
+     * Storage of one column. Immutable once built.
+     */
+    private abstract static class Column {
+        final BitSet absent;
+        private volatile int[] valueCodes;
+
+        Column(BitSet absent) {
+            this.absent = absent;
+        }
+
+        final boolean isAbsent(int row) {
+            return absent.get(row);
+        }
+
+        abstract Object get(int row);
+
+        abstract Column select(int[] rows);
+
+        int[] valueCodes(int rowCount) {
+            int[] codes = valueCodes;
+            if (codes == null) {
+                codes = computeValueCodes(rowCount);
+                valueCodes = codes;
+            }
+            return codes;
+        }
+
+        /**
+         * Generic encoding through a hash map, primitive columns only pay for it once.
+         */
+        int[] computeValueCodes(int rowCount) {
+            int[] codes = new int[rowCount];
+            Map<Object, Integer> index = new HashMap<>();
+            int absentCode = -1;
+            for (int row = 0; row < rowCount; row++) {
+                if (isAbsent(row)) {
+                    if (absentCode < 0) {
+                        absentCode = index.size();
+                        index.put(new Object(), absentCode); // Reserve the code
+                    }
+                    codes[row] = absentCode;
+                } else {
+                    Integer code = index.get(get(row));
+                    if (code == null) {
+                        code = index.size();
+                        index.put(get(row), code);
+                    }
+                    codes[row] = code;
+                }
+            }
+            return codes;
+        }
+
+        BitSet selectAbsent(int[] rows) {
+            BitSet selected = new BitSet();
+            if (!absent.isEmpty()) {
+                for (int i = 0; i < rows.length; i++) {
+                    if (absent.get(rows[i])) {
+                        selected.set(i);
+                    }
+                }
+            }
+            return selected;
+        }
+    }
+
+    private static final class IntColumn extends Column {
+        private final int[] values;
+
+        IntColumn(int[] values, BitSet absent) {
+            super(absent);
+            this.values = values;
+        }
+
+        @Override
+        Object get(int row) {
+            return values[row];
+        }
+
+        @Override
+        Column select(int[] rows) {
+            int[] selected = new int[rows.length];
+            for (int i = 0; i < rows.length; i++) {
+                selected[i] = values[rows[i]];
+            }
+            return new IntColumn(selected, selectAbsent(rows));
+        }
+    }
+
+    private static final class LongColumn extends Column {
+        private final long[] values;
+
+        LongColumn(long[] values, BitSet absent) {
+            super(absent);
+            this.values = values;
+        }
+
+        @Override
+        Object get(int row) {
+            return values[row];
+        }
+
+        @Override
+        Column select(int[] rows) {
+            long[] selected = new long[rows.length];
+            for (int i = 0; i < rows.length; i++) {
+                selected[i] = values[rows[i]];
+            }
+            return new LongColumn(selected, selectAbsent(rows));
+        }
+    }
+
+    private static final class DoubleColumn extends Column {
+        private final double[] values;
+
+        DoubleColumn(double[] values, BitSet absent) {
+            super(absent);
+            this.values = values;
+        }
+
+        @Override
+        Object get(int row) {
+            return values[row];
+        }
+
+        @Override
+        Column select(int[] rows) {
+            double[] selected = new double[rows.length];
+            for (int i = 0; i < rows.length; i++) {
+                selected[i] = values[rows[i]];
+            }
+            return new DoubleColumn(selected, selectAbsent(rows));
+        }
+    }
+
+    /**
+     * Every distinct value is stored once in the dictionary, rows hold its position (-1 = absent).
+     */
+    private static final class DictionaryColumn extends Column {
+        private final int[] codes;
+        private final Object[] dictionary;
+
+        DictionaryColumn(int[] codes, Object[] dictionary, BitSet absent) {
+            super(absent);
+            this.codes = codes;
+            this.dictionary = dictionary;
+        }
+
+        @Override
+        Object get(int row) {
+            return dictionary[codes[row]];
+        }
+
+        @Override
+        int[] computeValueCodes(int rowCount) {
+            if (absent.isEmpty()) {
+                return codes; // The dictionary codes already identify equal values
+            }
+            int[] valueCodes = codes.clone();
+            for (int row = absent.nextSetBit(0); row >= 0; row = absent.nextSetBit(row + 1)) {
+                valueCodes[row] = dictionary.length; // One extra code for "absent"
+            }
+            return valueCodes;
+        }
+
+        @Override
+        Column select(int[] rows) {
+            int[] selected = new int[rows.length];
+            for (int i = 0; i < rows.length; i++) {
+                selected[i] = codes[rows[i]];
+            }
+            return new DictionaryColumn(selected, dictionary, selectAbsent(rows));
+        }
+    }
+
+    // --- Map views for existing callers ---
+
+    private final class RowView extends AbstractMap<String, Object> {
+        private final int row;
+
+        RowView(int row) {
+            this.row = row;
+        }
+
+        @Override
+        public Object get(Object key) {
+            Integer column = columnIndexes.get(key);
+            return (column != null) ? Relation.this.get(row, column) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            Integer column = columnIndexes.get(key);
+            return column != null && isPresent(row, column);
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+            for (Column column : columns) {
+                if (!column.isAbsent(row)) {
+                    size++;
+                }
+            }
+            return size;
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    return new Iterator<>() {
+                        private int next = advance(0);
+
+                        private int advance(int from) {
+                            int column = from;
+                            while (column < columns.length && columns[column].isAbsent(row)) {
+                                column++;
+                            }
+                            return column;
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < columns.length;
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            int column = next;
+                            next = advance(column + 1);
+                            return new SimpleImmutableEntry<>(columnNames.get(column), columns[column].get(row));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return RowView.this.size();
+                }
+            };
+        }
+    }
+
+    private final class MapListView extends AbstractList<Map<String, Object>> implements RandomAccess {
+        @Override
+        public Map<String, Object> get(int index) {
+            return row(index);
+        }
+
+        @Override
+        public int size() {
+            return rowCount;
+        }
+
+        Relation relation() {
+            return Relation.this;
+        }
+    }
+}
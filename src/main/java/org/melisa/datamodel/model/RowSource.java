@@ -0,0 +1,101 @@
+package org.melisa.datamodel.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * A pull-based source of rows (one Map per row, keys are column names) that can be read more than once.
+ * Every call to {@link #rows()} starts a new pass over the data, backed by a Spliterator, so the
+ * pipeline stages (reading, 1NF heuristics, INSERT generation) can work row by row without
+ * materializing the whole sheet. Only stages that really need random access (2NF, key discovery)
+ * should call {@link #toList()}.
+ */
+@FunctionalInterface
+public interface RowSource {
+
+    /**
+     * Starts a new pass over the rows. The returned Stream may hold resources (e.g. an open file)
+     * and must be closed, preferably with try-with-resources.
+     *
+     * @return A sequential, ordered Stream of rows.
+     */
+    Stream<Map<String, Object>> rows();
+
+    /**
+     * Wraps an already materialized list of rows.
+     *
+     * @param rows The rows to expose.
+     * @return A RowSource that streams the given list on every pass.
+     */
+    static RowSource of(List<Map<String, Object>> rows) {
+        return new RowSource() {
+            @Override
+            public Stream<Map<String, Object>> rows() {
+                return rows.stream();
+            }
+
+            @Override
+            public List<Map<String, Object>> randomAccessRows() {
+                return (rows instanceof RandomAccess) ? rows : null;
+            }
+        };
+    }
+
+    /**
+     * Gives direct access to the rows if this source wraps a random access list (e.g. an ArrayList or
+     * the map view of a {@link Relation}), so single rows can be read by index without a pass.
+     *
+     * @return The wrapped list (not a copy), or null if the rows can only be streamed.
+     */
+    default List<Map<String, Object>> randomAccessRows() {
+        return null;
+    }
+
+    /**
+     * Lazily transforms every row of this source into zero or more rows.
+     *
+     * @param transformation Maps one input row to the Stream of rows it expands to.
+     * @return A new RowSource that applies the transformation on every pass.
+     */
+    default RowSource flatMap(Function<Map<String, Object>, Stream<Map<String, Object>>> transformation) {
+        return () -> rows().flatMap(transformation);
+    }
+
+    /**
+     * Lazily transforms every row of this source into exactly one row.
+     *
+     * @param transformation Maps one input row to its output row.
+     * @return A new RowSource that applies the transformation on every pass.
+     */
+    default RowSource map(Function<Map<String, Object>, Map<String, Object>> transformation) {
+        return () -> rows().map(transformation);
+    }
+
+    /**
+     * Runs one full pass and hands every row to the consumer.
+     *
+     * @param rowConsumer Receives the rows in order.
+     */
+    default void forEachRow(Consumer<Map<String, Object>> rowConsumer) {
+        try (Stream<Map<String, Object>> stream = rows()) {
+            stream.forEachOrdered(rowConsumer);
+        }
+    }
+
+    /**
+     * Materializes one full pass into a mutable list. The rows are appended to a single list in
+     * encounter order, so a parallel source does not build and merge one list per chunk.
+     *
+     * @return All rows of this source, in order.
+     */
+    default List<Map<String, Object>> toList() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        forEachRow(result::add);
+        return result;
+    }
+}
@@ -1,120 +1,291 @@
 package org.melisa.datamodel.normalization;
 
+import org.melisa.datamodel.model.Relation;
+
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Identifies all minimal Candidate Keys for a given relation (List of Maps).
  * This class ensures a strict adherence to relational theory by checking both
  * Uniqueness (Superkey) and Minimality.
  *
- * The core logic iterates through the powerset of attributes, ordered by size,
- * to efficiently identify minimal key sets.
+ * The core logic walks the lattice of attribute sets level by level, ordered by size,
+ * so that the first discovered superkeys are automatically minimal. Attribute sets are
+ * represented as long bit masks (bit i = i-th attribute).
+ *
+ * Uniqueness is checked with stripped partitions: the partition of every single column is
+ * computed once, and the partition of a larger attribute set is the intersection of the
+ * partitions of the two sets one level below that generated it. The raw rows are therefore
+ * scanned only once per column, never once per tested subset. The partitions live in a
+ * {@link PartitionCache}, so a functional dependency discovery on the same relation reuses them.
  *
- * Time Complexity is driven by the necessity to check 2^N subsets of attributes,
- * which is inherent to the problem of dependency analysis.
+ * The lattice is pruned apriori-style: a set of size k+1 is only generated if all of its
+ * subsets of size k survived the previous level. A set does not survive if
+ * <ul>
+ *     <li>it is a Superkey (every superset would be non-minimal), or</li>
+ *     <li>it is not a "free set": one of its attributes is functionally determined by the
+ *     others (equal partition error counts). Every superset of such a set is either no key
+ *     or not minimal, because the determined attribute could be dropped.</li>
+ * </ul>
+ * Supersets of found keys are therefore never generated, and wide relations only pay for
+ * the part of the lattice below their minimal keys.
+ *
+ * The candidates of one level are independent of each other, so their partitions can be
+ * computed in parallel on a ForkJoinPool (see {@link #CandidateKeyIdentifier(int)}). The
+ * results are merged in generation order, which makes the parallel result identical to the
+ * sequential one.
  */
 public class CandidateKeyIdentifier {
 
+    // Levels with fewer candidates are evaluated sequentially, the fork/join overhead would dominate
+    private static final int PARALLEL_LEVEL_THRESHOLD = 64;
+
+    // Smallest number of candidates one fork/join task evaluates on its own
+    private static final int MIN_CANDIDATES_PER_TASK = 16;
+
+    private final int parallelism;
+
+    /**
+     * Creates an identifier that evaluates the lattice sequentially.
+     */
+    public CandidateKeyIdentifier() {
+        this(1);
+    }
+
+    /**
+     * Creates an identifier that evaluates the candidates of each lattice level on a ForkJoinPool.
+     *
+     * @param parallelism The number of worker threads (1 = sequential).
+     * @throws IllegalArgumentException If parallelism is smaller than 1.
+     */
+    public CandidateKeyIdentifier(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1, but was " + parallelism + ".");
+        }
+        this.parallelism = parallelism;
+    }
+
     /**
      * Entry point to identify all minimal Candidate Keys.
      *
      * @param data The 1NF data, where each Map is a tuple (row).
-     * @return A Set of Sets of Strings, representing all minimal Candidate Keys.
+     * @return A Set of Sets of Strings, representing all minimal Candidate Keys
+     * (in order of discovery, each key in attribute order).
+     * @throws IllegalArgumentException If the relation has more than 64 attributes.
      */
     public Set<Set<String>> identifyAllCandidateKeys(List<Map<String, Object>> data) {
         if (data == null || data.isEmpty()) {
             return Collections.emptySet();
         }
+        List<String> attributeList = new ArrayList<>(data.get(0).keySet());
+        return identifyAllCandidateKeys(new PartitionCache(Relation.of(data), attributeList));
+    }
 
-        Set<Set<String>> candidateKeys = new HashSet<>();
-        Set<String> allAttributes = data.get(0).keySet();
-        List<String> attributeList = new ArrayList<>(allAttributes);
+    /**
+     * Identifies all minimal Candidate Keys using (and filling) shared partitions, so a following
+     * functional dependency discovery on the same relation can reuse them.
+     *
+     * @param partitions The partitions of the relation to analyse.
+     * @return A Set of Sets of Strings, representing all minimal Candidate Keys
+     * (in order of discovery, each key in attribute order).
+     */
+    public Set<Set<String>> identifyAllCandidateKeys(PartitionCache partitions) {
+        if (partitions.rowCount() == 0) {
+            return Collections.emptySet();
+        }
+        List<String> attributeList = partitions.attributes();
         int n = attributeList.size();
+        int[] probeTable = partitions.newProbeTable();
 
-        // Iterate through all subsets of attributes (powerset) from size 1 up to N.
-        // Starting with smallest size ensures that the first discovered superkeys are automatically minimal.
-        for (int size = 1; size <= n; size++) {
-            // Generate all combinations of the current size (e.g., all pairs, all triplets)
-            Set<Set<String>> currentSizeSubsets = generateSubsetsOfSize(attributeList, size);
+        List<Long> candidateKeyMasks = new ArrayList<>();
 
-            for (Set<String> subset : currentSizeSubsets) {
-                // Check Minimality: If this subset is a superset of an already found Candidate Key, skip it.
-                if (isSupersetOfExistingCandidateKey(subset, candidateKeys)) {
-                    continue;
-                }
+        // Level 1: single attributes. A constant column is determined by the empty set, so it is not free.
+        int emptySetErrorCount = partitions.find(0L).errorCount();
+        Map<Long, StrippedPartition> currentLevel = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            StrippedPartition partition = partitions.columnPartition(i);
+            if (partition.isUnique()) {
+                candidateKeyMasks.add(1L << i);
+            } else if (partition.errorCount() != emptySetErrorCount) {
+                currentLevel.put(1L << i, partition);
+            }
+        }
+
+        ForkJoinPool pool = (parallelism > 1) ? new ForkJoinPool(parallelism) : null;
+        try {
+            // Levels 2..n: only sets whose subsets all survived are generated
+            while (!currentLevel.isEmpty()) {
+                Map<Long, StrippedPartition> nextLevel = new LinkedHashMap<>();
+
+                List<long[]> generators = generateNextLevel(currentLevel);
+                StrippedPartition[] levelPartitions = computePartitions(generators, currentLevel, probeTable, pool);
+
+                // Merge in generation order, so the result does not depend on the thread scheduling
+                for (int i = 0; i < generators.size(); i++) {
+                    long subset = generators.get(i)[0] | generators.get(i)[1];
+                    StrippedPartition partition = levelPartitions[i];
+                    partitions.remember(subset, partition);
 
-                // Check Uniqueness: Is this subset a Superkey?
-                if (isSuperKey(subset, data)) {
-                    // It is a Superkey AND it is minimal (because we check smaller subsets first).
-                    candidateKeys.add(subset);
+                    // Check Uniqueness: Is this subset a Superkey?
+                    if (partition.isUnique()) {
+                        // It is a Superkey AND it is minimal (all of its subsets were non-keys).
+                        candidateKeyMasks.add(subset);
+                    } else if (isFreeSet(subset, partition, currentLevel)) {
+                        nextLevel.put(subset, partition);
+                    }
                 }
+                currentLevel = nextLevel;
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
             }
         }
 
+        Set<Set<String>> candidateKeys = new LinkedHashSet<>();
+        for (long keyMask : candidateKeyMasks) {
+            candidateKeys.add(toAttributeNames(keyMask, attributeList));
+        }
         return candidateKeys;
     }
 
     /**
-     * Checks if the given attribute set 'keyCandidate' is a Superkey.
-     * A Superkey must uniquely determine every tuple in the relation.
+     * Computes the partition of every candidate of a level as the product of the partitions of its two generating sets.
      *
-     * @param keyCandidate The set of attributes to test.
-     * @param data The input relation data.
-     * @return true if the attribute set is unique across all tuples (Superkey), false otherwise.
+     * @param generators   Pairs of generating sets, one pair per candidate.
+     * @param currentLevel The partitions of the current level (only read).
+     * @param probeTable   Scratch array for the sequential path.
+     * @param pool         The pool for the parallel path, or null to evaluate sequentially.
+     * @return The partitions, in the order of the generators.
      */
-    private boolean isSuperKey(Set<String> keyCandidate, List<Map<String, Object>> data) {
-        // We use a HashSet to check for key value uniqueness.
-        Set<String> seenKeys = new HashSet<>();
-
-        for (Map<String, Object> row : data) {
-            // Build a composite key string from the values of the keyCandidate attributes.
-            String compositeKey = keyCandidate.stream()
-                    .map(row::get)
-                    .map(val -> (val == null) ? "NULL" : val.toString()) // Safe handling
-                    .collect(Collectors.joining("|")); // Use a reliable delimiter
-
-            if (seenKeys.contains(compositeKey)) {
-                // Duplicated composite key found -> not a Superkey (violates Uniqueness)
-                return false;
+    private StrippedPartition[] computePartitions(
+            List<long[]> generators, Map<Long, StrippedPartition> currentLevel, int[] probeTable, ForkJoinPool pool) {
+
+        StrippedPartition[] partitions = new StrippedPartition[generators.size()];
+        if (pool == null || generators.size() < PARALLEL_LEVEL_THRESHOLD) {
+            for (int i = 0; i < generators.size(); i++) {
+                partitions[i] = intersectGenerators(generators.get(i), currentLevel, probeTable);
             }
-            seenKeys.add(compositeKey);
+        } else {
+            int tasksPerWorker = 4; // Some slack for uneven partition sizes
+            int chunkSize = Math.max(MIN_CANDIDATES_PER_TASK, generators.size() / (parallelism * tasksPerWorker));
+            pool.invoke(new PartitionTask(generators, currentLevel, partitions, 0, generators.size(), chunkSize));
         }
-        return true;
+        return partitions;
+    }
+
+    private static StrippedPartition intersectGenerators(long[] generator, Map<Long, StrippedPartition> currentLevel, int[] probeTable) {
+        return currentLevel.get(generator[0]).intersect(currentLevel.get(generator[1]), probeTable);
     }
 
     /**
-     * Checks if the current subset contains any of the already confirmed minimal Candidate Keys.
-     * This enforces the Minimality principle (a Superkey is a Candidate Key only if it has no
-     * smaller Superkey as a subset).
+     * Fork/join task computing the partitions of a range of candidates. Each leaf writes to its
+     * own slots of the shared result array and uses its own probe table.
      */
-    private boolean isSupersetOfExistingCandidateKey(Set<String> subset, Set<Set<String>> candidateKeys) {
-        for (Set<String> candidateKey : candidateKeys) {
-            if (subset.containsAll(candidateKey)) {
-                return true; // Subset is not minimal.
+    private static class PartitionTask extends RecursiveAction {
+        private final List<long[]> generators;
+        private final Map<Long, StrippedPartition> currentLevel;
+        private final StrippedPartition[] partitions;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        PartitionTask(List<long[]> generators, Map<Long, StrippedPartition> currentLevel,
+                      StrippedPartition[] partitions, int from, int to, int chunkSize) {
+            this.generators = generators;
+            this.currentLevel = currentLevel;
+            this.partitions = partitions;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                int[] probeTable = new int[currentLevel.values().iterator().next().rowCount()];
+                Arrays.fill(probeTable, -1);
+                for (int i = from; i < to; i++) {
+                    partitions[i] = intersectGenerators(generators.get(i), currentLevel, probeTable);
+                }
+                return;
             }
+            int middle = (from + to) >>> 1;
+            invokeAll(new PartitionTask(generators, currentLevel, partitions, from, middle, chunkSize),
+                    new PartitionTask(generators, currentLevel, partitions, middle, to, chunkSize));
         }
-        return false;
     }
 
     /**
-     * Recursive utility to generate all subsets of a specific size.
+     * Generates the candidates of the next level (TANE prefix blocks). Two sets of the current
+     * level that only differ in their highest attribute are joined, and the union is kept only
+     * if every other subset one element smaller is also part of the current level.
+     *
+     * @param currentLevel The surviving sets of the current level, in generation order.
+     * @return Pairs of generating sets {Y, Z} whose union is a candidate of the next level.
      */
-    private Set<Set<String>> generateSubsetsOfSize(List<String> attributes, int size) {
-        Set<Set<String>> result = new HashSet<>();
-        combine(attributes, size, 0, new LinkedHashSet<>(), result);
-        return result;
+    private List<long[]> generateNextLevel(Map<Long, StrippedPartition> currentLevel) {
+        // Group the sets by their prefix (the set without its highest attribute)
+        Map<Long, List<Long>> prefixBlocks = new LinkedHashMap<>();
+        for (long set : currentLevel.keySet()) {
+            long prefix = set & ~Long.highestOneBit(set);
+            prefixBlocks.computeIfAbsent(prefix, key -> new ArrayList<>()).add(set);
+        }
+
+        List<long[]> generators = new ArrayList<>();
+        for (List<Long> block : prefixBlocks.values()) {
+            for (int i = 0; i < block.size(); i++) {
+                for (int j = i + 1; j < block.size(); j++) {
+                    long first = block.get(i);
+                    long second = block.get(j);
+                    long candidate = first | second;
+                    if (allSubsetsSurvived(candidate, first, second, currentLevel)) {
+                        generators.add(new long[]{first, second});
+                    }
+                }
+            }
+        }
+        return generators;
     }
 
-    private void combine(List<String> attributes, int size, int start, Set<String> current, Set<Set<String>> result) {
-        if (current.size() == size) {
-            result.add(new LinkedHashSet<>(current));
-            return;
+    /**
+     * Apriori check: every subset of the candidate that is one attribute smaller must be in the current level.
+     * The two generating sets are known to be there.
+     */
+    private boolean allSubsetsSurvived(long candidate, long first, long second, Map<Long, StrippedPartition> currentLevel) {
+        for (long remaining = candidate; remaining != 0; remaining &= remaining - 1) {
+            long subset = candidate & ~Long.lowestOneBit(remaining);
+            if (subset != first && subset != second && !currentLevel.containsKey(subset)) {
+                return false;
+            }
         }
-        for (int i = start; i < attributes.size(); i++) {
-            current.add(attributes.get(i));
-            combine(attributes, size, i + 1, current, result);
-            current.remove(attributes.get(i));
+        return true;
+    }
+
+    /**
+     * A set is free if no attribute is determined by the others: removing any attribute must
+     * change the error count of the partition.
+     */
+    private boolean isFreeSet(long set, StrippedPartition partition, Map<Long, StrippedPartition> currentLevel) {
+        for (long remaining = set; remaining != 0; remaining &= remaining - 1) {
+            long subset = set & ~Long.lowestOneBit(remaining);
+            if (currentLevel.get(subset).errorCount() == partition.errorCount()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Converts a bit mask back into attribute names, in attribute order.
+     */
+    private Set<String> toAttributeNames(long mask, List<String> attributeList) {
+        Set<String> attributes = new LinkedHashSet<>();
+        for (long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+            attributes.add(attributeList.get(Long.numberOfTrailingZeros(remaining)));
         }
+        return attributes;
     }
 }
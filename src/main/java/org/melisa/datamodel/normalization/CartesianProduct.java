@@ -0,0 +1,108 @@
+package org.melisa.datamodel.normalization;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The rows a raw row expands to when several of its columns hold delimited values, produced lazily one
+ * combination at a time instead of materializing the whole Cartesian product.
+ *
+ * Every generated row consists of the columns shared by all rows of the product (the single-value columns)
+ * followed by one fragment per multivalue column. A fragment holds the columns of one value of the
+ * multivalue column, usually just {column: value}, or the columns a column-splitting rule made of the
+ * value. The fragments are computed once per value and shared by all rows containing it.
+ *
+ * The combinations are enumerated like an odometer: the first multivalue column changes slowest and the
+ * last one fastest, which is the order of the former recursive implementation.
+ */
+final class CartesianProduct implements Iterator<Map<String, Object>> {
+
+    private final Map<String, Object> sharedColumns;
+    private final List<List<Map<String, Object>>> fragments;
+    private final int[] indices;
+    private final int rowCapacity;
+    private long remainingRows;
+
+    /**
+     * @param sharedColumns The columns copied into every generated row, in order.
+     * @param fragments     The fragments of the values of each multivalue column, in column order.
+     * @param maxRows       The number of combinations to generate at most.
+     */
+    private CartesianProduct(Map<String, Object> sharedColumns, List<List<Map<String, Object>>> fragments, long maxRows) {
+        this.sharedColumns = sharedColumns;
+        this.fragments = fragments;
+        this.indices = new int[fragments.size()];
+        int columnCount = sharedColumns.size();
+        for (List<Map<String, Object>> columnFragments : fragments) {
+            columnCount += columnFragments.isEmpty() ? 0 : columnFragments.get(0).size();
+        }
+        this.rowCapacity = (int) (columnCount / 0.75f) + 1;
+        this.remainingRows = maxRows;
+    }
+
+    /**
+     * Computes the number of combinations without generating them.
+     *
+     * @param fragments The values (or their fragments) of each multivalue column.
+     * @return The size of the Cartesian product, saturated at Long.MAX_VALUE.
+     */
+    static long size(List<? extends List<?>> fragments) {
+        long size = 1;
+        for (List<?> values : fragments) {
+            if (values.isEmpty()) {
+                return 0;
+            }
+            size = (size > Long.MAX_VALUE / values.size()) ? Long.MAX_VALUE : size * values.size();
+        }
+        return size;
+    }
+
+    /**
+     * Streams the first maxRows combinations of the product.
+     *
+     * @param sharedColumns The columns copied into every generated row, in order.
+     * @param fragments     The fragments of the values of each multivalue column, in column order.
+     * @param maxRows       The number of combinations to generate at most (at most the size of the product).
+     * @return A lazy, ordered Stream of the generated rows.
+     */
+    static Stream<Map<String, Object>> stream(Map<String, Object> sharedColumns, List<List<Map<String, Object>>> fragments, long maxRows) {
+        CartesianProduct product = new CartesianProduct(sharedColumns, fragments, maxRows);
+        return StreamSupport.stream(Spliterators.spliterator(product, maxRows,
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return remainingRows > 0;
+    }
+
+    @Override
+    public Map<String, Object> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        Map<String, Object> row = new LinkedHashMap<>(rowCapacity);
+        row.putAll(sharedColumns);
+        for (int column = 0; column < indices.length; column++) {
+            row.putAll(fragments.get(column).get(indices[column]));
+        }
+
+        // Advance the odometer, the last column turns fastest
+        remainingRows--;
+        for (int column = indices.length - 1; column >= 0; column--) {
+            if (++indices[column] < fragments.get(column).size()) {
+                break;
+            }
+            indices[column] = 0;
+        }
+        return row;
+    }
+}
@@ -0,0 +1,166 @@
+package org.melisa.datamodel.normalization;
+
+import org.melisa.datamodel.normalization.heuristics.HeuristicPrefilter;
+import org.melisa.datamodel.normalization.heuristics.HeuristicRule;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decides once per column which column-splitting rule (if any) owns the column, instead of trying the
+ * whole rule chain on every cell.
+ *
+ * The decision is made on a sample of rows: every rule is tried on every non-blank string cell of the
+ * sample, and the rule matching the most cells owns the column if it matches at least half of them.
+ * Ties go to the rule that comes first in the chain, which keeps the chain's priorities
+ * (e.g. "50 kg" is a value with a unit, not a quantity of items).
+ *
+ * While the rows are processed, only the owning rule runs on the cells of a column, so all rows get the
+ * same new columns. A cell the owning rule cannot split gets null in the new columns, and its original
+ * value is kept in an extra column {@code <column>_Unparsed}, so nothing is lost and the mismatch is
+ * visible. Columns without an owner are passed through unchanged.
+ *
+ * Both in the sample and per cell, {@link HeuristicPrefilter} rejects cells a rule cannot split before
+ * the rule (or the cache) is consulted.
+ */
+final class ColumnSplittingPlan {
+
+    // Share of the sampled string cells the owning rule has to match
+    private static final double MIN_OWNER_SHARE = 0.5;
+
+    static final String UNPARSED_SUFFIX = "_Unparsed";
+
+    /**
+     * The rule owning a column and the columns it produced for the column in the sample.
+     */
+    private record ColumnOwner(HeuristicRule rule, List<String> newColumns) {
+    }
+
+    private final Map<String, ColumnOwner> owners;
+
+    private ColumnSplittingPlan(Map<String, ColumnOwner> owners) {
+        this.owners = owners;
+    }
+
+    /**
+     * Plans the columns from a sample of rows.
+     *
+     * @param sample The sampled rows (already split into atomic rows).
+     * @param rules  The column-splitting rules, in order of priority.
+     * @return The plan, columns that do not appear in the sample have no owner.
+     */
+    static ColumnSplittingPlan fromSample(List<Map<String, Object>> sample, List<HeuristicRule> rules) {
+        // Collect the candidate cells per column, in column order
+        Map<String, List<String>> sampledValues = new LinkedHashMap<>();
+        for (Map<String, Object> row : sample) {
+            for (Map.Entry<String, Object> entry : row.entrySet()) {
+                if (entry.getValue() instanceof String stringValue && !stringValue.isBlank()) {
+                    sampledValues.computeIfAbsent(entry.getKey(), column -> new ArrayList<>()).add(stringValue);
+                }
+            }
+        }
+
+        Map<String, ColumnOwner> owners = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> column : sampledValues.entrySet()) {
+            ColumnOwner owner = electOwner(column.getKey(), column.getValue(), rules);
+            if (owner != null) {
+                owners.put(column.getKey(), owner);
+            }
+        }
+        return new ColumnSplittingPlan(owners);
+    }
+
+    private static ColumnOwner electOwner(String columnName, List<String> values, List<HeuristicRule> rules) {
+        // Classify every sampled value once for all rules
+        int[] candidateShapes = new int[values.size()];
+        for (int i = 0; i < candidateShapes.length; i++) {
+            candidateShapes[i] = HeuristicPrefilter.candidateShapes(values.get(i));
+        }
+
+        ColumnOwner bestOwner = null;
+        int bestMatches = 0;
+        for (HeuristicRule rule : rules) {
+            int matches = 0;
+            List<String> newColumns = null;
+            for (int i = 0; i < candidateShapes.length; i++) {
+                if (!HeuristicPrefilter.mayApply(rule, candidateShapes[i])) {
+                    continue;
+                }
+                Map<String, Object> newRow = new LinkedHashMap<>();
+                if (rule.apply(columnName, values.get(i), newRow)) {
+                    matches++;
+                    if (newColumns == null) {
+                        newColumns = List.copyOf(newRow.keySet());
+                    }
+                }
+            }
+            // Strictly more matches, so ties keep the earlier rule
+            if (matches > bestMatches) {
+                bestMatches = matches;
+                bestOwner = new ColumnOwner(rule, newColumns);
+            }
+        }
+        return (bestMatches >= values.size() * MIN_OWNER_SHARE) ? bestOwner : null;
+    }
+
+    /**
+     * @param columnName A column of the sampled rows.
+     * @return The rule owning the column, or null if its values are kept as they are.
+     */
+    HeuristicRule owner(String columnName) {
+        ColumnOwner owner = owners.get(columnName);
+        return (owner == null) ? null : owner.rule();
+    }
+
+    /**
+     * Splits the owned columns of one row.
+     *
+     * @param originalRow    The row (already processed for row-splitting) to process.
+     * @param heuristicCache Remembers the outcome per column and cell value.
+     * @return A new row with the owned columns replaced by the columns of their rule.
+     */
+    Map<String, Object> apply(Map<String, Object> originalRow, HeuristicCache heuristicCache) {
+        // Create a new LinkedHashMap for the transformed row to maintain column order
+        Map<String, Object> newRow = new LinkedHashMap<>();
+
+        for (Map.Entry<String, Object> entry : originalRow.entrySet()) {
+            String originalColumnName = entry.getKey();
+            Object cellValue = entry.getValue();
+            ColumnOwner owner = owners.get(originalColumnName);
+            if (owner == null) {
+                newRow.put(originalColumnName, cellValue);
+                continue;
+            }
+
+            if (cellValue instanceof String stringValue
+                    && HeuristicPrefilter.mayApply(owner.rule(), HeuristicPrefilter.candidateShapes(stringValue))) {
+                HeuristicCache.Outcome outcome = heuristicCache.outcome(originalColumnName, stringValue,
+                        () -> applyRule(owner.rule(), originalColumnName, stringValue));
+                if (outcome.applied()) {
+                    newRow.putAll(outcome.columns());
+                    continue;
+                }
+            }
+
+            // Fallback: same columns as the other rows, the value itself is kept aside
+            for (String newColumn : owner.newColumns()) {
+                newRow.put(newColumn, null);
+            }
+            if (cellValue != null && !(cellValue instanceof String stringValue && stringValue.isBlank())) {
+                newRow.put(originalColumnName + UNPARSED_SUFFIX, cellValue);
+            }
+        }
+        return newRow;
+    }
+
+    private static HeuristicCache.Outcome applyRule(HeuristicRule rule, String originalColumnName, String cellValue) {
+        Map<String, Object> newColumns = new LinkedHashMap<>();
+        if (rule.apply(originalColumnName, cellValue, newColumns)) {
+            return new HeuristicCache.Outcome(true, Collections.unmodifiableMap(newColumns));
+        }
+        return HeuristicCache.Outcome.NOT_APPLIED;
+    }
+}
@@ -1,17 +1,30 @@
 package org.melisa.datamodel.normalization;
 
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Collections;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.Map;
-import java.util.LinkedHashMap; // Explicitly used for row maps
-import java.util.regex.Pattern;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import org.melisa.datamodel.io.SqlGenerator;
+import org.melisa.datamodel.model.RowSource;
 import org.melisa.datamodel.normalization.heuristics.HeuristicRule;
 import org.melisa.datamodel.normalization.heuristics.QuantityItemHeuristic;
 import org.melisa.datamodel.normalization.heuristics.ValueUnitHeuristic;
 import org.melisa.datamodel.normalization.heuristics.ParentheticalAliasHeuristic;
 import org.melisa.datamodel.normalization.heuristics.CurrencyHeuristic;
+import org.melisa.datamodel.normalization.heuristics.CurrencyScannerHeuristic;
+import org.melisa.datamodel.normalization.heuristics.ValueUnitScannerHeuristic;
+import org.melisa.datamodel.normalization.heuristics.QuantityItemScannerHeuristic;
+import org.melisa.datamodel.normalization.heuristics.ParentheticalAliasScannerHeuristic;
 
 
 public class FirstNormalizer {
@@ -20,15 +33,14 @@ public class FirstNormalizer {
 
     // Heuristic 1: Common delimiters for row splitting (comma, semicolon, newline, pipe)
     // Example: "green,yellow" or "red;blue" or "item1\nitem2" or "alpha|beta" -> becomes multiple rows
-    // Using Pattern.quote for literal characters, or escaping regex special characters.
-    // \\R matches any Unicode newline sequence.
-    // Matches semicolons, pipes, newlines, OR commas that are NOT followed by a digit
-    private static final Pattern ROW_SPLITTING_DELIMITERS = Pattern.compile(";|\\||\\n|\\r|,(?!\\d)");
+    // Semicolons, pipes, newlines, OR commas that are NOT followed by a digit; see RowSplittingDelimiters,
+    // which finds them in one scan over the characters.
 
     /**
      * This list defines the order in which column-splitting heuristics are applied.
      * The order can be crucial as some heuristics might take precedence over others.
      * For instance, a more specific pattern should typically come before a more general one.
+     * Each column is owned by at most one rule (see ColumnSplittingPlan); on a tie the earlier rule wins.
      */
     private static final List<HeuristicRule> COLUMN_SPLITTING_RULES = List.of(
             new CurrencyHeuristic(),          // Next, specific for currency values
@@ -39,10 +51,45 @@ public class FirstNormalizer {
             //the order of the rules plays a role
     );
 
+    /**
+     * The same rules in the same order, implemented as hand-written character scanners instead of regular
+     * expressions. They accept exactly the same values and produce the same columns, but need no Matcher and
+     * no intermediate substrings per cell. A new rule needs a counterpart here (the regex rule itself is fine).
+     */
+    private static final List<HeuristicRule> SCANNING_COLUMN_SPLITTING_RULES = List.of(
+            new CurrencyScannerHeuristic(),
+            new ValueUnitScannerHeuristic(),
+            new QuantityItemScannerHeuristic(),
+            new ParentheticalAliasScannerHeuristic()
+    );
+
+    /**
+     * Selects the implementation of the column-splitting heuristics. Both give identical results.
+     */
+    public enum HeuristicImplementation {
+        /** The regular expression based rules. */
+        REGEX,
+        /** The character scanning rules (default, faster and allocation-light). */
+        SCANNER;
+
+        List<HeuristicRule> columnSplittingRules() {
+            return (this == REGEX) ? COLUMN_SPLITTING_RULES : SCANNING_COLUMN_SPLITTING_RULES;
+        }
+    }
+
+    // Number of leading rows sampled to decide which rule owns a column
+    private static final int PLANNING_SAMPLE_ROWS = 200;
+
+    /**
+     * The surrogate key of the main rows when multivalue columns are moved into child relations.
+     * A sheet with a column of the same SQL identifier cannot be normalized in this mode.
+     */
+    public static final String ROW_ID_COLUMN = "ROW_ID";
+
     /**
      * Normalizes a list of maps (representing Excel data) into the First Normal Form (1NF)
      * using automated heuristics. This robust version handles both row-splitting
-     * and column-splitting heuristics in separate passes.
+     * and column-splitting heuristics in one traversal of the rows.
      *
      * @param rawData A list of maps, where each map represents a row of raw data from Excel.
      * @return A list of maps representing the data in 1NF.
@@ -52,181 +99,380 @@ public class FirstNormalizer {
             return new ArrayList<>();
         }
 
-        // Pass 1: Apply row-splitting heuristics (e.g., comma-separated values)
-        // This pass will now generate a Cartesian product for multiple multivalued columns.
-        List<Map<String, Object>> afterRowSplitting = applyRowSplittingHeuristics(rawData);
+        // Both heuristic passes run lazily row by row, only the final result is materialized
+        return normalizeTo1NF(RowSource.of(rawData)).toList();
+    }
 
-        // Pass 2: Apply column-splitting heuristics (e.g., quantity-item, parenthetical alias)
-        // This pass modifies columns within existing rows.
-        return applyColumnSplittingHeuristics(afterRowSplitting);
+    /**
+     * Lazy variant of {@link #normalizeTo1NF(List)}. The cells of each raw row go through the column-splitting
+     * heuristics and the row is expanded by the row-splitting heuristics, while the rows are pulled from the
+     * source. No intermediate list is built; only the first pass additionally reads the leading rows to plan
+     * which heuristic owns which column.
+     *
+     * @param rawData The source of raw rows from Excel.
+     * @return A RowSource producing the rows in 1NF.
+     */
+    public static RowSource normalizeTo1NF(RowSource rawData) {
+        return normalizeTo1NF(rawData, new HeuristicCache());
     }
 
     /**
-     * Applies heuristics that lead to splitting a single row into multiple rows,
-     * generating a Cartesian product if multiple columns in the same row need splitting.
+     * Lazy variant of {@link #normalizeTo1NF(List)} that remembers the column-splitting outcome of every
+     * distinct cell value in the given cache. The cache is kept across passes over the returned source,
+     * and its hit/miss statistics can be read while or after the rows are consumed.
      *
-     * @param inputData The list of rows to process.
-     * @return A new list of rows, potentially much larger than inputData if splits occurred.
-     */
-    private static List<Map<String, Object>> applyRowSplittingHeuristics(List<Map<String, Object>> inputData) {
-        List<Map<String, Object>> outputData = new ArrayList<>();
-
-        for (Map<String, Object> originalRow : inputData) {
-            // Map to store columns that contain multiple values and their split parts.
-            // Keys are column names, values are lists of split parts.
-            Map<String, List<String>> multiValueColumns = new LinkedHashMap<>();
-
-            // List to store names of columns that are *not* split for row expansion.
-            List<String> singleValueColumnNames = new ArrayList<>();
-
-            // First pass: Identify all columns in the current row that need row splitting
-            for (Map.Entry<String, Object> entry : originalRow.entrySet()) {
-                String originalColumnName = entry.getKey();
-                Object cellValue = entry.getValue();
-
-                if (cellValue instanceof String stringValue) {
-                    String trimmedStringValue = stringValue.trim();
-
-                    // Check for comma-separated pattern (or other row-splitting patterns)
-                    if (ROW_SPLITTING_DELIMITERS.matcher(trimmedStringValue).find()) {
-                        String[] parts = trimmedStringValue.split(ROW_SPLITTING_DELIMITERS.pattern());
-                        List<String> trimmedParts = new ArrayList<>();
-                        for (String part : parts) {
-                            trimmedParts.add(part.trim());
-                        }
-                        multiValueColumns.put(originalColumnName, trimmedParts);
-                    } else {
-                        // This column is not a multi-value string for row splitting
-                        singleValueColumnNames.add(originalColumnName);
-                    }
-                } else {
-                    // Non-string values also don't trigger row splitting
-                    singleValueColumnNames.add(originalColumnName);
-                }
-            }
+     * @param rawData        The source of raw rows from Excel.
+     * @param heuristicCache The cache for the column-splitting heuristics.
+     * @return A RowSource producing the rows in 1NF.
+     */
+    public static RowSource normalizeTo1NF(RowSource rawData, HeuristicCache heuristicCache) {
+        return normalizeTo1NF(rawData, heuristicCache, HeuristicImplementation.SCANNER);
+    }
 
-            // If no columns needed row splitting, add the original row as is
-            if (multiValueColumns.isEmpty()) {
-                outputData.add(originalRow);
-            } else {
-                // If there are multi-value columns, generate their Cartesian product
-                List<Map<String, Object>> generatedRows = new ArrayList<>();
-                // Call the recursive helper to build the Cartesian product
-                generateCartesianProductRecursive(
-                        multiValueColumns,                  // Columns that need to be expanded
-                        new LinkedHashMap<>(),              // Current partial row being built (starts empty)
-                        new ArrayList<>(multiValueColumns.keySet()), // Keys to iterate through
-                        0,                                  // Current key index
-                        generatedRows                       // List to add the final product rows to
-                );
-
-                // For each generated row from the Cartesian product, populate non-split columns
-                for (Map<String, Object> generatedRow : generatedRows) {
-                    Map<String, Object> finalNewRow = new LinkedHashMap<>();
-                    // First, add the non-split columns in their original order
-                    for (String colName : originalRow.keySet()) { // Iterate originalRow keys to preserve order
-                        if (singleValueColumnNames.contains(colName)) {
-                            finalNewRow.put(colName, originalRow.get(colName));
-                        }
-                    }
-                    // Then, add the values from the Cartesian product for the split columns
-                    finalNewRow.putAll(generatedRow);
-                    outputData.add(finalNewRow);
-                }
+    /**
+     * Lazy variant of {@link #normalizeTo1NF(List)} with a cache and a choice of the heuristic implementation.
+     *
+     * @param rawData        The source of raw rows from Excel.
+     * @param heuristicCache The cache for the column-splitting heuristics.
+     * @param implementation The implementation of the column-splitting heuristics.
+     * @return A RowSource producing the rows in 1NF.
+     */
+    public static RowSource normalizeTo1NF(RowSource rawData, HeuristicCache heuristicCache, HeuristicImplementation implementation) {
+        return normalizeTo1NF(rawData, heuristicCache, implementation, new RowExpansionBudget());
+    }
+
+    /**
+     * Lazy variant of {@link #normalizeTo1NF(List)} with a cache, a choice of the heuristic implementation
+     * and a budget for the rows generated by row splitting.
+     *
+     * @param rawData         The source of raw rows from Excel.
+     * @param heuristicCache  The cache for the column-splitting heuristics.
+     * @param implementation  The implementation of the column-splitting heuristics.
+     * @param expansionBudget Caps the Cartesian product of rows with several multivalue columns.
+     * @return A RowSource producing the rows in 1NF.
+     */
+    public static RowSource normalizeTo1NF(RowSource rawData, HeuristicCache heuristicCache, HeuristicImplementation implementation,
+                                           RowExpansionBudget expansionBudget) {
+        return normalizeTo1NF(rawData, heuristicCache, implementation, expansionBudget, false);
+    }
+
+    /**
+     * Lazy variant of {@link #normalizeTo1NF(List)} with a cache, a choice of the heuristic implementation,
+     * a budget for the rows generated by row splitting and optionally parallel processing.
+     *
+     * Both heuristics run in one traversal: the column-splitting rules are applied to every cell of a raw
+     * row (to each value of a multivalue cell) before the row is expanded, and the rows of the Cartesian
+     * product share the already split columns instead of running the rules on every copy.
+     *
+     * In parallel mode the raw rows are still read in order, but handed out in chunks, and the heuristics
+     * run on the chunks in parallel. The returned rows stay in the same, deterministic order as in
+     * sequential mode when they are consumed in order ({@link RowSource#forEachRow}, {@link RowSource#toList},
+     * {@link org.melisa.datamodel.model.Relation#from}). A global expansion budget is granted in row
+     * order: the multivalue cells are split and the rows granted while the raw rows are read, the column
+     * splitting and the expansion of the granted rows run on the chunks.
+     *
+     * @param rawData         The source of raw rows from Excel.
+     * @param heuristicCache  The cache for the column-splitting heuristics.
+     * @param implementation  The implementation of the column-splitting heuristics.
+     * @param expansionBudget Caps the Cartesian product of rows with several multivalue columns.
+     * @param parallel        true to process chunks of rows in parallel.
+     * @return A RowSource producing the rows in 1NF.
+     */
+    public static RowSource normalizeTo1NF(RowSource rawData, HeuristicCache heuristicCache, HeuristicImplementation implementation,
+                                           RowExpansionBudget expansionBudget, boolean parallel) {
+        // The rows after row splitting alone (e.g., comma-separated values). The Cartesian product for multiple
+        // multivalued columns is generated lazily, within the budget (the global part of the budget starts anew
+        // on every pass). Which column-splitting rule owns which column is planned from their leading rows; the
+        // planning pass does not count towards the statistics of the budget, the pass producing the output does.
+        RowSource atomicRows = () -> {
+            RowExpansionBudget.Pass budgetPass = expansionBudget.startPass(false);
+            return rawData.rows().map(FirstNormalizer::splitMultiValueColumns)
+                    .flatMap(row -> applyRowSplittingHeuristics(row, row.allowance(budgetPass), UnaryOperator.identity()));
+        };
+
+        AtomicReference<ColumnSplittingPlan> columnPlan = new AtomicReference<>();
+        return () -> {
+            ColumnSplittingPlan plan = columnPlan.updateAndGet(existing -> (existing != null)
+                    ? existing : planColumnSplitting(atomicRows, implementation.columnSplittingRules()));
+            UnaryOperator<Map<String, Object>> columnSplitting = row -> plan.apply(row, heuristicCache);
+            RowExpansionBudget.Pass budgetPass = expansionBudget.startPass();
+            if (parallel && expansionBudget.maxRowsTotal() != Long.MAX_VALUE) {
+                // The rows are granted in source order before they are handed out in chunks
+                Stream<Map.Entry<SplitRow, Long>> grantedRows = rawData.rows().map(FirstNormalizer::splitMultiValueColumns)
+                        .map(row -> Map.entry(row, row.allowance(budgetPass)));
+                return inParallelChunks(grantedRows)
+                        .flatMap(row -> applyRowSplittingHeuristics(row.getKey(), row.getValue(), columnSplitting));
             }
-        }
-        return outputData;
+
+            // Row splitting and column-splitting heuristics (e.g., quantity-item, parenthetical alias) in one traversal
+            Stream<Map<String, Object>> rows = parallel ? inParallelChunks(rawData.rows()) : rawData.rows();
+            return rows.map(FirstNormalizer::splitMultiValueColumns)
+                    .flatMap(row -> applyRowSplittingHeuristics(row, row.allowance(budgetPass), columnSplitting));
+        };
+    }
+
+    /**
+     * Lazy variant of {@link #normalizeTo1NF(List)} that moves multivalue columns into child relations
+     * instead of expanding the rows to their Cartesian product.
+     *
+     * Every raw row produces exactly one row, which starts with the surrogate key {@link #ROW_ID_COLUMN}
+     * (1, 2, ... in the order of the source). The columns with a delimited value in any row are multivalue
+     * columns: all their values are handed to the collector and the columns are left out of the rows; the
+     * other columns stay in the main rows completely.
+     *
+     * The multivalue columns are planned on the first pass, by a full pass over the raw rows of its own,
+     * followed by a read of the leading rows to plan the column splitting. A streamed source (such as
+     * {@link org.melisa.datamodel.io.ExcelFileReader#rowSource}) is therefore parsed twice completely,
+     * plus once more for the leading rows. A source that is read repeatedly should be materialized first.
+     *
+     * @param rawData             The source of raw rows from Excel.
+     * @param heuristicCache      The cache for the column-splitting heuristics.
+     * @param multiValueRelations Collects the values of the multivalue columns while the rows are consumed.
+     * @return A RowSource producing the main rows in 1NF. Its first pass throws an IllegalArgumentException
+     * if a column has the same SQL identifier as {@link #ROW_ID_COLUMN}.
+     */
+    public static RowSource normalizeTo1NF(RowSource rawData, HeuristicCache heuristicCache, MultiValueRelations multiValueRelations) {
+        return normalizeTo1NF(rawData, heuristicCache, multiValueRelations, false);
+    }
+
+    /**
+     * Variant of {@link #normalizeTo1NF(RowSource, HeuristicCache, MultiValueRelations)} that optionally
+     * processes chunks of rows in parallel. The rows are numbered while they are read in order, so the
+     * surrogate keys, the child relations and the order of the returned rows are the same as in
+     * sequential mode.
+     *
+     * @param rawData             The source of raw rows from Excel.
+     * @param heuristicCache      The cache for the column-splitting heuristics.
+     * @param multiValueRelations Collects the values of the multivalue columns while the rows are consumed.
+     * @param parallel            true to process chunks of rows in parallel.
+     * @return A RowSource producing the main rows in 1NF.
+     */
+    public static RowSource normalizeTo1NF(RowSource rawData, HeuristicCache heuristicCache, MultiValueRelations multiValueRelations,
+                                           boolean parallel) {
+        // Pass 1: Move the multivalue columns into the child relations. They are planned once, on the first pass.
+        AtomicReference<Set<String>> multiValuePlan = new AtomicReference<>();
+        RowSource atomicRows = () -> {
+            Set<String> multiValueColumnNames = multiValuePlan.updateAndGet(existing -> (existing != null)
+                    ? existing : planMultiValueColumns(rawData));
+            AtomicLong rowIds = new AtomicLong();
+            Stream<Map.Entry<Long, Map<String, Object>>> numberedRows = rawData.rows().map(row -> Map.entry(rowIds.incrementAndGet(), row));
+            return (parallel ? inParallelChunks(numberedRows) : numberedRows)
+                    .map(row -> extractMultiValueColumns(row.getValue(), row.getKey(), multiValueColumnNames, multiValueRelations));
+        };
+
+        // Pass 2: Apply column-splitting heuristics to the main rows
+        return applyColumnSplittingHeuristics(atomicRows, heuristicCache, HeuristicImplementation.SCANNER);
     }
 
     /**
-     * Recursive helper method to generate the Cartesian product of multivalued columns.
+     * Applies the column-splitting heuristics lazily. This pass modifies columns within existing rows.
+     * Which rule splits which column is planned once, on the first pass, from the leading rows; later
+     * passes reuse the plan.
      *
-     * @param multiValueColumns The map of column names to lists of their split values.
-     * @param currentProductRow The partial row being built during recursion.
-     * @param columnKeys A list of column names (keys) from multiValueColumns to iterate through.
-     * @param keyIndex The current index in columnKeys being processed.
-     * @param resultRows The list to which the final Cartesian product rows will be added.
+     * @param atomicRows     The rows after row splitting.
+     * @param heuristicCache The cache for the column-splitting heuristics.
+     * @param implementation The implementation of the column-splitting heuristics.
+     * @return A RowSource producing the rows in 1NF.
      */
-    private static void generateCartesianProductRecursive(
-            Map<String, List<String>> multiValueColumns,
-            Map<String, Object> currentProductRow,
-            List<String> columnKeys,
-            int keyIndex,
-            List<Map<String, Object>> resultRows) {
+    private static RowSource applyColumnSplittingHeuristics(RowSource atomicRows, HeuristicCache heuristicCache,
+                                                            HeuristicImplementation implementation) {
+        AtomicReference<ColumnSplittingPlan> columnPlan = new AtomicReference<>();
+        return () -> {
+            ColumnSplittingPlan plan = columnPlan.updateAndGet(existing -> (existing != null)
+                    ? existing : planColumnSplitting(atomicRows, implementation.columnSplittingRules()));
+            return atomicRows.rows().map(row -> plan.apply(row, heuristicCache));
+        };
+    }
 
-        // Base case: If we have processed all multi-value columns, a complete row is formed.
-        if (keyIndex == columnKeys.size()) {
-            resultRows.add(new LinkedHashMap<>(currentProductRow)); // Add a copy of the completed row
-            return;
+    /**
+     * Continues a sequential pass in parallel: the elements are still taken from the given Stream in order
+     * (so stateful steps before this point, like numbering, see the source order), but handed out in
+     * batches of growing size, and the following steps run on the batches in parallel. The Stream stays
+     * ordered, so the chunk outputs are concatenated in source order by the consumer.
+     *
+     * @param sequentialRows The sequential pass.
+     * @return An ordered, parallel Stream of the same elements.
+     */
+    private static <T> Stream<T> inParallelChunks(Stream<T> sequentialRows) {
+        Spliterator<T> chunks = Spliterators.spliteratorUnknownSize(Spliterators.iterator(sequentialRows.spliterator()),
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(chunks, true).onClose(sequentialRows::close);
+    }
+
+    /**
+     * Samples the leading rows and decides which column-splitting rule owns which column.
+     *
+     * @param atomicRows The rows after row splitting.
+     * @param rules      The column-splitting rules, in order of priority.
+     * @return The plan for all passes over these rows.
+     */
+    private static ColumnSplittingPlan planColumnSplitting(RowSource atomicRows, List<HeuristicRule> rules) {
+        try (Stream<Map<String, Object>> rows = atomicRows.rows()) {
+            return ColumnSplittingPlan.fromSample(rows.limit(PLANNING_SAMPLE_ROWS).toList(), rules);
         }
+    }
 
-        // Recursive step: Get the current column to process
-        String currentColumnName = columnKeys.get(keyIndex);
-        List<String> values = multiValueColumns.getOrDefault(currentColumnName, Collections.emptyList());
-
-        // Iterate through each value in the current column's list
-        for (String value : values) {
-            currentProductRow.put(currentColumnName, value); // Add the current value to the row
-            // Recurse for the next column
-            generateCartesianProductRecursive(
-                    multiValueColumns,
-                    currentProductRow,
-                    columnKeys,
-                    keyIndex + 1, // Move to the next column
-                    resultRows
-            );
-            // Backtrack: Remove the current column's value for the next iteration (important for LinkedHashMap)
-            // This ensures currentProductRow is clean for sibling recursive calls.
-            currentProductRow.remove(currentColumnName);
+    /**
+     * Scans all raw rows and collects the columns that hold delimited values. A sample is not enough here:
+     * a column is either moved into a child relation completely or stays in the main rows, so a delimited
+     * value after the sample would have nowhere to go. The main rows of the real pass are handed out before
+     * its last row is seen, so the columns cannot be decided during that pass either. The price is one more
+     * full read of the source, i.e. one more parse of a streamed workbook. The delimiter scan allocates
+     * nothing for single values.
+     *
+     * @param rawData The source of raw rows.
+     * @return The multivalue columns.
+     * @throws IllegalArgumentException If a column has the same SQL identifier as the surrogate key.
+     */
+    private static Set<String> planMultiValueColumns(RowSource rawData) {
+        final String sqlRowId = SqlGenerator.toSqlIdentifier(ROW_ID_COLUMN);
+        Set<String> columnNames = new HashSet<>();
+        Set<String> multiValueColumnNames = new HashSet<>();
+        rawData.forEachRow(row -> row.forEach((columnName, cellValue) -> {
+            if (columnNames.add(columnName) && SqlGenerator.toSqlIdentifier(columnName).equals(sqlRowId)) {
+                throw new IllegalArgumentException("The column '" + columnName + "' collides with the surrogate key "
+                        + sqlRowId + " of the child relations. Rename the column or expand the multivalue rows instead.");
+            }
+            if (!multiValueColumnNames.contains(columnName) && splitMultiValue(cellValue) != null) {
+                multiValueColumnNames.add(columnName);
+            }
+        }));
+        return multiValueColumnNames;
+    }
+
+    /**
+     * Hands the values of the multivalue columns of one raw row to the collector.
+     *
+     * @param originalRow           The raw row.
+     * @param rowId                 The surrogate key of the row.
+     * @param multiValueColumnNames The planned multivalue columns.
+     * @param multiValueRelations   Collects the values.
+     * @return The main row: the surrogate key and the single-value columns.
+     */
+    private static Map<String, Object> extractMultiValueColumns(Map<String, Object> originalRow, long rowId,
+                                                                Set<String> multiValueColumnNames, MultiValueRelations multiValueRelations) {
+        Map<String, Object> mainRow = new LinkedHashMap<>();
+        mainRow.put(ROW_ID_COLUMN, rowId);
+        for (Map.Entry<String, Object> entry : originalRow.entrySet()) {
+            String originalColumnName = entry.getKey();
+            Object cellValue = entry.getValue();
+            if (!multiValueColumnNames.contains(originalColumnName)) {
+                mainRow.put(originalColumnName, cellValue);
+                continue;
+            }
+            List<String> parts = splitMultiValue(cellValue);
+            if (parts != null) {
+                multiValueRelations.put(originalColumnName, rowId, parts);
+            } else {
+                // A single value of a multivalue column, a missing value has no child row
+                boolean missing = cellValue == null || (cellValue instanceof String stringValue && stringValue.isBlank());
+                multiValueRelations.put(originalColumnName, rowId, missing ? List.of() : List.of(cellValue));
+            }
         }
+        return mainRow;
     }
 
+    /**
+     * Splits a delimited cell value into its trimmed parts.
+     *
+     * @param cellValue The cell value.
+     * @return The parts, or null if the value is not a delimited string.
+     */
+    private static List<String> splitMultiValue(Object cellValue) {
+        if (!(cellValue instanceof String stringValue)) {
+            return null; // Non-string values don't trigger row splitting
+        }
+
+        // Check for comma-separated pattern (or other row-splitting patterns) and split in the same scan
+        return RowSplittingDelimiters.split(stringValue.trim());
+    }
 
     /**
-     * Applies heuristics that lead to splitting values within a column into new columns.
-     * This pass does not change the number of rows and uses a list of HeuristicRule objects for extensibility and cleaner code.
+     * A raw row whose delimited values are split, but not yet expanded to their Cartesian product.
      *
+     * @param originalRow           The raw row.
+     * @param singleValueColumns    The columns copied into every generated row, in their original order.
+     * @param multiValueColumnNames The columns that contain multiple values, in column order.
+     * @param multiValues           The split parts of each multivalue column.
+     */
+    private record SplitRow(Map<String, Object> originalRow, Map<String, Object> singleValueColumns,
+                            List<String> multiValueColumnNames, List<List<String>> multiValues) {
+
+        /**
+         * Reserves the rows of the Cartesian product in the expansion budget of a pass.
+         *
+         * @param budgetPass The expansion budget of the pass.
+         * @return The number of rows the raw row may expand to (1 for a row without multivalue columns).
+         */
+        long allowance(RowExpansionBudget.Pass budgetPass) {
+            return multiValues.isEmpty() ? 1 : budgetPass.allowance(CartesianProduct.size(multiValues));
+        }
+    }
+
+    /**
+     * Finds the columns of a raw row that need row splitting and splits their values.
      *
-     * @param inputData The list of rows (already processed for row-splitting) to process.
-     * @return A new list of rows with columns potentially expanded.
+     * @param originalRow The row to process.
+     * @return The row with its split multivalue columns.
      */
-    private static List<Map<String, Object>> applyColumnSplittingHeuristics(List<Map<String, Object>> inputData) {
-        List<Map<String, Object>> outputData = new ArrayList<>();
+    private static SplitRow splitMultiValueColumns(Map<String, Object> originalRow) {
+        // Columns that contain multiple values and their split parts, in column order
+        List<String> multiValueColumnNames = new ArrayList<>();
+        List<List<String>> multiValues = new ArrayList<>();
 
-        for (Map<String, Object> originalRow : inputData) {
-            // Create a new LinkedHashMap for the transformed row to maintain column order
-            Map<String, Object> newRow = new LinkedHashMap<>();
+        // Columns that are *not* split for row expansion, copied into every generated row in their original order
+        Map<String, Object> singleValueColumns = new LinkedHashMap<>();
 
-            // Iterate over the original row's entries to preserve order
-            for (Map.Entry<String, Object> entry : originalRow.entrySet()) {
-                String originalColumnName = entry.getKey();
-                Object cellValue = entry.getValue();
+        // Identify all columns in the current row that need row splitting
+        for (Map.Entry<String, Object> entry : originalRow.entrySet()) {
+            List<String> parts = splitMultiValue(entry.getValue());
+            if (parts != null) {
+                multiValueColumnNames.add(entry.getKey());
+                multiValues.add(parts);
+            } else {
+                // This column is not a multi-value string for row splitting
+                singleValueColumns.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return new SplitRow(originalRow, singleValueColumns, multiValueColumnNames, multiValues);
+    }
 
-                boolean heuristicApplied = false; // Flag to track if any heuristic successfully processed the value
+    /**
+     * Applies heuristics that lead to splitting a single row into multiple rows,
+     * generating a Cartesian product if multiple columns in the same row need splitting.
+     * The product is generated lazily and capped by the rows granted by the expansion budget.
+     *
+     * The column splitting is applied before the expansion: once to the single-value columns and once to
+     * every value of a multivalue column. The generated rows are put together from these parts, so the
+     * rows hold the single-value columns first, followed by the multivalue columns, each replaced by the
+     * columns the column splitting made of it.
+     *
+     * @param splitRow        The row to process, with its split multivalue columns.
+     * @param maxRows         The number of rows the expansion budget granted the row.
+     * @param columnSplitting Splits the columns of a (partial) row, the identity to split rows only.
+     * @return The rows the original row expands to (just the original row if no split occurred).
+     */
+    private static Stream<Map<String, Object>> applyRowSplittingHeuristics(SplitRow splitRow, long maxRows,
+                                                                         UnaryOperator<Map<String, Object>> columnSplitting) {
+        List<String> multiValueColumnNames = splitRow.multiValueColumnNames();
+        List<List<String>> multiValues = splitRow.multiValues();
 
-                // Only apply column-splitting heuristics if the value is a String
-                if (cellValue instanceof String) { // No need for 'stringValue' variable here, pass 'cellValue' directly to apply
-                    // Iterate through the predefined list of HeuristicRules.
-                    // The order of rules in the list defines their application priority.
-                    for (HeuristicRule rule : COLUMN_SPLITTING_RULES) {
-                        // Attempt to apply the current rule.
-                        // If 'rule.apply()' returns true, it means the rule processed the value
-                        // and added its results to 'newRow'. No other rule needs to be tried for this cell.
-                        if (rule.apply(originalColumnName, cellValue, newRow)) {
-                            heuristicApplied = true;
-                            break; // Stop trying rules for this cell, move to the next original column.
-                        }
-                    }
-                }
-                // If no heuristic was applied (either because it wasn't a String, or no rule matched),
-                // then simply add the original column and its value to the new row as is.
-                if (!heuristicApplied) {
-                    newRow.put(originalColumnName, cellValue);
-                }
+        // If no columns needed row splitting, keep the original row as is (apart from the column splitting)
+        if (multiValueColumnNames.isEmpty()) {
+            return Stream.of(columnSplitting.apply(splitRow.originalRow()));
+        }
 
+        // Split the columns of every value once, all rows of the product share the results
+        List<List<Map<String, Object>>> fragments = new ArrayList<>(multiValues.size());
+        for (int column = 0; column < multiValues.size(); column++) {
+            List<Map<String, Object>> columnFragments = new ArrayList<>(multiValues.get(column).size());
+            for (String value : multiValues.get(column)) {
+                columnFragments.add(columnSplitting.apply(Map.of(multiValueColumnNames.get(column), value)));
             }
-            outputData.add(newRow);
+            fragments.add(columnFragments);
         }
-        return outputData;
+
+        // Stream their Cartesian product, as far as the budget allows
+        return CartesianProduct.stream(columnSplitting.apply(splitRow.singleValueColumns()), fragments, maxRows);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,24 @@
+package org.melisa.datamodel.normalization;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * A functional dependency X → A: rows that agree on all attributes of the determinant X
+ * always agree on the dependent attribute A.
+ *
+ * @param determinant The left-hand side X, in attribute order (may be empty for constant columns).
+ * @param dependent   The right-hand side A.
+ */
+public record FunctionalDependency(Set<String> determinant, String dependent) {
+
+    public FunctionalDependency {
+        determinant = Collections.unmodifiableSet(new LinkedHashSet<>(determinant));
+    }
+
+    @Override
+    public String toString() {
+        return String.join(", ", determinant) + " -> " + dependent;
+    }
+}
@@ -0,0 +1,244 @@
+package org.melisa.datamodel.normalization;
+
+import org.melisa.datamodel.model.Relation;
+
+import java.util.*;
+
+/**
+ * Discovers all minimal, non-trivial functional dependencies of a relation in one run (TANE algorithm).
+ *
+ * Like {@link CandidateKeyIdentifier}, the lattice of attribute sets is walked level by level,
+ * with attribute sets as long bit masks and stripped partitions instead of row comparisons:
+ * X \ {A} → A holds exactly when the partitions of X \ {A} and X have the same error count.
+ *
+ * For every set X the candidate set C+(X) holds the attributes A for which X \ {A} → A could
+ * still be minimal. It is the intersection of the candidate sets of all subsets one level below,
+ * and shrinks whenever a dependency is found. Sets are pruned when
+ * <ul>
+ *     <li>C+(X) is empty (no superset can yield a new minimal dependency), or</li>
+ *     <li>X is a Superkey: the remaining dependencies X → A are emitted directly and no superset is generated.</li>
+ * </ul>
+ *
+ * Partitions come from a {@link PartitionCache}, so partitions that candidate key discovery already
+ * computed for the same relation are reused, and the ones computed here are remembered for later analyses.
+ */
+public class FunctionalDependencyDiscoverer {
+
+    private final int maxDeterminantSize;
+
+    /**
+     * Creates a discoverer without a limit on the determinant size.
+     */
+    public FunctionalDependencyDiscoverer() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a discoverer that only reports dependencies with small determinants (and stops the lattice walk early).
+     *
+     * @param maxDeterminantSize The largest number of attributes on the left-hand side.
+     * @throws IllegalArgumentException If maxDeterminantSize is negative.
+     */
+    public FunctionalDependencyDiscoverer(int maxDeterminantSize) {
+        if (maxDeterminantSize < 0) {
+            throw new IllegalArgumentException("Maximum determinant size must not be negative, but was " + maxDeterminantSize + ".");
+        }
+        this.maxDeterminantSize = maxDeterminantSize;
+    }
+
+    /**
+     * Discovers the minimal functional dependencies of the given 1NF data.
+     *
+     * @param data The 1NF data, where each Map is a tuple (row).
+     * @return All minimal, non-trivial functional dependencies, ordered by determinant size.
+     * @throws IllegalArgumentException If the relation has more than 64 attributes.
+     */
+    public List<FunctionalDependency> discover(List<Map<String, Object>> data) {
+        if (data == null || data.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> attributeList = new ArrayList<>(data.get(0).keySet());
+        return discover(new PartitionCache(Relation.of(data), attributeList));
+    }
+
+    /**
+     * Discovers the minimal functional dependencies using (and filling) shared partitions.
+     *
+     * @param partitions The partitions of the relation to analyse.
+     * @return All minimal, non-trivial functional dependencies, ordered by determinant size.
+     */
+    public List<FunctionalDependency> discover(PartitionCache partitions) {
+        List<FunctionalDependency> dependencies = new ArrayList<>();
+        int n = partitions.attributeCount();
+        if (partitions.rowCount() == 0 || n == 0) {
+            return dependencies;
+        }
+
+        List<String> attributeList = partitions.attributes();
+        long allAttributes = (n == Long.SIZE) ? -1L : (1L << n) - 1;
+        int[] probeTable = partitions.newProbeTable();
+
+        // Level 0 is the empty set, its candidate set contains every attribute
+        Map<Long, Long> previousCandidates = Map.of(0L, allAttributes);
+        Map<Long, Integer> previousErrorCounts = Map.of(0L, partitions.find(0L).errorCount());
+
+        Map<Long, StrippedPartition> currentLevel = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            currentLevel.put(1L << i, partitions.columnPartition(i));
+        }
+
+        for (int levelSize = 1; !currentLevel.isEmpty(); levelSize++) {
+            Map<Long, Long> candidates = computeDependencies(
+                    currentLevel, previousCandidates, previousErrorCounts, allAttributes, attributeList, dependencies);
+            prune(currentLevel, candidates, partitions, probeTable, attributeList, dependencies);
+
+            previousCandidates = candidates;
+            previousErrorCounts = new HashMap<>();
+            for (Map.Entry<Long, StrippedPartition> entry : currentLevel.entrySet()) {
+                previousErrorCounts.put(entry.getKey(), entry.getValue().errorCount());
+            }
+            if (levelSize > maxDeterminantSize) {
+                break; // The next level could only yield larger determinants
+            }
+            currentLevel = generateNextLevel(currentLevel, partitions, probeTable);
+        }
+
+        // Superkey dependencies are emitted one level early, restore the order by determinant size
+        dependencies.sort(Comparator.comparingInt(dependency -> dependency.determinant().size()));
+        return dependencies;
+    }
+
+    /**
+     * Computes C+(X) for every set of the level and emits the dependencies X \ {A} → A that hold.
+     *
+     * @return The candidate sets of the level, keyed by attribute set.
+     */
+    private Map<Long, Long> computeDependencies(
+            Map<Long, StrippedPartition> currentLevel, Map<Long, Long> previousCandidates,
+            Map<Long, Integer> previousErrorCounts, long allAttributes, List<String> attributeList,
+            List<FunctionalDependency> dependencies) {
+
+        Map<Long, Long> candidates = new HashMap<>();
+        for (long set : currentLevel.keySet()) {
+            long candidateSet = allAttributes;
+            for (long remaining = set; remaining != 0; remaining &= remaining - 1) {
+                candidateSet &= previousCandidates.getOrDefault(set & ~Long.lowestOneBit(remaining), 0L);
+            }
+            candidates.put(set, candidateSet);
+        }
+
+        for (Map.Entry<Long, StrippedPartition> entry : currentLevel.entrySet()) {
+            long set = entry.getKey();
+            long candidateSet = candidates.get(set);
+            for (long remaining = set & candidateSet; remaining != 0; remaining &= remaining - 1) {
+                long attribute = Long.lowestOneBit(remaining);
+                long determinant = set & ~attribute;
+                if (previousErrorCounts.get(determinant) == entry.getValue().errorCount()) {
+                    dependencies.add(toDependency(determinant, attribute, attributeList));
+                    // A is determined, and no attribute outside X can depend minimally on a superset of X
+                    candidateSet &= ~attribute;
+                    candidateSet &= set;
+                }
+            }
+            candidates.put(set, candidateSet);
+        }
+        return candidates;
+    }
+
+    /**
+     * Removes sets that cannot lead to new minimal dependencies. For a Superkey X, the dependencies X → A
+     * for attributes outside X are emitted here, if no subset one attribute smaller determines A already.
+     * All decisions are made before any set is removed, so the result does not depend on the level order.
+     */
+    private void prune(
+            Map<Long, StrippedPartition> currentLevel, Map<Long, Long> candidates, PartitionCache partitions,
+            int[] probeTable, List<String> attributeList, List<FunctionalDependency> dependencies) {
+
+        List<Long> prunedSets = new ArrayList<>();
+        for (Map.Entry<Long, StrippedPartition> entry : currentLevel.entrySet()) {
+            long set = entry.getKey();
+            long candidateSet = candidates.get(set);
+            if (candidateSet == 0) {
+                prunedSets.add(set);
+            } else if (entry.getValue().isUnique()) {
+                for (long remaining = candidateSet & ~set; remaining != 0; remaining &= remaining - 1) {
+                    long attribute = Long.lowestOneBit(remaining);
+                    if (Long.bitCount(set) <= maxDeterminantSize
+                            && isMinimalForKey(set, attribute, partitions, probeTable)) {
+                        dependencies.add(toDependency(set, attribute, attributeList));
+                    }
+                }
+                prunedSets.add(set);
+            }
+        }
+        for (long set : prunedSets) {
+            currentLevel.remove(set);
+        }
+    }
+
+    /**
+     * A Superkey X determines every attribute A. X → A is minimal exactly when no X \ {B} determines A,
+     * i.e. when adding A to X \ {B} changes its error count.
+     */
+    private boolean isMinimalForKey(long key, long attribute, PartitionCache partitions, int[] probeTable) {
+        for (long remaining = key; remaining != 0; remaining &= remaining - 1) {
+            long subset = key & ~Long.lowestOneBit(remaining);
+            int subsetErrorCount = partitions.partition(subset, probeTable).errorCount();
+            int extendedErrorCount = partitions.partition(subset | attribute, probeTable).errorCount();
+            if (subsetErrorCount == extendedErrorCount) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Generates the next level from the prefix blocks of the current one (see {@link CandidateKeyIdentifier}),
+     * taking known partitions from the cache and intersecting the generating sets otherwise.
+     */
+    private Map<Long, StrippedPartition> generateNextLevel(
+            Map<Long, StrippedPartition> currentLevel, PartitionCache partitions, int[] probeTable) {
+
+        Map<Long, List<Long>> prefixBlocks = new LinkedHashMap<>();
+        for (long set : currentLevel.keySet()) {
+            long prefix = set & ~Long.highestOneBit(set);
+            prefixBlocks.computeIfAbsent(prefix, key -> new ArrayList<>()).add(set);
+        }
+
+        Map<Long, StrippedPartition> nextLevel = new LinkedHashMap<>();
+        for (List<Long> block : prefixBlocks.values()) {
+            for (int i = 0; i < block.size(); i++) {
+                for (int j = i + 1; j < block.size(); j++) {
+                    long candidate = block.get(i) | block.get(j);
+                    if (!allSubsetsSurvived(candidate, currentLevel)) {
+                        continue;
+                    }
+                    StrippedPartition partition = partitions.find(candidate);
+                    if (partition == null) {
+                        partition = currentLevel.get(block.get(i)).intersect(currentLevel.get(block.get(j)), probeTable);
+                        partitions.remember(candidate, partition);
+                    }
+                    nextLevel.put(candidate, partition);
+                }
+            }
+        }
+        return nextLevel;
+    }
+
+    private boolean allSubsetsSurvived(long candidate, Map<Long, StrippedPartition> currentLevel) {
+        for (long remaining = candidate; remaining != 0; remaining &= remaining - 1) {
+            if (!currentLevel.containsKey(candidate & ~Long.lowestOneBit(remaining))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private FunctionalDependency toDependency(long determinant, long attribute, List<String> attributeList) {
+        Set<String> determinantNames = new LinkedHashSet<>();
+        for (long remaining = determinant; remaining != 0; remaining &= remaining - 1) {
+            determinantNames.add(attributeList.get(Long.numberOfTrailingZeros(remaining)));
+        }
+        return new FunctionalDependency(determinantNames, attributeList.get(Long.numberOfTrailingZeros(attribute)));
+    }
+}
@@ -0,0 +1,137 @@
+package org.melisa.datamodel.normalization;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the outcome of the column-splitting heuristics per distinct cell value, so a value that
+ * repeats throughout a sheet ("5 kg", "€10") is only matched against the heuristic rules once.
+ *
+ * The outcome of a rule depends on the column (the new column names are derived from it, and some rules
+ * skip certain columns), so every column has its own cache. Each column cache is bounded and evicts the
+ * least recently used value, so columns with mostly unique values (IDs, free text) cannot grow it without
+ * limit. Hits and misses are counted for all columns together.
+ *
+ * A cache may be shared by several passes over the same data (e.g. schema inference and INSERT
+ * generation) and is safe to use from multiple threads.
+ */
+public class HeuristicCache {
+
+    // Default number of distinct values remembered per column
+    private static final int DEFAULT_MAX_ENTRIES_PER_COLUMN = 4_096;
+
+    private final int maxEntriesPerColumn;
+    private final Map<String, Map<String, Outcome>> columnCaches = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates a cache remembering up to 4096 distinct values per column.
+     */
+    public HeuristicCache() {
+        this(DEFAULT_MAX_ENTRIES_PER_COLUMN);
+    }
+
+    /**
+     * @param maxEntriesPerColumn The number of distinct values remembered per column.
+     * @throws IllegalArgumentException If maxEntriesPerColumn is smaller than 1.
+     */
+    public HeuristicCache(int maxEntriesPerColumn) {
+        if (maxEntriesPerColumn < 1) {
+            throw new IllegalArgumentException("The cache must hold at least 1 entry per column, but was " + maxEntriesPerColumn + ".");
+        }
+        this.maxEntriesPerColumn = maxEntriesPerColumn;
+    }
+
+    /**
+     * The columns a heuristic rule produced for one cell value.
+     *
+     * @param applied true if a rule transformed the value.
+     * @param columns The new columns and their values (empty if no rule applied).
+     */
+    record Outcome(boolean applied, Map<String, Object> columns) {
+        static final Outcome NOT_APPLIED = new Outcome(false, Map.of());
+    }
+
+    /**
+     * Returns the remembered outcome for the value, or computes and remembers it.
+     *
+     * @param originalColumnName The column of the cell.
+     * @param cellValue          The cell value.
+     * @param computation        Runs the heuristic rules on a miss.
+     * @return The outcome of the heuristic rules for the value.
+     */
+    Outcome outcome(String originalColumnName, String cellValue, Supplier<Outcome> computation) {
+        Map<String, Outcome> columnCache = columnCaches.computeIfAbsent(originalColumnName, column -> newColumnCache());
+        Outcome outcome;
+        synchronized (columnCache) {
+            outcome = columnCache.get(cellValue);
+        }
+        if (outcome != null) {
+            hits.increment();
+            return outcome;
+        }
+
+        // Computed outside the lock; two threads missing the same value at once just both compute it
+        misses.increment();
+        outcome = computation.get();
+        synchronized (columnCache) {
+            columnCache.put(cellValue, outcome);
+        }
+        return outcome;
+    }
+
+    private Map<String, Outcome> newColumnCache() {
+        // Access ordered LinkedHashMap: the eldest entry is the least recently used one
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Outcome> eldest) {
+                return size() > maxEntriesPerColumn;
+            }
+        };
+    }
+
+    /**
+     * @return The number of cell values whose outcome was found in the cache.
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return The number of cell values the heuristic rules had to run for.
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return The share of lookups answered from the cache (0 if there were none).
+     */
+    public double hitRate() {
+        long lookups = hits() + misses();
+        return (lookups == 0) ? 0.0 : (double) hits() / lookups;
+    }
+
+    /**
+     * @return The number of distinct values currently remembered per column.
+     */
+    public Map<String, Integer> columnSizes() {
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+        columnCaches.forEach((column, columnCache) -> {
+            synchronized (columnCache) {
+                sizes.put(column, columnCache.size());
+            }
+        });
+        return Collections.unmodifiableMap(sizes);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d hits, %d misses (hit rate %.1f%%)", hits(), misses(), hitRate() * 100);
+    }
+}
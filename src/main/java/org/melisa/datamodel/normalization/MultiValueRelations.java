@@ -0,0 +1,110 @@
+package org.melisa.datamodel.normalization;
+
+import org.melisa.datamodel.io.SqlGenerator;
+import org.melisa.datamodel.model.DecomposedRelation;
+import org.melisa.datamodel.model.Relation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Collects the values of multivalue columns ("Red; Blue") as child relations instead of multiplying the
+ * rows by their Cartesian product.
+ *
+ * In this mode every raw row keeps exactly one row in the main relation, identified by the surrogate key
+ * {@link FirstNormalizer#ROW_ID_COLUMN}. Each multivalue column is moved into its own child relation with
+ * one row per value: (ROW_ID, value). The row volume grows with the number of values instead of their
+ * product, and the key discovery of the later normal forms only sees the main relation.
+ *
+ * The values are remembered per column and ROW_ID, so further passes over the same rows (e.g. planning
+ * and the full pass) simply overwrite them. A collector may be filled from multiple threads.
+ */
+public class MultiValueRelations {
+
+    // Column -> (ROW_ID -> values of the cell), columns in order of first appearance
+    private final Map<String, NavigableMap<Long, List<?>>> valuesByColumn = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    /**
+     * Remembers the values of one cell.
+     *
+     * @param originalColumnName The multivalue column.
+     * @param rowId              The surrogate key of the raw row.
+     * @param values             The values of the cell (empty for a missing value).
+     */
+    void put(String originalColumnName, long rowId, List<?> values) {
+        valuesByColumn.computeIfAbsent(originalColumnName, column -> new ConcurrentSkipListMap<>()).put(rowId, values);
+    }
+
+    /**
+     * @return The columns moved into child relations, in order of first appearance.
+     */
+    public List<String> columnNames() {
+        synchronized (valuesByColumn) {
+            return List.copyOf(valuesByColumn.keySet());
+        }
+    }
+
+    /**
+     * @return The number of child rows collected so far (before duplicates within a cell are removed).
+     */
+    public long valueCount() {
+        synchronized (valuesByColumn) {
+            return valuesByColumn.values().stream()
+                    .flatMap(cells -> cells.values().stream())
+                    .mapToLong(List::size)
+                    .sum();
+        }
+    }
+
+    /**
+     * Builds one child relation per multivalue column. The primary key of a child relation is
+     * (ROW_ID, value) and ROW_ID references the parent relation whose primary key is ROW_ID.
+     *
+     * @param tableNameBase   The user-provided base name (e.g., "shop") used for prefixing.
+     * @param parentRelations The relations the main rows were normalized into.
+     * @return The child relations, in column order.
+     */
+    public List<DecomposedRelation> toDecomposedRelations(String tableNameBase, List<DecomposedRelation> parentRelations) {
+        final String sqlTableNameBase = SqlGenerator.toSqlIdentifier(tableNameBase);
+        final String sqlRowId = SqlGenerator.toSqlIdentifier(FirstNormalizer.ROW_ID_COLUMN);
+
+        Map<String, String> foreignKeys = Collections.emptyMap();
+        for (DecomposedRelation parent : parentRelations) {
+            if (parent.primaryKeys().equals(List.of(sqlRowId))) {
+                foreignKeys = Map.of(sqlRowId, parent.name() + "(" + sqlRowId + ")");
+                break;
+            }
+        }
+        if (foreignKeys.isEmpty() && !valuesByColumn.isEmpty()) {
+            System.err.println("Warning: No relation is keyed by " + sqlRowId + ", the child relations get no foreign key.");
+        }
+
+        List<DecomposedRelation> childRelations = new ArrayList<>();
+        synchronized (valuesByColumn) {
+            for (Map.Entry<String, NavigableMap<Long, List<?>>> column : valuesByColumn.entrySet()) {
+                String originalColumnName = column.getKey();
+                Relation.Builder builder = Relation.builder();
+                for (Map.Entry<Long, List<?>> cell : column.getValue().entrySet()) {
+                    for (Object value : cell.getValue()) {
+                        Map<String, Object> childRow = new LinkedHashMap<>();
+                        childRow.put(FirstNormalizer.ROW_ID_COLUMN, cell.getKey());
+                        childRow.put(originalColumnName, value);
+                        builder.addRow(childRow);
+                    }
+                }
+
+                String relationName = SqlGenerator.toSqlIdentifier(sqlTableNameBase + "_" + originalColumnName);
+                List<String> primaryKeys = List.of(sqlRowId, SqlGenerator.toSqlIdentifier(originalColumnName));
+                // A value listed twice in one cell ("Red; Red") is stored once
+                childRelations.add(new DecomposedRelation(relationName, builder.build().distinct(), primaryKeys, foreignKeys));
+                System.out.println("Child Relation: " + relationName + " created for the multivalue column " + originalColumnName + ".");
+            }
+        }
+        return childRelations;
+    }
+}
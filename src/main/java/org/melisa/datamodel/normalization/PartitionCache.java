@@ -0,0 +1,151 @@
+package org.melisa.datamodel.normalization;
+
+import org.melisa.datamodel.model.Relation;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stripped partitions of one relation, shared by all dependency analyses that run on it
+ * (candidate key discovery and functional dependency discovery).
+ *
+ * The partition of every attribute is computed once, with a single scan of its column.
+ * Partitions of attribute sets (bit masks over {@link #attributes()}) that one analysis computes
+ * are remembered, so the next analysis can reuse them instead of intersecting again.
+ * The cache is bounded by the number of row references it holds; once the budget is used up,
+ * further partitions are simply not remembered.
+ */
+public class PartitionCache {
+
+    // Default budget: about 200 MB of row references
+    private static final long DEFAULT_MAX_CACHED_ROW_REFERENCES = 50_000_000L;
+
+    private final List<String> attributes;
+    private final int rowCount;
+    private final StrippedPartition[] columnPartitions;
+    private final StrippedPartition emptySetPartition;
+    private final Map<Long, StrippedPartition> attributeSetPartitions = new ConcurrentHashMap<>();
+    private final AtomicLong cachedRowReferences = new AtomicLong();
+    private final long maxCachedRowReferences;
+
+    /**
+     * Computes the single-attribute partitions of the given attributes.
+     *
+     * @param relation   The relation to analyse.
+     * @param attributes The attributes to analyse, their position defines the bit in attribute set masks (at most 64).
+     * @throws IllegalArgumentException If there are more than 64 attributes or an attribute does not exist.
+     */
+    public PartitionCache(Relation relation, List<String> attributes) {
+        this(relation, attributes, DEFAULT_MAX_CACHED_ROW_REFERENCES);
+    }
+
+    /**
+     * @param relation               The relation to analyse.
+     * @param attributes             The attributes to analyse (at most 64).
+     * @param maxCachedRowReferences Budget for remembered multi-attribute partitions.
+     */
+    public PartitionCache(Relation relation, List<String> attributes, long maxCachedRowReferences) {
+        if (attributes.size() > Long.SIZE) {
+            throw new IllegalArgumentException("Dependency analysis supports at most " + Long.SIZE
+                    + " attributes, but the relation has " + attributes.size() + ".");
+        }
+        this.attributes = List.copyOf(attributes);
+        this.rowCount = relation.rowCount();
+        this.maxCachedRowReferences = maxCachedRowReferences;
+        this.emptySetPartition = StrippedPartition.ofAllRows(rowCount);
+        this.columnPartitions = new StrippedPartition[attributes.size()];
+        for (int i = 0; i < columnPartitions.length; i++) {
+            int column = relation.columnIndex(attributes.get(i));
+            if (column < 0) {
+                throw new IllegalArgumentException("Unknown attribute: " + attributes.get(i));
+            }
+            columnPartitions[i] = StrippedPartition.fromValueCodes(relation.valueCodes(column));
+        }
+    }
+
+    public List<String> attributes() {
+        return attributes;
+    }
+
+    public int attributeCount() {
+        return attributes.size();
+    }
+
+    public int rowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return The partition of the single attribute at the given position.
+     */
+    public StrippedPartition columnPartition(int attribute) {
+        return columnPartitions[attribute];
+    }
+
+    /**
+     * Returns the partition of an attribute set if it is known (single attributes, the empty set,
+     * or a set whose partition was remembered).
+     *
+     * @param attributeSet Bit mask over {@link #attributes()}.
+     * @return The partition, or null if it has not been computed yet.
+     */
+    public StrippedPartition find(long attributeSet) {
+        if (attributeSet == 0) {
+            return emptySetPartition;
+        }
+        if (Long.bitCount(attributeSet) == 1) {
+            return columnPartitions[Long.numberOfTrailingZeros(attributeSet)];
+        }
+        return attributeSetPartitions.get(attributeSet);
+    }
+
+    /**
+     * Returns the partition of an attribute set, computing (and remembering) missing partitions
+     * by intersecting the partition of the set without its highest attribute with that attribute.
+     *
+     * @param attributeSet Bit mask over {@link #attributes()}.
+     * @param probeTable   Scratch array for the intersection (one entry per row, filled with -1).
+     * @return The partition of the attribute set.
+     */
+    public StrippedPartition partition(long attributeSet, int[] probeTable) {
+        StrippedPartition known = find(attributeSet);
+        if (known != null) {
+            return known;
+        }
+        long highestAttribute = Long.highestOneBit(attributeSet);
+        StrippedPartition partition = partition(attributeSet & ~highestAttribute, probeTable)
+                .intersect(columnPartitions[Long.numberOfTrailingZeros(highestAttribute)], probeTable);
+        remember(attributeSet, partition);
+        return partition;
+    }
+
+    /**
+     * Remembers a partition that a caller computed itself, if the budget allows it.
+     *
+     * @param attributeSet Bit mask over {@link #attributes()}.
+     * @param partition    The partition of that attribute set.
+     */
+    public void remember(long attributeSet, StrippedPartition partition) {
+        if (Long.bitCount(attributeSet) < 2 || attributeSetPartitions.containsKey(attributeSet)) {
+            return;
+        }
+        if (cachedRowReferences.addAndGet(partition.size()) > maxCachedRowReferences) {
+            cachedRowReferences.addAndGet(-partition.size());
+            return;
+        }
+        if (attributeSetPartitions.putIfAbsent(attributeSet, partition) != null) {
+            cachedRowReferences.addAndGet(-partition.size());
+        }
+    }
+
+    /**
+     * @return A new probe table for {@link #partition(long, int[])}.
+     */
+    public int[] newProbeTable() {
+        int[] probeTable = new int[rowCount];
+        java.util.Arrays.fill(probeTable, -1);
+        return probeTable;
+    }
+}
@@ -0,0 +1,144 @@
+package org.melisa.datamodel.normalization;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits how many rows the row-splitting heuristics may generate, so one pathological cell
+ * (or a row with several long delimited lists) cannot exhaust the memory of the job.
+ *
+ * A raw row whose delimited columns have 50, 50 and 50 values expands to the Cartesian product of
+ * 125,000 rows. The budget caps this product per raw row, and optionally the number of rows generated
+ * by a whole pass over the data. A capped row keeps the first combinations of the product (in the order
+ * of the values in the cells) and drops the rest; every raw row still produces at least one row.
+ *
+ * The global budget applies to each pass over the data separately, so all passes (e.g. column planning
+ * and the full pass) see the same rows. The capped and dropped rows are only counted on the passes that
+ * produce output rows, not on planning passes that read a sample of the rows ahead of them.
+ * A budget may be shared by several passes and is safe to use from multiple threads.
+ */
+public class RowExpansionBudget {
+
+    // Default maximum number of rows one raw row may expand to
+    private static final long DEFAULT_MAX_ROWS_PER_ROW = 10_000;
+
+    private final long maxRowsPerRow;
+    private final long maxRowsTotal;
+    private final LongAdder cappedRows = new LongAdder();
+    private final LongAdder droppedRows = new LongAdder();
+
+    /**
+     * Creates a budget of 10,000 rows per raw row and no global limit.
+     */
+    public RowExpansionBudget() {
+        this(DEFAULT_MAX_ROWS_PER_ROW, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param maxRowsPerRow The number of rows one raw row may expand to.
+     * @param maxRowsTotal  The number of rows row splitting may generate in one pass over the data.
+     * @throws IllegalArgumentException If one of the limits is smaller than 1.
+     */
+    public RowExpansionBudget(long maxRowsPerRow, long maxRowsTotal) {
+        if (maxRowsPerRow < 1 || maxRowsTotal < 1) {
+            throw new IllegalArgumentException("The row expansion limits must be at least 1, but were "
+                    + maxRowsPerRow + " per row and " + maxRowsTotal + " in total.");
+        }
+        this.maxRowsPerRow = maxRowsPerRow;
+        this.maxRowsTotal = maxRowsTotal;
+    }
+
+    /**
+     * @return A budget that never caps the Cartesian product.
+     */
+    public static RowExpansionBudget unlimited() {
+        return new RowExpansionBudget(Long.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * @return The number of rows one raw row may expand to.
+     */
+    public long maxRowsPerRow() {
+        return maxRowsPerRow;
+    }
+
+    /**
+     * @return The number of rows row splitting may generate in one pass over the data.
+     */
+    public long maxRowsTotal() {
+        return maxRowsTotal;
+    }
+
+    /**
+     * Starts the accounting for a new pass over the data that produces output rows.
+     *
+     * @return The state of the global budget for this pass.
+     */
+    Pass startPass() {
+        return startPass(true);
+    }
+
+    /**
+     * Starts the accounting for a new pass over the data.
+     *
+     * @param counted true if the capped and dropped rows of the pass are added to the statistics,
+     *                false for a planning pass whose rows are read again by the pass producing the output.
+     * @return The state of the global budget for this pass.
+     */
+    Pass startPass(boolean counted) {
+        return new Pass(counted);
+    }
+
+    /**
+     * The rows left of the global budget during one pass.
+     */
+    final class Pass {
+
+        private final AtomicLong remainingRows = new AtomicLong(maxRowsTotal);
+        private final boolean counted;
+
+        private Pass(boolean counted) {
+            this.counted = counted;
+        }
+
+        /**
+         * Reserves the rows for one raw row.
+         *
+         * @param productSize The size of the full Cartesian product of the row (saturated at Long.MAX_VALUE).
+         * @return The number of rows the raw row may expand to, between 1 and productSize (0 for an empty product).
+         */
+        long allowance(long productSize) {
+            if (productSize == 0) {
+                return 0;
+            }
+            long wanted = Math.min(productSize, maxRowsPerRow);
+            // Every raw row produces at least one row, even when the global budget is exhausted
+            long granted = Math.max(1, Math.min(wanted, remainingRows.getAndAccumulate(wanted,
+                    (remaining, requested) -> Math.max(0, remaining - requested))));
+            if (counted && granted < productSize) {
+                cappedRows.increment();
+                droppedRows.add(productSize - granted);
+            }
+            return granted;
+        }
+    }
+
+    /**
+     * @return The number of raw rows whose Cartesian product was capped on the counted passes.
+     */
+    public long cappedRows() {
+        return cappedRows.sum();
+    }
+
+    /**
+     * @return The number of product rows that were not generated because of the budget on the counted passes.
+     */
+    public long droppedRows() {
+        return droppedRows.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d raw rows capped, %d rows dropped", cappedRows(), droppedRows());
+    }
+}
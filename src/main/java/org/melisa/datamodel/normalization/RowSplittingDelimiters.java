@@ -0,0 +1,82 @@
+package org.melisa.datamodel.normalization;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits multivalue cells ("red;blue", "alpha|beta", "item1\nitem2", "green, yellow") with a single scan
+ * over the characters instead of a regular expression.
+ *
+ * The delimiters are semicolons, pipes, line feeds, carriage returns and commas that are NOT followed by
+ * a digit (so "1,5" stays a decimal number). The result is exactly that of
+ * {@code value.split(";|\\||\\n|\\r|,(?!\\d)")} with every part trimmed: "a\r\nb" has an empty part
+ * between the two line break characters, and empty parts at the end are dropped.
+ */
+final class RowSplittingDelimiters {
+
+    private RowSplittingDelimiters() {
+    }
+
+    /**
+     * @param text     The text to check.
+     * @param position A position within the text.
+     * @return true if the character at the position is a delimiter.
+     */
+    static boolean isDelimiter(String text, int position) {
+        return switch (text.charAt(position)) {
+            case ';', '|', '\n', '\r' -> true;
+            case ',' -> position + 1 == text.length() || !isDigit(text.charAt(position + 1));
+            default -> false;
+        };
+    }
+
+    /**
+     * Splits a (trimmed) cell value at its delimiters.
+     *
+     * @param text The cell value.
+     * @return The trimmed parts, or null if the value contains no delimiter.
+     */
+    static List<String> split(String text) {
+        int length = text.length();
+        int delimiter = 0;
+        while (delimiter < length && !isDelimiter(text, delimiter)) {
+            delimiter++;
+        }
+        if (delimiter == length) {
+            return null; // Single value, nothing allocated
+        }
+
+        List<String> parts = new ArrayList<>();
+        int emptyParts = 0; // Empty parts are only kept if a non-empty part follows them
+        int partStart = 0;
+        for (int position = delimiter; position <= length; position++) {
+            if (position < length && !isDelimiter(text, position)) {
+                continue;
+            }
+            if (position == partStart) {
+                emptyParts++;
+            } else {
+                for (; emptyParts > 0; emptyParts--) {
+                    parts.add("");
+                }
+                parts.add(trimmedPart(text, partStart, position));
+            }
+            partStart = position + 1;
+        }
+        return parts;
+    }
+
+    private static String trimmedPart(String text, int start, int end) {
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return text.substring(start, end);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
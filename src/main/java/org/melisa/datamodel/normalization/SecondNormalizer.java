@@ -2,6 +2,7 @@ package org.melisa.datamodel.normalization;
 
 import org.melisa.datamodel.io.SqlGenerator;
 import org.melisa.datamodel.model.DecomposedRelation;
+import org.melisa.datamodel.model.Relation;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -46,9 +47,13 @@ public class SecondNormalizer {
             return Collections.emptyList();
         }
 
+        // The partitions are computed once and shared by key and dependency discovery
+        Relation inputRelation = Relation.of(input1NFData);
+        PartitionCache partitions = new PartitionCache(inputRelation, new ArrayList<>(input1NFData.get(0).keySet()));
+
         // Step 1: Synthesize the Primary/Candidate Key.
         CandidateKeyIdentifier identifier = new CandidateKeyIdentifier();
-        Set<Set<String>> allCandidateKeys = identifier.identifyAllCandidateKeys(input1NFData);
+        Set<Set<String>> allCandidateKeys = identifier.identifyAllCandidateKeys(partitions);
 
         Set<String> candidateKey = selectKeyFor2NFDecomposition(allCandidateKeys);
 
@@ -68,17 +73,22 @@ public class SecondNormalizer {
 
         // Step 2: Identify and Decompose Partial Dependencies.
         // Pass the base name down so the decomposer can build correct FK references.
-        return decomposeForPartialDependencies(input1NFData, candidateKey, sqlTableNameBase); // <-- UPDATED CALL
+        return decomposeForPartialDependencies(inputRelation, partitions, allCandidateKeys, candidateKey, sqlTableNameBase);
     }
 
     /**
      * Selects the most appropriate Candidate Key for 2NF decomposition.
-     * Prefers a composite key (size > 1) as 2NF is only relevant for them.
+     * Prefers a composite key (size > 1) as 2NF is only relevant for them. The surrogate key of rows whose
+     * multivalue columns were moved into child relations is always selected, the child relations reference it.
+     * (Partial dependencies are checked against all candidate keys, so the selection does not change the decomposition.)
      */
     private Set<String> selectKeyFor2NFDecomposition(Set<Set<String>> allCandidateKeys) {
         if (allCandidateKeys.isEmpty()) {
             return Collections.emptySet();
         }
+        if (allCandidateKeys.contains(Set.of(FirstNormalizer.ROW_ID_COLUMN))) {
+            return Set.of(FirstNormalizer.ROW_ID_COLUMN);
+        }
 
         // 1. Try to find the smallest composite key (size > 1)
         Set<String> smallestCompositeKey = allCandidateKeys.stream()
@@ -100,184 +110,113 @@ public class SecondNormalizer {
      * Performs the relational decomposition to eliminate partial dependencies,
      * and correctly identifies the Primary Key (PK) and Foreign Key (FK) for each new relation.
      *
-     * @param input1NFData The input relation (List of Maps).
-     * @param candidateKey The identified composite primary key (e.g., [MiNr, ProNr]).
+     * All minimal functional dependencies with a determinant smaller than the largest key are discovered
+     * in one run. A partial dependency X → A holds when X is a proper, non-empty subset of any candidate key
+     * and A is a non-prime attribute (part of no candidate key). Every non-prime attribute moves to the
+     * relation of its smallest such determinant; attributes sharing a determinant share one relation.
+     *
+     * @param inputRelation    The input relation.
+     * @param partitions       The partitions of the input relation (already filled by key discovery).
+     * @param allCandidateKeys All minimal candidate keys of the input relation.
+     * @param candidateKey     The selected primary key (e.g., [MiNr, ProNr]).
      * @param sqlTableNameBase The SQL-sanitized base name (e.g., "SHOP") to build FK references.
      * @return A list of new, decomposed relations with metadata.
      */
     private List<DecomposedRelation> decomposeForPartialDependencies(
-            List<Map<String, Object>> input1NFData,
+            Relation inputRelation,
+            PartitionCache partitions,
+            Set<Set<String>> allCandidateKeys,
             Set<String> candidateKey,
-            String sqlTableNameBase) { // <-- UPDATED SIGNATURE
+            String sqlTableNameBase) {
 
         List<DecomposedRelation> normalizedRelations = new ArrayList<>();
+        final String sqlMainRelationName = toSqlIdentifier(sqlTableNameBase + "_" + MAIN_RELATION_NAME);
 
         // Sanitize the candidate key column names *once* for consistency.
-        List<String> sqlCandidateKey = candidateKey.stream()
-                .map(this::toSqlIdentifier)
-                .collect(Collectors.toList());
+        List<String> sqlCandidateKey = toSqlIdentifiers(candidateKey);
 
-        // If the key is not composite (single column), the relation is automatically in 2NF.
-        if (sqlCandidateKey.size() <= 1) {
-            // *** UPDATE: Use prefixed name for the relation ***
-            String relationName = sqlTableNameBase + "_" + toSqlIdentifier(MAIN_RELATION_NAME);
-            normalizedRelations.add(new DecomposedRelation(relationName, input1NFData, sqlCandidateKey, Collections.emptyMap()));
+        // If every key is a single column, the relation is automatically in 2NF.
+        int largestKeySize = allCandidateKeys.stream().mapToInt(Set::size).max().orElse(0);
+        if (largestKeySize <= 1) {
+            normalizedRelations.add(new DecomposedRelation(sqlMainRelationName, inputRelation, sqlCandidateKey, Collections.emptyMap()));
             return normalizedRelations;
         }
 
-        // --- SIMPLIFIED 2NF HEURISTIC ---
-        // We select the first column of the composite key as the determinant.
-        final String partialDeterminant = sqlCandidateKey.get(0);
-
-        // Find the original (non-sanitized) name for the determinant
-        String originalDeterminantTemp = null; // Use a temporary variable
-        for(String key : candidateKey) {
-            if(toSqlIdentifier(key).equals(partialDeterminant)) {
-                originalDeterminantTemp = key;
-                break;
-            }
-        }
-
-        // *** FIX: Assign to a final variable ***
-        final String originalDeterminant = originalDeterminantTemp;
-
-        if (originalDeterminant == null) {
-            System.err.println("Could not find original determinant name.");
-            // Handle error: return non-decomposed data
-            // *** UPDATE: Use prefixed name for the relation ***
-            String relationName = sqlTableNameBase + "_" + toSqlIdentifier(MAIN_RELATION_NAME);
-            normalizedRelations.add(new DecomposedRelation(relationName, input1NFData, sqlCandidateKey, Collections.emptyMap()));
-            return normalizedRelations;
-        }
+        Set<String> primeAttributes = new HashSet<>();
+        allCandidateKeys.forEach(primeAttributes::addAll);
 
+        // Only determinants smaller than a key can be partial, so the lattice walk stops below the largest key
+        List<FunctionalDependency> dependencies =
+                new FunctionalDependencyDiscoverer(largestKeySize - 1).discover(partitions);
 
-        String dependentAttrTemp = null;
-        for (String column : input1NFData.get(0).keySet()) {
-            if (!candidateKey.contains(column)) { // Check against original, non-sanitized key set
-                // Check if it's determined only by the first part of the key
-                if (isPartiallyDependent(input1NFData, originalDeterminant, column)) {
-                    dependentAttrTemp = column;
-                    break;
-                }
+        // Group the non-prime attributes by their partial determinant (dependencies are ordered by determinant size)
+        Map<Set<String>, List<String>> dependentsByDeterminant = new LinkedHashMap<>();
+        for (String attribute : partitions.attributes()) {
+            if (primeAttributes.contains(attribute)) {
+                continue;
             }
+            dependencies.stream()
+                    .filter(dependency -> dependency.dependent().equals(attribute))
+                    .filter(dependency -> isPartialDeterminant(dependency.determinant(), allCandidateKeys))
+                    .findFirst()
+                    .ifPresent(dependency -> dependentsByDeterminant
+                            .computeIfAbsent(dependency.determinant(), key -> new ArrayList<>())
+                            .add(attribute));
         }
 
-        // *** FIX: Assign to a final variable ***
-        final String partiallyDependentAttribute = dependentAttrTemp;
-
-        if (partiallyDependentAttribute == null) {
-            // No partial dependencies found/simulated, relation is 2NF.
-            // *** UPDATE: Use prefixed name for the relation ***
-            String relationName = sqlTableNameBase + "_" + toSqlIdentifier(MAIN_RELATION_NAME);
-            normalizedRelations.add(new DecomposedRelation(relationName, input1NFData, sqlCandidateKey, Collections.emptyMap()));
+        if (dependentsByDeterminant.isEmpty()) {
+            // No partial dependencies found, relation is 2NF.
+            normalizedRelations.add(new DecomposedRelation(sqlMainRelationName, inputRelation, sqlCandidateKey, Collections.emptyMap()));
             return normalizedRelations;
         }
 
         // --- DECOMPOSITION EXECUTION & KEY ASSIGNMENT ---
+        // The projections share the column storage of the input, only the details relations are compacted by distinct()
+        List<String> residualColumns = new ArrayList<>(inputRelation.columnNames());
+        Map<String, String> residualFKs = new LinkedHashMap<>();
 
-        // Relation 1: The partially dependent relation (e.g., ProNr_Details or Worker_Details)
-        final String detailsRelationInternalName = partialDeterminant + "_Details";
-        // *** FIX: Create the full, prefixed SQL name ***
-        final String sqlDetailsRelationName = toSqlIdentifier(sqlTableNameBase + "_" + detailsRelationInternalName);
-        final String sqlPartiallyDependentAttribute = toSqlIdentifier(partiallyDependentAttribute);
-
-        // Find the original (non-sanitized) name for the dependent attribute
-        String originalDependentAttributeTemp = null; // Use a temporary variable
-        for(String key : input1NFData.get(0).keySet()) {
-            if(toSqlIdentifier(key).equals(sqlPartiallyDependentAttribute)) {
-                originalDependentAttributeTemp = key;
-                break;
-            }
-        }
-
-        // *** FIX: Assign to a final variable ***
-        final String originalDependentAttribute = originalDependentAttributeTemp;
+        for (Map.Entry<Set<String>, List<String>> group : dependentsByDeterminant.entrySet()) {
+            List<String> sqlDeterminant = toSqlIdentifiers(group.getKey());
 
-        // *** UPDATED BLOCK: Add explicit error handling ***
-        if (originalDependentAttribute == null) {
-            // This indicates a critical internal error if it ever happens.
-            System.err.println("Critical Error: Could not map sanitized dependent attribute back to original.");
-            // Abort decomposition and return the original 2NF data safely.
-            String relationName = sqlTableNameBase + "_" + toSqlIdentifier(MAIN_RELATION_NAME);
-            normalizedRelations.add(new DecomposedRelation(relationName, input1NFData, sqlCandidateKey, Collections.emptyMap()));
-            return normalizedRelations;
-        }
-
-
-        List<Map<String, Object>> r1Data = input1NFData.stream()
-                .map(row -> {
-                    Map<String, Object> newRow = new LinkedHashMap<>();
-                    // *** FIX: Use final variables inside lambda ***
-                    newRow.put(originalDeterminant, row.get(originalDeterminant));
-                    newRow.put(originalDependentAttribute, row.get(originalDependentAttribute));
-                    return newRow;
-                })
-                .distinct() // Remove redundant rows
-                .collect(Collectors.toList());
-
-        // R1 KEYS: PK is the determinant.
-        List<String> r1PK = List.of(partialDeterminant); // Already sanitized
-        Map<String, String> r1FKs = Collections.emptyMap();
-
-        // *** UPDATE: Use the full prefixed SQL name ***
-        normalizedRelations.add(new DecomposedRelation(sqlDetailsRelationName, r1Data, r1PK, r1FKs));
-        System.out.println("Decomposed Relation: " + detailsRelationInternalName + " created.");
-
-
-        // Relation 2: The residual relation (org.melisa.datamodel.Main Relation)
-        // *** UPDATE: Use the full prefixed SQL name ***
-        final String sqlMainRelationName = toSqlIdentifier(sqlTableNameBase + "_" + MAIN_RELATION_NAME);
+            // Relation 1..n: one relation per partial determinant (e.g., ProNr_Details or Worker_Details)
+            final String detailsRelationInternalName = String.join("_", sqlDeterminant) + "_Details";
+            final String sqlDetailsRelationName = toSqlIdentifier(sqlTableNameBase + "_" + detailsRelationInternalName);
 
-        List<Map<String, Object>> residualData = input1NFData.stream()
-                .map(row -> {
-                    Map<String, Object> newRow = new LinkedHashMap<>(row);
-                    // *** FIX: Use final variable inside lambda ***
-                    newRow.remove(originalDependentAttribute); // Eliminate redundancy
-                    return newRow;
-                })
-                .collect(Collectors.toList());
+            List<String> detailsColumns = new ArrayList<>(group.getKey());
+            detailsColumns.addAll(group.getValue());
+            Relation detailsData = inputRelation.project(detailsColumns).distinct(); // Remove redundant rows
 
-        // R2 KEYS: PK is the original composite key.
-        List<String> r2PK = sqlCandidateKey; // Already sanitized
+            // PK is the determinant, the residual relation references it.
+            normalizedRelations.add(new DecomposedRelation(sqlDetailsRelationName, detailsData, sqlDeterminant, Collections.emptyMap()));
+            System.out.println("Decomposed Relation: " + detailsRelationInternalName + " created for "
+                    + group.getKey() + " -> " + group.getValue() + ".");
 
-        // *** THE FIX IS HERE ***
-        // Build the full, correct reference string using the prefixed name.
-        Map<String, String> r2FKs = Map.of(
-                partialDeterminant, // The FK column (e.g., "SIZE")
-                sqlDetailsRelationName + "(" + partialDeterminant + ")" // The reference (e.g., "SHOP_SIZE_DETAILS(SIZE)")
-        );
+            String fkColumns = String.join(", ", sqlDeterminant);
+            residualFKs.put(fkColumns, sqlDetailsRelationName + "(" + fkColumns + ")");
+            residualColumns.removeAll(group.getValue()); // Eliminate redundancy
+        }
 
-        // *** UPDATE: Use the full prefixed SQL name ***
-        normalizedRelations.add(new DecomposedRelation(sqlMainRelationName, residualData, r2PK, r2FKs));
+        // Relation n+1: The residual relation (org.melisa.datamodel.Main Relation), PK is the selected candidate key.
+        Relation residualData = inputRelation.project(residualColumns);
+        normalizedRelations.add(new DecomposedRelation(sqlMainRelationName, residualData, sqlCandidateKey, residualFKs));
 
         return normalizedRelations;
     }
 
     /**
-     * Simplified heuristic to detect partial dependency.
-     * Checks if attribute 'dependentAttr' is functionally dependent on 'determinant'.
+     * A determinant makes a dependency partial if it is a proper, non-empty subset of some candidate key.
      */
-    private boolean isPartiallyDependent(List<Map<String, Object>> data, String determinant, String dependentAttr) {
-        Map<Object, Object> checkMap = new HashMap<>();
-
-        for (Map<String, Object> row : data) {
-            Object determinantValue = row.get(determinant);
-            Object dependentValue = row.get(dependentAttr);
-
-            if (checkMap.containsKey(determinantValue)) {
-                // If a determinant value already exists, check if the dependent value is consistent
-                // *** FIX: Use Objects.equals() to safely handle potential null values ***
-                if (!Objects.equals(checkMap.get(determinantValue), dependentValue)) {
-                    // Inconsistency found: Not a functional dependency.
-                    return false;
-                }
-            } else {
-                checkMap.put(determinantValue, dependentValue);
-            }
+    private boolean isPartialDeterminant(Set<String> determinant, Set<Set<String>> allCandidateKeys) {
+        if (determinant.isEmpty()) {
+            return false; // Constant columns stay where they are
         }
-        // If the loop completes without inconsistencies, it's a functional dependency.
-        // We also check that the determinant wasn't just null for the whole table.
-        return checkMap.keySet().stream().anyMatch(Objects::nonNull);
+        return allCandidateKeys.stream()
+                .anyMatch(key -> key.size() > determinant.size() && key.containsAll(determinant));
     }
-}
 
+    private List<String> toSqlIdentifiers(Collection<String> columns) {
+        return columns.stream()
+                .map(this::toSqlIdentifier)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,191 @@
+package org.melisa.datamodel.normalization;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A stripped partition (as used by the TANE algorithm) of the rows of a relation with respect to a set of attributes.
+ * Rows that agree on all attributes of the set form an equivalence class. Classes with a single row are
+ * "stripped", because such a row is already unique and can never cause a duplicate again.
+ *
+ * This gives two cheap checks without looking at the data again:
+ * <ul>
+ *     <li>An attribute set is a Superkey exactly when its stripped partition has no classes left.</li>
+ *     <li>The partition of X ∪ Y is the intersection (product) of the partitions of X and Y.</li>
+ * </ul>
+ */
+public final class StrippedPartition {
+
+    private final int[][] equivalenceClasses;
+    private final int rowCount;
+    private final int errorCount;
+
+    private StrippedPartition(int[][] equivalenceClasses, int rowCount) {
+        this.equivalenceClasses = equivalenceClasses;
+        this.rowCount = rowCount;
+        int rowsInClasses = 0;
+        for (int[] equivalenceClass : equivalenceClasses) {
+            rowsInClasses += equivalenceClass.length;
+        }
+        // Number of rows that would have to be removed to make the attribute set unique
+        this.errorCount = rowsInClasses - equivalenceClasses.length;
+    }
+
+    /**
+     * Builds the stripped partition of a single column from its value codes (one scan of the column).
+     *
+     * @param valueCodes One code per row, equal codes mean equal values (see Relation.valueCodes).
+     * @return The stripped partition of the column.
+     */
+    public static StrippedPartition fromValueCodes(int[] valueCodes) {
+        int maxCode = -1;
+        for (int code : valueCodes) {
+            maxCode = Math.max(maxCode, code);
+        }
+
+        // Count the rows per value, then place the rows of every repeated value into its class
+        int[] occurrences = new int[maxCode + 1];
+        for (int code : valueCodes) {
+            occurrences[code]++;
+        }
+        int[][] classesByCode = new int[maxCode + 1][];
+        int[] filled = new int[maxCode + 1];
+        List<int[]> equivalenceClasses = new ArrayList<>();
+        for (int row = 0; row < valueCodes.length; row++) {
+            int code = valueCodes[row];
+            if (occurrences[code] < 2) {
+                continue; // Unique value, stripped
+            }
+            if (classesByCode[code] == null) {
+                classesByCode[code] = new int[occurrences[code]];
+                equivalenceClasses.add(classesByCode[code]);
+            }
+            classesByCode[code][filled[code]++] = row;
+        }
+        return new StrippedPartition(equivalenceClasses.toArray(new int[0][]), valueCodes.length);
+    }
+
+    /**
+     * Partition of the empty attribute set: all rows agree, so they form a single class.
+     *
+     * @param rowCount The number of rows of the relation.
+     * @return The stripped partition of the empty attribute set.
+     */
+    public static StrippedPartition ofAllRows(int rowCount) {
+        if (rowCount < 2) {
+            return new StrippedPartition(new int[0][], rowCount);
+        }
+        int[] allRows = new int[rowCount];
+        Arrays.setAll(allRows, row -> row);
+        return new StrippedPartition(new int[][]{allRows}, rowCount);
+    }
+
+    /**
+     * Computes the partition of the union of both attribute sets.
+     *
+     * @param other The partition of the other attribute set (over the same rows).
+     * @return The stripped partition of the union.
+     */
+    public StrippedPartition intersect(StrippedPartition other) {
+        int[] probeTable = new int[rowCount];
+        Arrays.fill(probeTable, -1);
+        return intersect(other, probeTable);
+    }
+
+    /**
+     * Computes the partition of the union of both attribute sets, reusing a caller owned probe table.
+     *
+     * @param other      The partition of the other attribute set (over the same rows).
+     * @param probeTable Scratch array with one entry per row, filled with -1. It is left filled with -1 again.
+     * @return The stripped partition of the union.
+     */
+    public StrippedPartition intersect(StrippedPartition other, int[] probeTable) {
+        if (isUnique() || other.isUnique()) {
+            return new StrippedPartition(new int[0][], rowCount);
+        }
+
+        // Remember the class of every row of this partition, and reserve one bucket per class
+        int[] bucketOffsets = new int[equivalenceClasses.length];
+        int bucketSpace = 0;
+        for (int i = 0; i < equivalenceClasses.length; i++) {
+            bucketOffsets[i] = bucketSpace;
+            bucketSpace += equivalenceClasses[i].length;
+            for (int row : equivalenceClasses[i]) {
+                probeTable[row] = i;
+            }
+        }
+        int[] buckets = new int[bucketSpace];
+        int[] bucketSizes = new int[equivalenceClasses.length];
+
+        // Rows of one class of 'other' that also share a class of 'this' form a class of the product
+        List<int[]> productClasses = new ArrayList<>();
+        int[] touchedBuckets = new int[Math.min(bucketSizes.length, maxClassSize(other))];
+        for (int[] otherClass : other.equivalenceClasses) {
+            int touched = 0;
+            for (int row : otherClass) {
+                int bucket = probeTable[row];
+                if (bucket < 0) {
+                    continue; // Unique in 'this', so unique in the product as well
+                }
+                if (bucketSizes[bucket] == 0) {
+                    touchedBuckets[touched++] = bucket;
+                }
+                buckets[bucketOffsets[bucket] + bucketSizes[bucket]++] = row;
+            }
+            for (int i = 0; i < touched; i++) {
+                int bucket = touchedBuckets[i];
+                if (bucketSizes[bucket] >= 2) {
+                    int start = bucketOffsets[bucket];
+                    productClasses.add(Arrays.copyOfRange(buckets, start, start + bucketSizes[bucket]));
+                }
+                bucketSizes[bucket] = 0;
+            }
+        }
+
+        // Leave the probe table clean for the next caller
+        for (int[] equivalenceClass : equivalenceClasses) {
+            for (int row : equivalenceClass) {
+                probeTable[row] = -1;
+            }
+        }
+        return new StrippedPartition(productClasses.toArray(new int[0][]), rowCount);
+    }
+
+    private static int maxClassSize(StrippedPartition partition) {
+        int max = 0;
+        for (int[] equivalenceClass : partition.equivalenceClasses) {
+            max = Math.max(max, equivalenceClass.length);
+        }
+        return max;
+    }
+
+    /**
+     * @return true if no two rows agree on the attribute set, i.e. the attribute set is a Superkey.
+     */
+    public boolean isUnique() {
+        return equivalenceClasses.length == 0;
+    }
+
+    /**
+     * @return The number of rows minus the number of classes (stripped rows included). Two attribute sets
+     * X ⊆ Y have equal error counts exactly when X functionally determines Y.
+     */
+    public int errorCount() {
+        return errorCount;
+    }
+
+    /**
+     * @return The number of row references held by this partition (rows in non-stripped classes).
+     */
+    public int size() {
+        return errorCount + equivalenceClasses.length;
+    }
+
+    /**
+     * @return The number of rows of the underlying relation.
+     */
+    public int rowCount() {
+        return rowCount;
+    }
+}
@@ -0,0 +1,252 @@
+package org.melisa.datamodel.normalization;
+
+import org.melisa.datamodel.io.SqlGenerator;
+import org.melisa.datamodel.model.DecomposedRelation;
+import org.melisa.datamodel.model.Relation;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * org.melisa.datamodel.normalization.ThirdNormalizer transforms a dataset from First Normal Form (1NF)
+ * directly into Third Normal Form (3NF) with the synthesis algorithm (Bernstein):
+ * <ol>
+ *     <li>Discover all minimal functional dependencies and candidate keys (shared stripped partitions).</li>
+ *     <li>Compute a canonical cover: the discovered dependencies are already left-reduced with a single
+ *     attribute on the right, so only redundant dependencies (implied by the others) are removed.</li>
+ *     <li>Create one relation per determinant, holding the determinant and everything it determines.
+ *     Equivalent determinants are merged into one relation.</li>
+ *     <li>Add a relation for the selected candidate key if no relation contains a key,
+ *     and drop relations whose attributes are contained in another relation.</li>
+ * </ol>
+ * The synthesized decomposition is lossless and dependency preserving.
+ *
+ * Only the dependency discovery (partition products) and the final projections touch the rows, both are
+ * linear in the row count; the cover and the synthesis only work on attribute bit masks.
+ */
+public class ThirdNormalizer {
+
+    // The internal, non-prefixed name for the relation holding the selected candidate key.
+    private static final String MAIN_RELATION_NAME = "MainRelation";
+
+    private String toSqlIdentifier(String name) {
+        return SqlGenerator.toSqlIdentifier(name);
+    }
+
+    /**
+     * Public interface to begin the 3NF normalization process.
+     *
+     * @param input1NFData  The list of maps representing the data that is already in 1NF.
+     * @param tableNameBase The user-provided base name (e.g., "shop") used for prefixing.
+     * @return The synthesized relations with PK/FK metadata. Referenced relations come before the
+     * relations referencing them, the relation holding the selected candidate key comes last.
+     */
+    public List<DecomposedRelation> normalizeTo3NF(List<Map<String, Object>> input1NFData, String tableNameBase) {
+        if (input1NFData == null || input1NFData.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Relation inputRelation = Relation.of(input1NFData);
+        PartitionCache partitions = new PartitionCache(inputRelation, new ArrayList<>(input1NFData.get(0).keySet()));
+        List<String> attributeList = partitions.attributes();
+        final String sqlTableNameBase = toSqlIdentifier(tableNameBase);
+        final String sqlMainRelationName = toSqlIdentifier(sqlTableNameBase + "_" + MAIN_RELATION_NAME);
+
+        // Step 1: Keys and dependencies, on the same partitions.
+        Set<Set<String>> allCandidateKeys = new CandidateKeyIdentifier().identifyAllCandidateKeys(partitions);
+        if (allCandidateKeys.isEmpty()) {
+            // Duplicate rows: there is no key, so there is nothing to reference
+            System.err.println("Error: No Candidate Key could be identified for the relation. Returning original data as MainRelation.");
+            return List.of(new DecomposedRelation(sqlMainRelationName, input1NFData, Collections.emptyList(), Collections.emptyMap()));
+        }
+        // The surrogate key of rows with child relations is referenced by them, so it is preferred
+        long candidateKey = toMask(allCandidateKeys.contains(Set.of(FirstNormalizer.ROW_ID_COLUMN))
+                ? Set.of(FirstNormalizer.ROW_ID_COLUMN)
+                : allCandidateKeys.stream().min(Comparator.comparingInt(Set::size)).orElseThrow(), attributeList);
+        System.out.println("Selected Candidate Key for 3NF: " + toAttributeNames(candidateKey, attributeList));
+
+        List<FunctionalDependency> dependencies = new FunctionalDependencyDiscoverer().discover(partitions);
+
+        // Step 2: Canonical cover. Constant columns (empty determinant) are kept with the key instead.
+        List<long[]> cover = new ArrayList<>();
+        long constantAttributes = 0;
+        for (FunctionalDependency dependency : dependencies) {
+            long dependent = toMask(Set.of(dependency.dependent()), attributeList);
+            if (dependency.determinant().isEmpty()) {
+                constantAttributes |= dependent;
+            } else {
+                cover.add(new long[]{toMask(dependency.determinant(), attributeList), dependent});
+            }
+        }
+        removeRedundantDependencies(cover);
+
+        // Step 3: One relation per determinant (in order of first appearance). Equivalent determinants
+        // (same closure, e.g. two alternative keys) share one relation, keyed by the first of them.
+        Map<Long, Long> attributesByDeterminant = new LinkedHashMap<>();
+        Map<Long, Long> determinantByClosure = new HashMap<>();
+        for (long[] dependency : cover) {
+            long determinant = determinantByClosure.computeIfAbsent(closure(dependency[0], cover), closure -> dependency[0]);
+            attributesByDeterminant.merge(determinant, determinant | dependency[0] | dependency[1], (a, b) -> a | b);
+        }
+
+        // Step 4: Drop subsumed relations, then make sure one relation holds a candidate key.
+        List<Long> determinants = new ArrayList<>(attributesByDeterminant.keySet());
+        List<Long> synthesized = new ArrayList<>();
+        for (long determinant : determinants) {
+            long attributes = attributesByDeterminant.get(determinant);
+            boolean subsumed = false;
+            for (long other : determinants) {
+                long otherAttributes = attributesByDeterminant.get(other);
+                // Equal attribute sets: only the first one survives
+                if (other != determinant && (attributes & ~otherAttributes) == 0
+                        && (attributes != otherAttributes || determinants.indexOf(other) < determinants.indexOf(determinant))) {
+                    subsumed = true;
+                    break;
+                }
+            }
+            if (!subsumed) {
+                synthesized.add(determinant);
+            }
+        }
+
+        Long keyRelationDeterminant = null;
+        for (long determinant : synthesized) {
+            if ((candidateKey & ~attributesByDeterminant.get(determinant)) == 0) {
+                keyRelationDeterminant = determinant;
+                break;
+            }
+        }
+        if (keyRelationDeterminant == null) {
+            keyRelationDeterminant = candidateKey;
+            attributesByDeterminant.put(candidateKey, candidateKey);
+            synthesized.add(candidateKey);
+        }
+        attributesByDeterminant.merge(keyRelationDeterminant, constantAttributes, (a, b) -> a | b);
+
+        // Referenced relations first, the key relation last
+        final long mainDeterminant = keyRelationDeterminant;
+        synthesized.remove(mainDeterminant);
+        synthesized = inReferenceOrder(synthesized, attributesByDeterminant);
+        synthesized.add(mainDeterminant);
+
+        // Step 5: Project the rows and derive the key metadata.
+        List<DecomposedRelation> normalizedRelations = new ArrayList<>();
+        List<String> relationNames = new ArrayList<>();
+        for (int i = 0; i < synthesized.size(); i++) {
+            long determinant = synthesized.get(i);
+            long attributes = attributesByDeterminant.get(determinant);
+            List<String> sqlDeterminant = toSqlIdentifiers(toAttributeNames(determinant, attributeList));
+
+            String relationName = (determinant == mainDeterminant)
+                    ? sqlMainRelationName
+                    : toSqlIdentifier(sqlTableNameBase + "_" + String.join("_", sqlDeterminant) + "_Details");
+            relationNames.add(relationName);
+
+            // A relation references every earlier relation whose primary key it contains
+            Map<String, String> foreignKeys = new LinkedHashMap<>();
+            for (int j = 0; j < i; j++) {
+                long referencedKey = synthesized.get(j);
+                if ((referencedKey & ~attributes) == 0 && referencedKey != determinant) {
+                    String fkColumns = String.join(", ", toSqlIdentifiers(toAttributeNames(referencedKey, attributeList)));
+                    foreignKeys.put(fkColumns, relationNames.get(j) + "(" + fkColumns + ")");
+                }
+            }
+
+            // Determinant columns first, then the determined columns in attribute order
+            List<String> columns = new ArrayList<>(toAttributeNames(determinant, attributeList));
+            columns.addAll(toAttributeNames(attributes & ~determinant, attributeList));
+            Relation projected = inputRelation.project(columns);
+            Relation relationData = ((candidateKey & ~attributes) == 0) ? projected : projected.distinct();
+
+            normalizedRelations.add(new DecomposedRelation(relationName, relationData, sqlDeterminant, foreignKeys));
+            System.out.println("Synthesized Relation: " + relationName + " with key " + sqlDeterminant + ".");
+        }
+        return normalizedRelations;
+    }
+
+    /**
+     * Orders the relations so that every relation comes after the relations whose key it contains
+     * (and therefore references). Ties keep the synthesis order. A reference cycle is broken by taking
+     * the first remaining relation, its references to later relations are simply not emitted.
+     *
+     * @param determinants            The determinants (= primary keys) of the relations, in synthesis order.
+     * @param attributesByDeterminant The attributes of each relation.
+     * @return The determinants in reference order.
+     */
+    private List<Long> inReferenceOrder(List<Long> determinants, Map<Long, Long> attributesByDeterminant) {
+        List<Long> remaining = new ArrayList<>(determinants);
+        List<Long> ordered = new ArrayList<>();
+        while (!remaining.isEmpty()) {
+            Long next = remaining.get(0);
+            for (long candidate : remaining) {
+                long attributes = attributesByDeterminant.get(candidate);
+                boolean referencesRemaining = remaining.stream()
+                        .anyMatch(other -> other != candidate && (other & ~attributes) == 0);
+                if (!referencesRemaining) {
+                    next = candidate;
+                    break;
+                }
+            }
+            remaining.remove(next);
+            ordered.add(next);
+        }
+        return ordered;
+    }
+
+    /**
+     * Removes every dependency X → A whose dependent already follows from the other dependencies,
+     * i.e. A is in the closure of X without it. Dependencies are visited in discovery order, so the
+     * result is deterministic.
+     *
+     * @param cover The left-reduced dependencies as {determinant, dependent} masks, modified in place.
+     */
+    private void removeRedundantDependencies(List<long[]> cover) {
+        for (int i = 0; i < cover.size(); ) {
+            long[] candidate = cover.remove(i);
+            if ((closure(candidate[0], cover) & candidate[1]) != 0) {
+                continue; // Redundant, stays removed
+            }
+            cover.add(i++, candidate);
+        }
+    }
+
+    /**
+     * Attribute closure of a set under the given dependencies (fixpoint over bit masks).
+     */
+    private long closure(long attributes, List<long[]> dependencies) {
+        long closure = attributes;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (long[] dependency : dependencies) {
+                if ((dependency[0] & ~closure) == 0 && (dependency[1] & ~closure) != 0) {
+                    closure |= dependency[1];
+                    changed = true;
+                }
+            }
+        }
+        return closure;
+    }
+
+    private long toMask(Set<String> attributes, List<String> attributeList) {
+        long mask = 0;
+        for (String attribute : attributes) {
+            mask |= 1L << attributeList.indexOf(attribute);
+        }
+        return mask;
+    }
+
+    private List<String> toAttributeNames(long mask, List<String> attributeList) {
+        List<String> attributes = new ArrayList<>();
+        for (long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+            attributes.add(attributeList.get(Long.numberOfTrailingZeros(remaining)));
+        }
+        return attributes;
+    }
+
+    private List<String> toSqlIdentifiers(Collection<String> columns) {
+        return columns.stream()
+                .map(this::toSqlIdentifier)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,148 @@
+package org.melisa.datamodel.normalization.heuristics;
+
+/**
+ * Character classes and number parsing shared by the scanner based heuristic rules.
+ *
+ * The character classes are the ones of java.util.regex without flags, so a scanner accepts exactly
+ * the strings its regex counterpart accepts: {@code \d} is [0-9], {@code \s} is [ \t\n\x0B\f\r], and
+ * {@code .} matches everything except line terminators.
+ */
+final class CharScanning {
+
+    // Powers of ten that are exact doubles
+    private static final double[] EXACT_POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    // Digits whose value always fits exactly into the 53 bit mantissa of a double
+    private static final int MAX_EXACT_DIGITS = 15;
+
+    private CharScanning() {
+    }
+
+    static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * @return true for the currency symbols of CurrencyHeuristic: $ € £ ¥ ₹ ₩ ¢
+     */
+    static boolean isCurrencySymbol(char c) {
+        return switch (c) {
+            case '$', '€', '£', '¥', '₹', '₩', '¢' -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * @return true for the unit characters of ValueUnitHeuristic: ASCII letters, %, ° and the period.
+     */
+    static boolean isUnitCharacter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '%' || c == '°' || c == '.';
+    }
+
+    static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    /**
+     * @return The first position at or after start that is not a digit.
+     */
+    static int skipDigits(CharSequence text, int start, int end) {
+        int position = start;
+        while (position < end && isDigit(text.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * @return The first position at or after start that is not whitespace.
+     */
+    static int skipWhitespace(CharSequence text, int start, int end) {
+        int position = start;
+        while (position < end && isWhitespace(text.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * The end position for a regex ending in {@code $}: the end of the input, or the position of a
+     * single line terminator at the very end (only NEL, LINE SEPARATOR and PARAGRAPH SEPARATOR survive String.trim()).
+     */
+    static int endBeforeFinalLineTerminator(CharSequence text) {
+        int length = text.length();
+        return (length > 0 && isLineTerminator(text.charAt(length - 1))) ? length - 1 : length;
+    }
+
+    /**
+     * Parses a number of the form -?[0-9]+([separator][0-9]+)? that the caller has already validated,
+     * with the same result as Double.parseDouble (after replacing the separator with a dot).
+     *
+     * Up to 15 digits are converted directly: both the digits and the power of ten are exact doubles,
+     * so the single division is correctly rounded, just like Double.parseDouble. Longer numbers are rare
+     * and handed to Double.parseDouble.
+     *
+     * @param text      The text containing the number.
+     * @param start     Position of the first character (the sign or the first digit).
+     * @param end       Position after the last digit.
+     * @param separator Position of the decimal separator, or -1 for a whole number.
+     * @return The value of the number.
+     */
+    static double parseDecimal(CharSequence text, int start, int end, int separator) {
+        boolean negative = text.charAt(start) == '-';
+        int firstDigit = negative ? start + 1 : start;
+        int digitCount = end - firstDigit - (separator >= 0 ? 1 : 0);
+        if (digitCount > MAX_EXACT_DIGITS) {
+            StringBuilder number = new StringBuilder(end - start).append(text, start, end);
+            if (separator >= 0) {
+                number.setCharAt(separator - start, '.');
+            }
+            return Double.parseDouble(number.toString());
+        }
+
+        long mantissa = 0;
+        for (int position = firstDigit; position < end; position++) {
+            if (position != separator) {
+                mantissa = mantissa * 10 + (text.charAt(position) - '0');
+            }
+        }
+        double value = (separator >= 0) ? mantissa / EXACT_POWERS_OF_TEN[end - separator - 1] : mantissa;
+        return negative ? -value : value;
+    }
+
+    /**
+     * @return The substring between start and end with leading and trailing characters up to ' ' removed,
+     * like String.trim(), but without creating the untrimmed substring first.
+     */
+    static String trimmedSubstring(String text, int start, int end) {
+        int from = start;
+        int to = end;
+        while (from < to && text.charAt(from) <= ' ') {
+            from++;
+        }
+        while (to > from && text.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        return text.substring(from, to);
+    }
+
+    /**
+     * @return true if the text contains the ASCII lower case needle, ignoring the case of the text.
+     */
+    static boolean containsIgnoreCase(String text, String lowerCaseNeedle) {
+        int last = text.length() - lowerCaseNeedle.length();
+        for (int i = 0; i <= last; i++) {
+            if (text.regionMatches(true, i, lowerCaseNeedle, 0, lowerCaseNeedle.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -16,6 +16,11 @@ public class CurrencyHeuristic implements HeuristicRule {
     private static final Pattern CURRENCY_PATTERN =
             Pattern.compile("^([$€£¥₹₩¢]+)?\\s*(-?\\d+(\\.\\d+)?)\\s*([$€£¥₹₩¢]+)?$");
 
+    @Override
+    public int requiredShape() {
+        return HeuristicPrefilter.CURRENCY;
+    }
+
     @Override
     public boolean apply(String originalColumnName, Object cellValue, Map<String, Object> newRow) {
         if (!(cellValue instanceof String stringValue)) {
@@ -0,0 +1,72 @@
+package org.melisa.datamodel.normalization.heuristics;
+
+import java.util.Map;
+
+/**
+ * Scanner based variant of {@link CurrencyHeuristic}: splits "50 €" or "$60" into Amount and Currency
+ * columns with a single pass over the characters, without a Matcher or intermediate substrings.
+ * It accepts exactly the strings the regex version accepts and produces the same columns.
+ */
+public class CurrencyScannerHeuristic implements HeuristicRule {
+
+    @Override
+    public int requiredShape() {
+        return HeuristicPrefilter.CURRENCY;
+    }
+
+    @Override
+    public boolean apply(String originalColumnName, Object cellValue, Map<String, Object> newRow) {
+        if (!(cellValue instanceof String stringValue)) {
+            return false;
+        }
+
+        String trimmedStringValue = stringValue.trim();
+        int end = CharScanning.endBeforeFinalLineTerminator(trimmedStringValue); // Like the regex anchor $
+
+        // [Optional Prefix Symbol][Optional Space][Number][Optional Space][Optional Suffix Symbol]
+        int prefixEnd = skipCurrencySymbols(trimmedStringValue, 0, end);
+        int numberStart = CharScanning.skipWhitespace(trimmedStringValue, prefixEnd, end);
+        int position = numberStart;
+        if (position < end && trimmedStringValue.charAt(position) == '-') {
+            position++;
+        }
+        int integerEnd = CharScanning.skipDigits(trimmedStringValue, position, end);
+        if (integerEnd == position) {
+            return false; // No digits
+        }
+        int numberEnd = integerEnd;
+        int separator = -1;
+        if (integerEnd + 1 < end && trimmedStringValue.charAt(integerEnd) == '.'
+                && CharScanning.isDigit(trimmedStringValue.charAt(integerEnd + 1))) {
+            separator = integerEnd;
+            numberEnd = CharScanning.skipDigits(trimmedStringValue, integerEnd + 1, end);
+        }
+        int suffixStart = CharScanning.skipWhitespace(trimmedStringValue, numberEnd, end);
+        int suffixEnd = skipCurrencySymbols(trimmedStringValue, suffixStart, end);
+        if (suffixEnd != end) {
+            return false;
+        }
+
+        // The currency symbol must be present, a prefix takes precedence over a suffix
+        String currencySymbol;
+        if (prefixEnd > 0) {
+            currencySymbol = trimmedStringValue.substring(0, prefixEnd);
+        } else if (suffixEnd > suffixStart) {
+            currencySymbol = trimmedStringValue.substring(suffixStart, suffixEnd);
+        } else {
+            return false;
+        }
+
+        newRow.put(originalColumnName + "_Amount", CharScanning.parseDecimal(trimmedStringValue, numberStart, numberEnd, separator));
+        newRow.put(originalColumnName + "_Currency", currencySymbol);
+        return true;
+    }
+
+    private static int skipCurrencySymbols(String text, int start, int end) {
+        int position = start;
+        while (position < end && CharScanning.isCurrencySymbol(text.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+}
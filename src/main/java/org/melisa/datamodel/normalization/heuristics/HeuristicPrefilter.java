@@ -0,0 +1,93 @@
+package org.melisa.datamodel.normalization.heuristics;
+
+/**
+ * A combined, cheap pre-check for all built-in column-splitting heuristics.
+ *
+ * Every built-in rule needs a cell of a certain shape: a currency value starts or ends with a currency
+ * symbol, a value with a unit starts with a number and ends with a unit character, a quantity of items
+ * starts with a digit, and an alias ends with ")". {@link #candidateShapes(String)} looks at the first
+ * and the last significant character (and, only if still needed, whether there is a digit at all) once
+ * per cell and returns the shapes the cell may have. A rule only has to run if its
+ * {@link HeuristicRule#requiredShape()} is among them, so plain text cells are rejected after a few
+ * character comparisons instead of being run through every rule.
+ *
+ * The checks are necessary conditions only: a cell that passes may still be rejected by the rule itself,
+ * but a cell that a rule would split always passes.
+ */
+public final class HeuristicPrefilter {
+
+    /** Shape of rules without a pre-check, every cell has it. */
+    public static final int ANY = 1;
+    /** "50 €", "$60": a currency symbol first or last, and a digit. */
+    public static final int CURRENCY = 1 << 1;
+    /** "50 kg", "-3.5°C": a (signed) digit first, a unit character last. */
+    public static final int VALUE_UNIT = 1 << 2;
+    /** "2 books": a digit first. */
+    public static final int QUANTITY_ITEM = 1 << 3;
+    /** "Primary (Alias)": ")" last. */
+    public static final int PARENTHETICAL_ALIAS = 1 << 4;
+
+    private HeuristicPrefilter() {
+    }
+
+    /**
+     * Classifies a cell value once for all rules.
+     *
+     * @param value The cell value (untrimmed, as the rules receive it).
+     * @return A bit set of the shapes the value may have, always including {@link #ANY}.
+     */
+    public static int candidateShapes(String value) {
+        // First and last significant character, ignoring what String.trim() and the regex anchor $ ignore
+        int first = 0;
+        int last = value.length() - 1;
+        while (first <= last && value.charAt(first) <= ' ') {
+            first++;
+        }
+        while (last >= first && (value.charAt(last) <= ' ' || CharScanning.isLineTerminator(value.charAt(last)))) {
+            last--;
+        }
+        if (first > last) {
+            return ANY; // Blank
+        }
+
+        char firstChar = value.charAt(first);
+        char lastChar = value.charAt(last);
+        int shapes = ANY;
+        boolean startsWithDigit = CharScanning.isDigit(firstChar);
+        if (startsWithDigit) {
+            shapes |= QUANTITY_ITEM;
+        }
+        if ((startsWithDigit || (firstChar == '-' && first < last && CharScanning.isDigit(value.charAt(first + 1))))
+                && CharScanning.isUnitCharacter(lastChar)) {
+            shapes |= VALUE_UNIT;
+        }
+        if ((CharScanning.isCurrencySymbol(firstChar) || CharScanning.isCurrencySymbol(lastChar))
+                && (CharScanning.isCurrencySymbol(firstChar) || firstChar == '-' || startsWithDigit)
+                && (CharScanning.isCurrencySymbol(lastChar) || CharScanning.isDigit(lastChar))
+                && (startsWithDigit || containsDigit(value, first, last))) {
+            shapes |= CURRENCY;
+        }
+        if (lastChar == ')') {
+            shapes |= PARENTHETICAL_ALIAS;
+        }
+        return shapes;
+    }
+
+    /**
+     * @param rule            The rule to check.
+     * @param candidateShapes The result of {@link #candidateShapes(String)} for the cell.
+     * @return true if the rule may split the cell and has to run.
+     */
+    public static boolean mayApply(HeuristicRule rule, int candidateShapes) {
+        return (candidateShapes & rule.requiredShape()) != 0;
+    }
+
+    private static boolean containsDigit(String value, int from, int to) {
+        for (int position = from; position <= to; position++) {
+            if (CharScanning.isDigit(value.charAt(position))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -21,4 +21,14 @@ public interface HeuristicRule {
      */
     boolean apply(String originalColumnName, Object cellValue, Map<String, Object> newRow);
 
+    /**
+     * The cell shape this rule needs, checked by {@link HeuristicPrefilter} before the rule runs.
+     * Rules that cannot be described by one of the shapes keep the default and always run.
+     *
+     * @return One of the shape constants of {@link HeuristicPrefilter}.
+     */
+    default int requiredShape() {
+        return HeuristicPrefilter.ANY;
+    }
+
 }
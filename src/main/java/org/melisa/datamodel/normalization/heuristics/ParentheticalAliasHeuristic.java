@@ -11,6 +11,11 @@ import java.util.regex.Pattern;
 public class ParentheticalAliasHeuristic implements HeuristicRule{
     private static final Pattern PARENTHETICAL_ALIAS_PATTERN = Pattern.compile("^(.*?)\\s*\\((.*?)\\)$");
 
+    @Override
+    public int requiredShape() {
+        return HeuristicPrefilter.PARENTHETICAL_ALIAS;
+    }
+
     @Override
     public boolean apply(String originalColumnName, Object cellValue, Map<String, Object> newRow) {
         if (!(cellValue instanceof String stringValue)) {
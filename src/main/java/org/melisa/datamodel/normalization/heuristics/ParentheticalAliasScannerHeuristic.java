@@ -0,0 +1,61 @@
+package org.melisa.datamodel.normalization.heuristics;
+
+import java.util.Map;
+
+/**
+ * Scanner based variant of {@link ParentheticalAliasHeuristic}: splits "Primary (Alias)" into Primary and
+ * Alias columns with a single pass over the characters. It accepts exactly the strings the regex version
+ * accepts and produces the same columns (the alias runs from the first usable "(" to the closing ")" at
+ * the end, so "A (x) (y)" gives the alias "x) (y", as with the regex).
+ */
+public class ParentheticalAliasScannerHeuristic implements HeuristicRule {
+
+    @Override
+    public int requiredShape() {
+        return HeuristicPrefilter.PARENTHETICAL_ALIAS;
+    }
+
+    @Override
+    public boolean apply(String originalColumnName, Object cellValue, Map<String, Object> newRow) {
+        if (!(cellValue instanceof String stringValue)) {
+            return false;
+        }
+
+        String trimmedStringValue = stringValue.trim();
+        int closing = CharScanning.endBeforeFinalLineTerminator(trimmedStringValue) - 1;
+        if (closing < 0 || trimmedStringValue.charAt(closing) != ')') {
+            return false;
+        }
+
+        // Neither part may span lines: the primary part must end before the first line terminator and
+        // the alias must start after the last one (a line break in the gap before "(" is allowed)
+        int firstLineTerminator = closing;
+        int lastLineTerminator = -1;
+        for (int position = 0; position < closing; position++) {
+            if (CharScanning.isLineTerminator(trimmedStringValue.charAt(position))) {
+                firstLineTerminator = Math.min(firstLineTerminator, position);
+                lastLineTerminator = position;
+            }
+        }
+
+        // The primary part ends at the last non-whitespace character before the chosen "("
+        int primaryEnd = 0;
+        for (int position = 0; position < closing; position++) {
+            char c = trimmedStringValue.charAt(position);
+            if (c == '(') {
+                if (firstLineTerminator < primaryEnd) {
+                    return false; // Every later "(" has an even longer primary part
+                }
+                if (lastLineTerminator < position) {
+                    newRow.put(originalColumnName + "_Primary", CharScanning.trimmedSubstring(trimmedStringValue, 0, primaryEnd));
+                    newRow.put(originalColumnName + "_Alias", CharScanning.trimmedSubstring(trimmedStringValue, position + 1, closing));
+                    return true;
+                }
+            }
+            if (!CharScanning.isWhitespace(c)) {
+                primaryEnd = position + 1;
+            }
+        }
+        return false;
+    }
+}
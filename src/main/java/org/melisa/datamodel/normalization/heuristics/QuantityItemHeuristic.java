@@ -11,6 +11,11 @@ import java.util.regex.Pattern;
 public class QuantityItemHeuristic implements HeuristicRule {
     private static final Pattern NUMERIC_PREFIX_PATTERN = Pattern.compile("^(\\d+)\\s+(.*)$", Pattern.CASE_INSENSITIVE);
 
+    @Override
+    public int requiredShape() {
+        return HeuristicPrefilter.QUANTITY_ITEM;
+    }
+
     @Override
     public boolean apply(String originalColumnName, Object cellValue, Map<String, Object> newRow) {
 // This heuristic only applies to String values.
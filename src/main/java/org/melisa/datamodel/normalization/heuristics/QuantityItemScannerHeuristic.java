@@ -0,0 +1,57 @@
+package org.melisa.datamodel.normalization.heuristics;
+
+import java.util.Map;
+
+/**
+ * Scanner based variant of {@link QuantityItemHeuristic}: splits "2 books" into Quantity and Item columns
+ * with a single pass over the characters, parsing the quantity without a substring. It accepts exactly
+ * the strings the regex version accepts and produces the same columns.
+ */
+public class QuantityItemScannerHeuristic implements HeuristicRule {
+
+    @Override
+    public int requiredShape() {
+        return HeuristicPrefilter.QUANTITY_ITEM;
+    }
+
+    @Override
+    public boolean apply(String originalColumnName, Object cellValue, Map<String, Object> newRow) {
+        // This heuristic only applies to String values.
+        if (!(cellValue instanceof String stringValue)) {
+            return false;
+        }
+
+        String trimmedStringValue = stringValue.trim();
+        int length = trimmedStringValue.length();
+
+        // [Quantity digits][Whitespace][Item up to the end of the line]
+        long quantity = 0;
+        int position = 0;
+        while (position < length && CharScanning.isDigit(trimmedStringValue.charAt(position))) {
+            quantity = quantity * 10 + (trimmedStringValue.charAt(position) - '0');
+            if (quantity > Integer.MAX_VALUE) {
+                return false; // Not a valid int quantity
+            }
+            position++;
+        }
+        if (position == 0) {
+            return false;
+        }
+        int itemStart = CharScanning.skipWhitespace(trimmedStringValue, position, length);
+        if (itemStart == position) {
+            return false; // The quantity must be followed by whitespace
+        }
+
+        // The item may not span lines, except for a single line terminator at the very end
+        int itemEnd = CharScanning.endBeforeFinalLineTerminator(trimmedStringValue);
+        for (int i = Math.min(itemStart, itemEnd); i < itemEnd; i++) {
+            if (CharScanning.isLineTerminator(trimmedStringValue.charAt(i))) {
+                return false;
+            }
+        }
+
+        newRow.put(originalColumnName + "_Quantity", (int) quantity);
+        newRow.put(originalColumnName + "_Item", CharScanning.trimmedSubstring(trimmedStringValue, Math.min(itemStart, itemEnd), itemEnd));
+        return true;
+    }
+}
@@ -14,6 +14,11 @@ public class ValueUnitHeuristic implements HeuristicRule {
     // Pattern: [Number] [Optional Space] [Unit (letters, %, °, .)]
     private static final Pattern VALUE_UNIT_PATTERN = Pattern.compile("^(-?\\d+([.,]\\d+)?)\\s*([a-zA-Z%°\\.]{1,3})$");
 
+    @Override
+    public int requiredShape() {
+        return HeuristicPrefilter.VALUE_UNIT;
+    }
+
     @Override
     public boolean apply(String originalColumnName, Object cellValue, Map<String, Object> newRow) {
         if (!(cellValue instanceof String stringValue)) {
@@ -0,0 +1,62 @@
+package org.melisa.datamodel.normalization.heuristics;
+
+import java.util.Map;
+
+/**
+ * Scanner based variant of {@link ValueUnitHeuristic}: splits "50 kg", "20.5°C" or "101,1 %" into Value
+ * and Unit columns with a single pass over the characters. The column name guard is checked without
+ * lower casing the name. It accepts exactly the strings the regex version accepts and produces the same columns.
+ */
+public class ValueUnitScannerHeuristic implements HeuristicRule {
+
+    private static final int MAX_UNIT_LENGTH = 3;
+
+    @Override
+    public int requiredShape() {
+        return HeuristicPrefilter.VALUE_UNIT;
+    }
+
+    @Override
+    public boolean apply(String originalColumnName, Object cellValue, Map<String, Object> newRow) {
+        if (!(cellValue instanceof String stringValue)) {
+            return false;
+        }
+
+        // Safety check to ensure we don't accidentally run this on an already processed column
+        if (CharScanning.containsIgnoreCase(originalColumnName, "_value") || CharScanning.containsIgnoreCase(originalColumnName, "_unit")
+                || CharScanning.containsIgnoreCase(originalColumnName, "_quantity") || CharScanning.containsIgnoreCase(originalColumnName, "_item")) {
+            return false;
+        }
+
+        String trimmedStringValue = stringValue.trim();
+        int end = CharScanning.endBeforeFinalLineTerminator(trimmedStringValue); // Like the regex anchor $
+
+        // [Number] [Optional Space] [Unit (1 to 3 letters, %, °, .)]
+        int position = (end > 0 && trimmedStringValue.charAt(0) == '-') ? 1 : 0;
+        int integerEnd = CharScanning.skipDigits(trimmedStringValue, position, end);
+        if (integerEnd == position) {
+            return false; // No digits
+        }
+        int numberEnd = integerEnd;
+        int separator = -1;
+        if (integerEnd + 1 < end && (trimmedStringValue.charAt(integerEnd) == '.' || trimmedStringValue.charAt(integerEnd) == ',')
+                && CharScanning.isDigit(trimmedStringValue.charAt(integerEnd + 1))) {
+            separator = integerEnd;
+            numberEnd = CharScanning.skipDigits(trimmedStringValue, integerEnd + 1, end);
+        }
+        int unitStart = CharScanning.skipWhitespace(trimmedStringValue, numberEnd, end);
+        int unitLength = end - unitStart;
+        if (unitLength < 1 || unitLength > MAX_UNIT_LENGTH) {
+            return false;
+        }
+        for (int i = unitStart; i < end; i++) {
+            if (!CharScanning.isUnitCharacter(trimmedStringValue.charAt(i))) {
+                return false;
+            }
+        }
+
+        newRow.put(originalColumnName + "_Value", CharScanning.parseDecimal(trimmedStringValue, 0, numberEnd, separator));
+        newRow.put(originalColumnName + "_Unit", trimmedStringValue.substring(unitStart, end));
+        return true;
+    }
+}
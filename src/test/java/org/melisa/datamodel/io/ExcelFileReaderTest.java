@@ -8,6 +8,7 @@ import org.junit.jupiter.api.Test;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -70,4 +71,44 @@ class ExcelFileReaderTest {
             assertEquals("Test", firstRow.get("Name_1"));
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Streaming reader should produce the same rows as the workbook reader")
+    void streamExcelData_matchesReadExcelData() throws IOException {
+        try (Workbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet("TestSheet");
+
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("ID");
+            header.createCell(1).setCellValue("Name");
+            header.createCell(2).setCellValue("Name"); // Duplicate! Should become "Name_1"
+            header.createCell(4).setCellValue("Price"); // Column 3 has no header -> "Column4"
+
+            Row first = sheet.createRow(1);
+            first.createCell(0).setCellValue(101);
+            first.createCell(1).setCellValue("Melisa");
+            first.createCell(4).setCellValue(99.99);
+
+            // Row 2 is intentionally missing, both readers skip it
+            Row third = sheet.createRow(3);
+            third.createCell(0).setCellValue(102);
+            third.createCell(2).setCellValue("  ");   // Whitespace only -> null
+            third.createCell(3).setCellValue("Extra");
+            third.createCell(6).setCellValue("Ignored"); // Right of the header, not part of the relation
+
+            ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+            workbook.write(outStream);
+            byte[] bytes = outStream.toByteArray();
+
+            List<Map<String, Object>> expected = ExcelFileReader.readExcelData(new ByteArrayInputStream(bytes));
+            List<Map<String, Object>> streamed = new ArrayList<>();
+            ExcelFileReader.streamExcelData(new ByteArrayInputStream(bytes), streamed::add);
+
+            assertEquals(2, streamed.size(), "Should have streamed exactly 2 rows of data");
+            assertEquals(expected, streamed);
+            assertEquals(List.of("ID", "Name", "Name_1", "Column4", "Price"), new ArrayList<>(streamed.get(0).keySet()));
+            assertEquals("Extra", streamed.get(1).get("Column4"));
+            assertNull(streamed.get(1).get("Name_1"));
+        }
+    }
+}
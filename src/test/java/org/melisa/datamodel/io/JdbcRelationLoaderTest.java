@@ -0,0 +1,65 @@
+package org.melisa.datamodel.io;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.melisa.datamodel.model.DecomposedRelation;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcRelationLoaderTest {
+
+    private static Map<String, Object> row(Object... keysAndValues) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            row.put((String) keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return row;
+    }
+
+    @Test
+    @DisplayName("Should create the tables in FK order and load all rows into an embedded H2 database")
+    void load_embeddedDatabase() throws SQLException {
+        // Arrange
+        // The referencing relation comes first in the list, the loader has to reorder
+        List<Map<String, Object>> enrollments = new ArrayList<>();
+        for (int i = 0; i < 2_500; i++) {
+            enrollments.add(row("Student", "S" + i, "Course", (i % 2 == 0) ? "Math" : "Physics", "Passed", i % 3 == 0));
+        }
+        DecomposedRelation main = new DecomposedRelation("UNI_MAINRELATION", enrollments,
+                List.of("STUDENT", "COURSE"), Map.of("COURSE", "UNI_COURSE_DETAILS(COURSE)"));
+        DecomposedRelation details = new DecomposedRelation("UNI_COURSE_DETAILS",
+                List.of(row("Course", "Math", "Fee", "500.50", "StartDate", "2024-10-01"),
+                        row("Course", "Physics", "Fee", 600, "StartDate", "2025-04-01")),
+                List.of("COURSE"), Map.of());
+
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:loader;DB_CLOSE_DELAY=-1")) {
+            // Act
+            long loadedRows = new JdbcRelationLoader(100, 1_000).load(connection, List.of(main, details));
+
+            // Assert
+            assertEquals(2_502, loadedRows);
+            try (Statement statement = connection.createStatement()) {
+                ResultSet count = statement.executeQuery("SELECT COUNT(*) FROM UNI_MAINRELATION WHERE PASSED = 1");
+                assertTrue(count.next());
+                assertEquals(834, count.getInt(1));
+
+                ResultSet fee = statement.executeQuery("SELECT FEE, STARTDATE FROM UNI_COURSE_DETAILS WHERE COURSE = 'Math'");
+                assertTrue(fee.next());
+                assertEquals(0, new BigDecimal("500.50").compareTo(fee.getBigDecimal(1)));
+                assertEquals(Date.valueOf("2024-10-01"), fee.getDate(2));
+            }
+        }
+    }
+}
@@ -2,10 +2,20 @@ package org.melisa.datamodel.io;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.melisa.datamodel.model.RowSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.LinkedHashMap;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -75,8 +85,8 @@ class SqlGeneratorTest {
         // 1. Verify CREATE TABLE Block (All caps expectations)
         assertTrue(sqlScript.contains("CREATE TABLE PRODUCT"), "Should contain CREATE TABLE statement");
         assertTrue(sqlScript.contains("ID INTEGER NOT NULL"), "ID should be INTEGER and NOT NULL (PK)");
-        assertTrue(sqlScript.contains("NAME VARCHAR(255)"), "Name should be VARCHAR");
-        assertTrue(sqlScript.contains("PRICE DECIMAL(18, 4)"), "Price should be DECIMAL");
+        assertTrue(sqlScript.contains("NAME VARCHAR(6)"), "Name should be VARCHAR sized to the longest value");
+        assertTrue(sqlScript.contains("PRICE DECIMAL(5, 2)"), "Price should be DECIMAL sized to its digits");
 
         // 2. Verify Constraints
         assertTrue(sqlScript.contains("CONSTRAINT PK_PRODUCT PRIMARY KEY (ID)"),
@@ -90,4 +100,290 @@ class SqlGeneratorTest {
         assertTrue(sqlScript.contains("VALUES (1, 'Laptop', 999.99, 10)"), "Row 1 values should be formatted correctly");
         assertTrue(sqlScript.contains("VALUES (2, 'Mouse', 25.5, 10)"), "Row 2 values should be formatted correctly");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should stream the same script to a Writer and to a byte channel")
+    void writeSqlScript_matchesGeneratedScript() throws IOException {
+        // Arrange
+        List<Map<String, Object>> data = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("ID", i);
+            row.put("Name", "Item's name " + i);
+            data.add(row);
+        }
+        String expected = SqlGenerator.generateSqlScript(data, "Item", List.of("ID"), Collections.emptyMap());
+
+        // Act
+        StringWriter writer = new StringWriter();
+        SqlGenerator.writeSqlScript(RowSource.of(data), "Item", List.of("ID"), Collections.emptyMap(), writer);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        SqlGenerator.writeSqlScript(RowSource.of(data), "Item", List.of("ID"), Collections.emptyMap(), Channels.newChannel(bytes));
+
+        // Assert
+        assertEquals(expected, writer.toString());
+        assertEquals(expected, bytes.toString(StandardCharsets.UTF_8));
+        assertTrue(expected.contains("VALUES (999, 'Item''s name 999');"));
+    }
+
+    @Test
+    @DisplayName("Should read every column of a row by its original name, also for colliding names")
+    void generateSqlScript_columnMapping() {
+        // Arrange
+        // "Unit Price" and "Unit_Price" both become UNIT_PRICE; each row uses one of them
+        Map<String, Object> row1 = new LinkedHashMap<>();
+        row1.put("1st Item", "Pen");
+        row1.put("Unit Price", 2);
+        Map<String, Object> row2 = new LinkedHashMap<>();
+        row2.put("1st Item", "Ink");
+        row2.put("Unit_Price", 3);
+
+        // Act
+        String sqlScript = SqlGenerator.generateSqlScript(List.of(row1, row2), "Items", List.of(), Map.of());
+
+        // Assert
+        assertEquals(SqlGenerator.toSqlIdentifier("1st Item"), SqlGenerator.toSqlIdentifier(" 1st Item "));
+        assertTrue(sqlScript.contains("INSERT INTO ITEMS (1ST_ITEM, UNIT_PRICE)\nVALUES ('Pen', 2);"));
+        assertTrue(sqlScript.contains("INSERT INTO ITEMS (1ST_ITEM, UNIT_PRICE)\nVALUES ('Ink', 3);"));
+    }
+
+    @Test
+    @DisplayName("Should combine rows into multi-row INSERT statements")
+    void writeSqlScript_batchedInserts() throws IOException {
+        // Arrange
+        List<Map<String, Object>> data = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("ID", i);
+            row.put("Name", "N" + i);
+            data.add(row);
+        }
+
+        // Act
+        StringWriter writer = new StringWriter();
+        SqlGenerator.writeSqlScript(RowSource.of(data), "Item", List.of("ID"), Collections.emptyMap(), 2, writer);
+        String sqlScript = writer.toString();
+
+        // Assert
+        // 5 rows in batches of 2: three statements, the last one with a single row
+        assertEquals(3, sqlScript.split("INSERT INTO ITEM", -1).length - 1);
+        assertTrue(sqlScript.contains("INSERT INTO ITEM (ID, NAME)\nVALUES (1, 'N1'),\n       (2, 'N2');\n"));
+        assertTrue(sqlScript.contains("INSERT INTO ITEM (ID, NAME)\nVALUES (5, 'N5');\n"));
+    }
+
+    @Test
+    @DisplayName("Should write a CSV data file and a COPY statement in bulk mode")
+    void writeBulkLoadScript_postgresql() throws IOException {
+        // Arrange
+        Map<String, Object> row1 = new LinkedHashMap<>();
+        row1.put("ID", 1);
+        row1.put("Name", "Say \"hi\", please");
+        row1.put("Active", true);
+        Map<String, Object> row2 = new LinkedHashMap<>();
+        row2.put("ID", 2);
+        row2.put("Name", null);
+        row2.put("Active", false);
+
+        // Act
+        StringWriter script = new StringWriter();
+        StringWriter csv = new StringWriter();
+        SqlGenerator.writeBulkLoadScript(RowSource.of(List.of(row1, row2)), "Item", List.of("ID"), Collections.emptyMap(),
+                BulkLoadDialect.POSTGRESQL, "/tmp/ITEM.csv", script, csv);
+
+        // Assert
+        assertTrue(script.toString().contains("CREATE TABLE ITEM"));
+        assertTrue(script.toString().contains("COPY ITEM (ID, NAME, ACTIVE)\nFROM '/tmp/ITEM.csv'"));
+        assertFalse(script.toString().contains("INSERT INTO"));
+        assertEquals("ID,NAME,ACTIVE\n1,\"Say \"\"hi\"\", please\",1\n2,,0\n", csv.toString());
+    }
+
+    @Test
+    @DisplayName("The numeric scanner should classify strings like Long.parseLong / Double.parseDouble")
+    void scanNumber_matchesParseMethods() {
+        assertEquals(SqlType.INTEGER, SqlGenerator.scanNumber("42"));
+        assertEquals(SqlType.INTEGER, SqlGenerator.scanNumber("+7"));
+        assertEquals(SqlType.INTEGER, SqlGenerator.scanNumber("-2147483648"));
+        assertEquals(SqlType.BIGINT, SqlGenerator.scanNumber("2147483648"));
+        assertEquals(SqlType.BIGINT, SqlGenerator.scanNumber("-9223372036854775808"));
+        assertEquals(SqlType.DECIMAL, SqlGenerator.scanNumber("12345678901234567890"));
+        assertEquals(SqlType.DECIMAL, SqlGenerator.scanNumber("10.5"));
+        assertEquals(SqlType.DECIMAL, SqlGenerator.scanNumber(".5"));
+        assertEquals(SqlType.DECIMAL, SqlGenerator.scanNumber("5."));
+        assertEquals(SqlType.DECIMAL, SqlGenerator.scanNumber("1e5"));
+        assertEquals(SqlType.DECIMAL, SqlGenerator.scanNumber("1.5f"));
+        assertEquals(SqlType.DECIMAL, SqlGenerator.scanNumber("NaN"));
+        assertEquals(SqlType.DECIMAL, SqlGenerator.scanNumber("-Infinity"));
+        assertEquals(SqlType.VARCHAR, SqlGenerator.scanNumber("abc"));
+        assertEquals(SqlType.VARCHAR, SqlGenerator.scanNumber("1e"));
+        assertEquals(SqlType.VARCHAR, SqlGenerator.scanNumber("-"));
+        assertEquals(SqlType.VARCHAR, SqlGenerator.scanNumber("."));
+        assertEquals(SqlType.VARCHAR, SqlGenerator.scanNumber("1,5"));
+    }
+
+    @Test
+    @DisplayName("Should infer the same schema on parallel chunks as on a sequential pass")
+    void inferColumnSchema_parallelChunks() {
+        // Arrange: large enough to be split, with the widening values far apart
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("ID", i);
+            row.put("Amount", (i == 40_000) ? "10.5" : String.valueOf(i));
+            row.put("Flag", (i % 2 == 0) ? "true" : "false");
+            if (i == 45_000) {
+                row.put("Late Column", "2024-01-01");
+            }
+            rows.add(row);
+        }
+
+        // Act
+        SqlGenerator.ColumnSchema schema = SqlGenerator.inferColumnSchema(RowSource.of(rows));
+
+        // Assert
+        assertEquals(List.of("ID", "AMOUNT", "FLAG", "LATE_COLUMN"), new ArrayList<>(schema.sqlTypes().keySet()));
+        assertEquals(SqlType.INTEGER, schema.sqlTypes().get("ID").type());
+        assertEquals(SqlType.DECIMAL, schema.sqlTypes().get("AMOUNT").type());
+        assertEquals(SqlType.SMALLINT, schema.sqlTypes().get("FLAG").type());
+        assertEquals(SqlType.DATE, schema.sqlTypes().get("LATE_COLUMN").type());
+        assertEquals(List.of("Late Column"), schema.originalNames().get("LATE_COLUMN"));
+    }
+
+    @Test
+    @DisplayName("Sampled inference should widen on violations and match the full inference")
+    void inferColumnSchema_sampledMatchesFull() {
+        // Arrange: rare values that widen a column are unlikely to be part of a small sample
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("ID", i);
+            row.put("Amount", (i == 4_321) ? "10.5" : String.valueOf(i));
+            row.put("Joined", (i == 17) ? "2024-01-01T10:00:00" : "2024-01-01");
+            row.put("Code", (i == 2_500) ? null : "42");
+            if (i == 4_999) {
+                row.put("Comment", "last");
+            }
+            rows.add(row);
+        }
+        RowSource source = RowSource.of(rows);
+
+        // Act
+        SqlGenerator.ColumnSchema full = SqlGenerator.inferColumnSchema(source);
+        SqlGenerator.ColumnSchema sampled = SqlGenerator.inferColumnSchema(source, 10);
+        SqlGenerator.ColumnSchema single = SqlGenerator.inferColumnSchema(source, 1);
+
+        // Assert
+        assertEquals(SqlType.DECIMAL, full.sqlTypes().get("AMOUNT").type());
+        assertEquals(SqlType.TIMESTAMP, full.sqlTypes().get("JOINED").type());
+        assertEquals(SqlType.VARCHAR, full.sqlTypes().get("CODE").type());
+        assertEquals(full, sampled);
+        assertEquals(full, single);
+        assertEquals(List.of("ID", "AMOUNT", "JOINED", "CODE", "COMMENT"), new ArrayList<>(sampled.sqlTypes().keySet()));
+        assertThrows(IllegalArgumentException.class, () -> SqlGenerator.inferColumnSchema(source, 0));
+    }
+
+    @Test
+    @DisplayName("Sampled inference should read every row once plus the sampled rows")
+    void inferColumnSchema_sampledReadsOnce() {
+        // Arrange
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 30_000; i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("ID", String.valueOf(i));
+            row.put("Price", (i == 29_000) ? "x" : i + ".25");
+            row.put("Day", "2024-01-" + (10 + i % 20));
+            rows.add(row);
+        }
+        CountingRows countingRows = new CountingRows(rows);
+
+        // Act
+        SqlGenerator.ColumnSchema sampled = SqlGenerator.inferColumnSchema(RowSource.of(countingRows), 100);
+
+        // Assert: one (parallel) pass over all rows, the sample is drawn by index
+        assertEquals(30_000 + 100, countingRows.reads.get());
+        assertEquals(SqlGenerator.inferColumnSchema(RowSource.of(rows)), sampled);
+        assertEquals(SqlType.VARCHAR, sampled.sqlTypes().get("PRICE").type());
+        assertEquals(SqlType.DATE, sampled.sqlTypes().get("DAY").type());
+    }
+
+    @Test
+    @DisplayName("Should size VARCHAR and DECIMAL columns to the data and use BIGINT outside the int range")
+    void inferColumnSchema_sizedTypes() {
+        // Arrange
+        Map<String, Object> row1 = new LinkedHashMap<>();
+        row1.put("Code", "AB");
+        row1.put("Price", "-12.5");
+        row1.put("Count", 3_000_000_000L);
+        row1.put("Mixed", 7);
+        row1.put("Ratio", 1e40);
+        Map<String, Object> row2 = new LinkedHashMap<>();
+        row2.put("Code", "ABCDE");
+        row2.put("Price", 1234);
+        row2.put("Count", "12");
+        row2.put("Mixed", "n/a");
+        row2.put("Ratio", Double.NaN);
+        Map<String, Object> row3 = new LinkedHashMap<>();
+        row3.put("Code", null);
+        row3.put("Price", "0.125");
+        row3.put("Count", 1);
+        row3.put("Mixed", -123456L);
+        row3.put("Ratio", 2.0);
+
+        // Act
+        Map<String, SqlGenerator.ColumnType> types =
+                SqlGenerator.inferColumnSchema(RowSource.of(List.of(row1, row2, row3))).sqlTypes();
+
+        // Assert
+        assertEquals("VARCHAR(5)", types.get("CODE").sqlName());
+        assertEquals("DECIMAL(7, 3)", types.get("PRICE").sqlName());
+        assertEquals("BIGINT", types.get("COUNT").sqlName());
+        assertEquals("VARCHAR(7)", types.get("MIXED").sqlName());
+        assertEquals("VARCHAR(6)", types.get("RATIO").sqlName());
+    }
+
+    @Test
+    @DisplayName("Should quote the numbers of VARCHAR columns in the INSERT statements")
+    void generateSqlScript_varcharFallbackInserts() {
+        // Arrange: NaN, a number beyond DECIMAL(38) and a number next to text all end up as VARCHAR
+        Map<String, Object> row1 = new LinkedHashMap<>();
+        row1.put("Ratio", Double.NaN);
+        row1.put("Huge", 1e40);
+        row1.put("Mixed", 7);
+        Map<String, Object> row2 = new LinkedHashMap<>();
+        row2.put("Ratio", 2.0);
+        row2.put("Huge", Double.POSITIVE_INFINITY);
+        row2.put("Mixed", "n/a");
+
+        // Act
+        String sqlScript = SqlGenerator.generateSqlScript(List.of(row1, row2), "Measurements",
+                Collections.emptyList(), Collections.emptyMap());
+
+        // Assert
+        assertTrue(sqlScript.contains("RATIO VARCHAR(3)"));
+        assertTrue(sqlScript.contains("HUGE VARCHAR(8)"));
+        assertTrue(sqlScript.contains("('NaN', '1.0E40', '7')"), "The values of VARCHAR columns should be quoted");
+        assertTrue(sqlScript.contains("('2.0', 'Infinity', 'n/a')"));
+    }
+
+    /**
+     * A random access list that counts the rows read from it.
+     */
+    private static final class CountingRows extends AbstractList<Map<String, Object>> implements RandomAccess {
+        private final List<Map<String, Object>> rows;
+        private final AtomicInteger reads = new AtomicInteger();
+
+        CountingRows(List<Map<String, Object>> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public Map<String, Object> get(int index) {
+            reads.incrementAndGet();
+            return rows.get(index);
+        }
+
+        @Override
+        public int size() {
+            return rows.size();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.melisa.datamodel.io;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.melisa.datamodel.model.DecomposedRelation;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlScriptPipelineTest {
+
+    private static DecomposedRelation relation(String name, int rows, Map<String, String> foreignKeys) {
+        List<Map<String, Object>> data = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("ID", i);
+            row.put("Label", name + " " + i);
+            data.add(row);
+        }
+        return new DecomposedRelation(name, data, List.of("ID"), foreignKeys);
+    }
+
+    @Test
+    @DisplayName("Should produce the serial scripts, concatenated in dependency order")
+    void writeScripts_orderedOutput() throws IOException {
+        // Arrange
+        // The largest relation references the small one, so it must come last even though it is listed first
+        DecomposedRelation main = relation("SHOP_MAINRELATION", 20_000, Map.of("ID", "SHOP_ID_DETAILS(ID)"));
+        DecomposedRelation details = relation("SHOP_ID_DETAILS", 10, Map.of());
+        DecomposedRelation other = relation("SHOP_OTHER", 500, Map.of());
+
+        String expected = SqlGenerator.generateSqlScript(details.data(), details.name(), details.primaryKeys(), details.foreignKeys())
+                + SqlGenerator.generateSqlScript(main.data(), main.name(), main.primaryKeys(), main.foreignKeys())
+                + SqlGenerator.generateSqlScript(other.data(), other.name(), other.primaryKeys(), other.foreignKeys());
+
+        // Act
+        StringWriter writer = new StringWriter();
+        new SqlScriptPipeline(4, 1).writeScripts(List.of(main, details, other), writer);
+
+        // Assert
+        assertEquals(expected, writer.toString());
+    }
+}
@@ -0,0 +1,27 @@
+package org.melisa.datamodel.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecomposedRelationTest {
+
+    @Test
+    @DisplayName("Should order relations so that referenced relations come first")
+    void inDependencyOrder_referencedFirst() {
+        // Arrange
+        DecomposedRelation a = new DecomposedRelation("A", List.of(), List.of(), Map.of("B_ID", "B(B_ID)"));
+        DecomposedRelation b = new DecomposedRelation("B", List.of(), List.of(), Map.of("C_ID", "C(C_ID)"));
+        DecomposedRelation c = new DecomposedRelation("C", List.of(), List.of(), Map.of());
+        DecomposedRelation cycle = new DecomposedRelation("C", List.of(), List.of(), Map.of("A_ID", "A(A_ID)"));
+
+        // Act & Assert
+        assertEquals(Set.of("B"), a.referencedRelations());
+        assertEquals(List.of(c, b, a), DecomposedRelation.inDependencyOrder(List.of(a, b, c)));
+        assertThrows(IllegalArgumentException.class, () -> DecomposedRelation.inDependencyOrder(List.of(a, b, cycle)));
+    }
+}
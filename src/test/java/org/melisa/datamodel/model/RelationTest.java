@@ -0,0 +1,98 @@
+package org.melisa.datamodel.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RelationTest {
+
+    @Test
+    @DisplayName("Map view should return exactly the original rows, including mixed types, nulls and ragged rows")
+    void of_mapViewMatchesOriginalRows() {
+        // Arrange
+        Map<String, Object> r1 = new LinkedHashMap<>();
+        r1.put("ID", 1);
+        r1.put("Name", "Laptop");
+        r1.put("Price", 999.99);
+
+        Map<String, Object> r2 = new LinkedHashMap<>();
+        r2.put("ID", 2);
+        r2.put("Name", null);       // Null value in a dictionary column
+        r2.put("Price", "n/a");     // Switches the Double column to dictionary encoding
+
+        Map<String, Object> r3 = new LinkedHashMap<>();
+        r3.put("ID", 3L);           // Long in an Integer column
+        r3.put("Name", "Laptop");
+        r3.put("Weight_Value", 2.5); // Column that only this row has
+
+        List<Map<String, Object>> rows = List.of(r1, r2, r3);
+
+        // Act
+        Relation relation = Relation.of(rows);
+
+        // Assert
+        assertEquals(3, relation.rowCount());
+        assertEquals(List.of("ID", "Name", "Price", "Weight_Value"), relation.columnNames());
+        assertEquals(rows, relation.asMaps());
+        assertEquals(new ArrayList<>(r3.keySet()), new ArrayList<>(relation.row(2).keySet()));
+        assertFalse(relation.row(0).containsKey("Weight_Value"), "Absent cells must not appear in the row view");
+        assertTrue(relation.row(1).containsKey("Name"), "Null cells are present in the row view");
+        assertEquals(Integer.valueOf(1), relation.get(0, 0));
+        assertEquals(Long.valueOf(3), relation.get(2, 0));
+    }
+
+    @Test
+    @DisplayName("Projection and distinct should behave like per-row map copies followed by Stream.distinct()")
+    void projectAndDistinct() {
+        // Arrange
+        List<Map<String, Object>> rows = new ArrayList<>();
+        String[][] values = {{"Math", "Melisa", "500"}, {"Physics", "Melisa", "600"}, {"Math", "John", "500"}};
+        for (String[] value : values) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("Course", value[0]);
+            row.put("Student", value[1]);
+            row.put("CourseFee", value[2]);
+            rows.add(row);
+        }
+        Relation relation = Relation.of(rows);
+
+        // Act
+        Relation courses = relation.project(List.of("Course", "CourseFee")).distinct();
+
+        // Assert
+        assertEquals(2, courses.rowCount());
+        assertEquals(Map.of("Course", "Math", "CourseFee", "500"), courses.row(0));
+        assertEquals(Map.of("Course", "Physics", "CourseFee", "600"), courses.row(1));
+        // A view list hands back the same relation instead of converting again
+        assertSame(courses, Relation.of(courses.asMaps()));
+    }
+
+    @Test
+    @DisplayName("Value codes should be equal exactly for equal cells")
+    void valueCodes() {
+        // Arrange
+        Map<String, Object> r1 = new LinkedHashMap<>();
+        r1.put("A", 7);
+        Map<String, Object> r2 = new LinkedHashMap<>();
+        r2.put("A", 8);
+        Map<String, Object> r3 = new LinkedHashMap<>();
+        r3.put("A", 7);
+        Map<String, Object> r4 = new LinkedHashMap<>(); // "A" is absent
+
+        Relation relation = Relation.of(List.of(r1, r2, r3, r4));
+
+        // Act
+        int[] codes = relation.valueCodes(0);
+
+        // Assert
+        assertEquals(codes[0], codes[2]);
+        assertNotEquals(codes[0], codes[1]);
+        assertNotEquals(codes[0], codes[3]);
+        assertNotEquals(codes[1], codes[3]);
+    }
+}
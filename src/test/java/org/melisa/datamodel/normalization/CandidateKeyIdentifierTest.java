@@ -2,10 +2,14 @@ package org.melisa.datamodel.normalization;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
 import java.util.Map;
 import java.util.Set;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -80,4 +84,119 @@ class CandidateKeyIdentifierTest {
         // Explicitly check that the non-minimal superkey is absent
         assertFalse(keys.contains(Set.of("ID", "Email")), "Should not include non-minimal superkeys");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Values containing the former separator '|' should not collide")
+    void identifyAllCandidateKeys_separatorInValues() {
+        // Arrange
+        // Joined with '|', the first two rows would both read "x|y|z", but their values differ.
+        Map<String, Object> r1 = Map.of("A", "x|y", "B", "z");
+        Map<String, Object> r2 = Map.of("A", "x", "B", "y|z");
+        Map<String, Object> r3 = Map.of("A", "x|y", "B", "y|z");
+        Map<String, Object> r4 = Map.of("A", "x", "B", "z");
+
+        // Act
+        Set<Set<String>> keys = new CandidateKeyIdentifier().identifyAllCandidateKeys(List.of(r1, r2, r3, r4));
+
+        // Assert
+        assertEquals(Set.of(Set.of("A", "B")), keys);
+    }
+
+    @Test
+    @DisplayName("Parallel evaluation should find exactly the same keys, in the same order, as the sequential one")
+    void identifyAllCandidateKeys_parallelMatchesSequential() {
+        // Arrange
+        // 12 low-cardinality columns give lattice levels large enough to be split across workers.
+        Random random = new Random(42);
+        List<Map<String, Object>> data = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int column = 0; column < 12; column++) {
+                row.put("C" + column, random.nextInt(column % 4 + 2));
+            }
+            data.add(row);
+        }
+
+        // Act
+        Set<Set<String>> sequentialKeys = new CandidateKeyIdentifier().identifyAllCandidateKeys(data);
+        Set<Set<String>> parallelKeys = new CandidateKeyIdentifier(4).identifyAllCandidateKeys(data);
+
+        // Assert
+        assertFalse(sequentialKeys.isEmpty());
+        assertEquals(new ArrayList<>(sequentialKeys), new ArrayList<>(parallelKeys));
+    }
+
+    @Test
+    @DisplayName("Pruned lattice walk should find exactly the minimal keys of a brute-force search")
+    void identifyAllCandidateKeys_matchesBruteForce() {
+        Random random = new Random(5);
+        for (int round = 0; round < 200; round++) {
+            // Arrange: few distinct values per column, plus derived and constant columns for the free-set pruning
+            int columnCount = 2 + random.nextInt(5);
+            List<Map<String, Object>> data = new ArrayList<>();
+            int rowCount = 2 + random.nextInt(25);
+            for (int i = 0; i < rowCount; i++) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                for (int column = 0; column < columnCount; column++) {
+                    row.put("C" + column, random.nextInt(2 + random.nextInt(3)));
+                }
+                row.put("Derived", (Integer) row.get("C0") % 2);
+                row.put("Constant", "same");
+                data.add(row);
+            }
+
+            // Act
+            Set<Set<String>> keys = new CandidateKeyIdentifier().identifyAllCandidateKeys(data);
+
+            // Assert
+            assertEquals(bruteForceMinimalKeys(data), new HashSet<>(keys), "Round " + round);
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject relations with more than 64 attributes")
+    void identifyAllCandidateKeys_tooManyAttributes() {
+        // Arrange
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int column = 0; column < 65; column++) {
+            row.put("C" + column, column);
+        }
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new CandidateKeyIdentifier().identifyAllCandidateKeys(List.of(row)));
+    }
+
+    /**
+     * Checks every attribute set for uniqueness and keeps the superkeys without a smaller superkey inside.
+     */
+    private static Set<Set<String>> bruteForceMinimalKeys(List<Map<String, Object>> data) {
+        List<String> attributes = new ArrayList<>(data.get(0).keySet());
+        List<Set<String>> superKeys = new ArrayList<>();
+        for (int mask = 1; mask < (1 << attributes.size()); mask++) {
+            Set<String> attributeSet = new LinkedHashSet<>();
+            for (int i = 0; i < attributes.size(); i++) {
+                if ((mask & (1 << i)) != 0) {
+                    attributeSet.add(attributes.get(i));
+                }
+            }
+            Set<List<Object>> values = new HashSet<>();
+            for (Map<String, Object> row : data) {
+                List<Object> value = new ArrayList<>();
+                attributeSet.forEach(attribute -> value.add(row.get(attribute)));
+                values.add(value);
+            }
+            if (values.size() == data.size()) {
+                superKeys.add(attributeSet);
+            }
+        }
+
+        Set<Set<String>> minimalKeys = new HashSet<>();
+        for (Set<String> superKey : superKeys) {
+            boolean minimal = superKeys.stream().noneMatch(other -> other.size() < superKey.size() && superKey.containsAll(other));
+            if (minimal) {
+                minimalKeys.add(superKey);
+            }
+        }
+        return minimalKeys;
+    }
+}
@@ -1,5 +1,7 @@
 package org.melisa.datamodel.normalization;
 
+import org.melisa.datamodel.model.DecomposedRelation;
+import org.melisa.datamodel.model.RowSource;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import java.util.List;
@@ -126,4 +128,364 @@ class FirstNormalizerTest {
         assertEquals("Google", resultRow.get("Company_Primary"));
         assertEquals("Alphabet", resultRow.get("Company_Alias"));
     }
-}
\ No newline at end of file
+
+    // --- 3. Lazy Pipeline ---
+
+    @Test
+    @DisplayName("RowSource: Lazy normalization should yield the same rows as the list based normalization")
+    void normalizeTo1NF_rowSourceMatchesList() {
+        // Arrange
+        Map<String, Object> row1 = new LinkedHashMap<>();
+        row1.put("ID", 1);
+        row1.put("Colors", "Red; Blue");
+        row1.put("Weight", "50 kg");
+
+        Map<String, Object> row2 = new LinkedHashMap<>();
+        row2.put("ID", 2);
+        row2.put("Colors", "Green");
+        row2.put("Weight", "10 kg");
+
+        List<Map<String, Object>> inputData = List.of(row1, row2);
+
+        // Act
+        RowSource lazyResult = FirstNormalizer.normalizeTo1NF(RowSource.of(inputData));
+
+        // Assert
+        List<Map<String, Object>> expected = FirstNormalizer.normalizeTo1NF(inputData);
+        assertEquals(3, expected.size());
+        assertEquals(expected, lazyResult.toList());
+        // The source can be read again, every pass starts from the beginning
+        assertEquals(expected, lazyResult.toList());
+    }
+
+    @Test
+    @DisplayName("Cache: Repeated cell values should run the heuristics only once per column")
+    void normalizeTo1NF_heuristicCache() {
+        // Arrange
+        List<Map<String, Object>> inputData = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("ID", i);
+            row.put("Weight", (i % 2 == 0) ? "5 kg" : "10 kg");
+            row.put("Price", "€10");
+            inputData.add(row);
+        }
+        HeuristicCache cache = new HeuristicCache();
+
+        // Act
+        List<Map<String, Object>> result = FirstNormalizer.normalizeTo1NF(RowSource.of(inputData), cache).toList();
+
+        // Assert
+        assertEquals(FirstNormalizer.normalizeTo1NF(inputData), result);
+        assertEquals(5.0, result.get(0).get("Weight_Value"));
+        assertEquals("€", result.get(99).get("Price_Currency"));
+        assertEquals(3, cache.misses(), "One miss per distinct value and column");
+        assertEquals(197, cache.hits());
+        assertEquals(Map.of("Weight", 2, "Price", 1), cache.columnSizes());
+    }
+
+    @Test
+    @DisplayName("Cache: A full column cache should evict the least recently used value")
+    void heuristicCache_evictsLeastRecentlyUsed() {
+        // Arrange
+        HeuristicCache cache = new HeuristicCache(2);
+        HeuristicCache.Outcome outcome = HeuristicCache.Outcome.NOT_APPLIED;
+
+        // Act
+        cache.outcome("Col", "a", () -> outcome);
+        cache.outcome("Col", "b", () -> outcome);
+        cache.outcome("Col", "a", () -> outcome); // "b" is now the least recently used value
+        cache.outcome("Col", "c", () -> outcome);
+        cache.outcome("Col", "a", () -> outcome);
+        cache.outcome("Col", "b", () -> outcome);
+
+        // Assert
+        assertEquals(2, cache.hits());
+        assertEquals(4, cache.misses());
+        assertThrows(IllegalArgumentException.class, () -> new HeuristicCache(0));
+    }
+
+    @Test
+    @DisplayName("Column Plan: The owning rule should split every cell, unmatched cells should be kept in _Unparsed")
+    void normalizeTo1NF_columnOwnership() {
+        // Arrange: "3 cup" alone would be a value with a unit, the column is mostly quantities of items
+        List<Map<String, Object>> inputData = new ArrayList<>();
+        for (String inventory : List.of("2 books", "5 pens", "3 cup", "n/a", "")) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("Inventory", inventory);
+            row.put("Note", inventory.equals("2 books") ? "10 kg" : "fragile");
+            inputData.add(row);
+        }
+
+        // Act
+        List<Map<String, Object>> result = FirstNormalizer.normalizeTo1NF(inputData);
+
+        // Assert
+        assertEquals(3, result.get(2).get("Inventory_Quantity"));
+        assertEquals("cup", result.get(2).get("Inventory_Item"));
+        assertFalse(result.get(2).containsKey("Inventory_Unparsed"));
+
+        Map<String, Object> unmatched = result.get(3);
+        assertTrue(unmatched.containsKey("Inventory_Quantity"));
+        assertNull(unmatched.get("Inventory_Quantity"));
+        assertNull(unmatched.get("Inventory_Item"));
+        assertEquals("n/a", unmatched.get("Inventory_Unparsed"));
+        assertFalse(result.get(4).containsKey("Inventory_Unparsed"), "Blank cells are missing values, not unparsed ones");
+
+        // A column that rarely looks like a measurement is not owned by any rule
+        assertEquals("10 kg", result.get(0).get("Note"));
+        assertFalse(result.get(0).containsKey("Note_Value"));
+    }
+
+    @Test
+    @DisplayName("Implementations: Regex and scanner heuristics should normalize to the same rows")
+    void normalizeTo1NF_regexAndScannerAgree() {
+        // Arrange
+        List<Map<String, Object>> inputData = new ArrayList<>();
+        String[][] values = {{"50 €", "5 kg", "2 books", "Google (Alphabet)"}, {"$7.25", "20.5°C", "12 pens", "IBA (ehemals BQL)"}};
+        for (String[] rowValues : values) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("Price", rowValues[0]);
+            row.put("Weight", rowValues[1]);
+            row.put("Inventory", rowValues[2]);
+            row.put("Company", rowValues[3]);
+            inputData.add(row);
+        }
+
+        // Act
+        List<Map<String, Object>> regex = FirstNormalizer.normalizeTo1NF(
+                RowSource.of(inputData), new HeuristicCache(), FirstNormalizer.HeuristicImplementation.REGEX).toList();
+        List<Map<String, Object>> scanner = FirstNormalizer.normalizeTo1NF(
+                RowSource.of(inputData), new HeuristicCache(), FirstNormalizer.HeuristicImplementation.SCANNER).toList();
+
+        // Assert
+        assertEquals(regex, scanner);
+        assertEquals(7.25, scanner.get(1).get("Price_Amount"));
+        assertEquals("°C", scanner.get(1).get("Weight_Unit"));
+        assertEquals(12, scanner.get(1).get("Inventory_Quantity"));
+        assertEquals("ehemals BQL", scanner.get(1).get("Company_Alias"));
+    }
+
+    @Test
+    @DisplayName("Row Splitting: Should stream the Cartesian product lazily and cap it with the expansion budget")
+    void normalizeTo1NF_rowExpansionBudget() {
+        // Arrange
+        List<Map<String, Object>> inputData = new ArrayList<>();
+        for (int id = 1; id <= 2; id++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("ID", id);
+            row.put("Colors", "Red; Blue");
+            row.put("Sizes", "S|M|L");
+            row.put("Note", "keep");
+            inputData.add(row);
+        }
+
+        Map<String, Object> singleRow = new LinkedHashMap<>();
+        singleRow.put("Letters", "a;b;c");
+        singleRow.put("Symbols", "x|y|z");
+        RowExpansionBudget perRowBudget = new RowExpansionBudget(4, Long.MAX_VALUE);
+        RowExpansionBudget globalBudget = new RowExpansionBudget(Long.MAX_VALUE, 8);
+        RowExpansionBudget singleRowBudget = new RowExpansionBudget(4, Long.MAX_VALUE);
+
+        // Act
+        List<Map<String, Object>> unlimited = FirstNormalizer.normalizeTo1NF(RowSource.of(inputData), new HeuristicCache(),
+                FirstNormalizer.HeuristicImplementation.SCANNER, RowExpansionBudget.unlimited()).toList();
+        List<Map<String, Object>> perRow = FirstNormalizer.normalizeTo1NF(RowSource.of(inputData), new HeuristicCache(),
+                FirstNormalizer.HeuristicImplementation.SCANNER, perRowBudget).toList();
+        List<Map<String, Object>> global = FirstNormalizer.normalizeTo1NF(RowSource.of(inputData), new HeuristicCache(),
+                FirstNormalizer.HeuristicImplementation.SCANNER, globalBudget).toList();
+        List<Map<String, Object>> single = FirstNormalizer.normalizeTo1NF(RowSource.of(List.of(singleRow)), new HeuristicCache(),
+                FirstNormalizer.HeuristicImplementation.SCANNER, singleRowBudget).toList();
+
+        // Assert: single-value columns first, the last multivalue column changes fastest
+        assertEquals(12, unlimited.size());
+        assertEquals(List.of("ID", "Note", "Colors", "Sizes"), List.copyOf(unlimited.get(0).keySet()));
+        assertEquals(List.of("Red", "S"), List.of(unlimited.get(0).get("Colors"), unlimited.get(0).get("Sizes")));
+        assertEquals(List.of("Red", "M"), List.of(unlimited.get(1).get("Colors"), unlimited.get(1).get("Sizes")));
+        assertEquals(List.of("Blue", "L"), List.of(unlimited.get(5).get("Colors"), unlimited.get(5).get("Sizes")));
+
+        // Each raw row keeps its first 4 combinations
+        assertEquals(8, perRow.size());
+        assertEquals(unlimited.subList(0, 4), perRow.subList(0, 4));
+        assertEquals(unlimited.subList(6, 10), perRow.subList(4, 8));
+
+        // The first raw row uses 6 of the 8 rows, the second one gets the rest
+        assertEquals(8, global.size());
+        assertEquals(unlimited.subList(0, 8), global);
+
+        // The statistics count the output pass only, not the planning pass over the leading rows
+        assertEquals(2, perRowBudget.cappedRows());
+        assertEquals(2 + 2, perRowBudget.droppedRows());
+        assertEquals(1, globalBudget.cappedRows());
+        assertEquals(4, globalBudget.droppedRows());
+        assertEquals(4, single.size());
+        assertEquals(1, singleRowBudget.cappedRows());
+        assertEquals(5, singleRowBudget.droppedRows());
+
+        // Every raw row produces at least one row, and the capped rows are counted
+        RowExpansionBudget budget = new RowExpansionBudget(100, 10);
+        RowExpansionBudget.Pass pass = budget.startPass();
+        assertEquals(6, pass.allowance(6));
+        assertEquals(4, pass.allowance(6));
+        assertEquals(1, pass.allowance(6));
+        assertEquals(10, budget.startPass().allowance(Long.MAX_VALUE), "Each pass has its own global budget");
+        assertEquals(3, budget.cappedRows());
+        assertEquals(2 + 5 + (Long.MAX_VALUE - 10), budget.droppedRows());
+        assertEquals(10, budget.startPass(false).allowance(Long.MAX_VALUE), "A planning pass has its own global budget");
+        assertEquals(3, budget.cappedRows(), "A planning pass is not counted");
+        assertEquals(2 + 5 + (Long.MAX_VALUE - 10), budget.droppedRows());
+        assertThrows(IllegalArgumentException.class, () -> new RowExpansionBudget(0, 1));
+    }
+
+    @Test
+    @DisplayName("Child Relations: Should keep one row per raw row and move multivalue columns into child relations")
+    void normalizeTo1NF_childRelations() {
+        // Arrange
+        List<Map<String, Object>> inputData = new ArrayList<>();
+        String[][] values = {{"Laptop", "Red; Blue", "S|M|L"}, {"Phone", "Black", null}, {"Tablet", "White; White", "XL"}};
+        for (String[] rowValues : values) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("Product", rowValues[0]);
+            row.put("Colors", rowValues[1]);
+            row.put("Sizes", rowValues[2]);
+            inputData.add(row);
+        }
+        MultiValueRelations multiValueRelations = new MultiValueRelations();
+
+        // Act
+        RowSource mainRows = FirstNormalizer.normalizeTo1NF(RowSource.of(inputData), new HeuristicCache(), multiValueRelations);
+        List<Map<String, Object>> result = mainRows.toList();
+        mainRows.toList(); // A second pass must not duplicate the child rows
+        List<DecomposedRelation> parents = List.of(new DecomposedRelation(
+                "SHOP_MAINRELATION", result, List.of(FirstNormalizer.ROW_ID_COLUMN), Map.of()));
+        List<DecomposedRelation> children = multiValueRelations.toDecomposedRelations("shop", parents);
+
+        // Assert: linear growth, one main row per raw row
+        assertEquals(3, result.size());
+        assertEquals(Map.of(FirstNormalizer.ROW_ID_COLUMN, 2L, "Product", "Phone"), result.get(1));
+        assertEquals(List.of("Colors", "Sizes"), multiValueRelations.columnNames());
+        assertEquals(9, multiValueRelations.valueCount());
+
+        assertEquals(2, children.size());
+        DecomposedRelation colors = children.get(0);
+        assertEquals("SHOP_COLORS", colors.name());
+        assertEquals(List.of("ROW_ID", "COLORS"), colors.primaryKeys());
+        assertEquals(Map.of("ROW_ID", "SHOP_MAINRELATION(ROW_ID)"), colors.foreignKeys());
+        assertEquals(List.of(Map.of("ROW_ID", 1L, "Colors", "Red"), Map.of("ROW_ID", 1L, "Colors", "Blue"),
+                Map.of("ROW_ID", 2L, "Colors", "Black"), Map.of("ROW_ID", 3L, "Colors", "White")), colors.data());
+        assertEquals(4, children.get(1).data().size(), "The missing size of row 2 has no child row");
+    }
+
+    @Test
+    @DisplayName("Child Relations: A delimited value after the leading rows should move the whole column")
+    void normalizeTo1NF_childRelationsLateMultiValue() {
+        // Arrange: the only delimited value is far behind the rows sampled for the column splitting
+        List<Map<String, Object>> inputData = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("Product", "Product " + i);
+            row.put("Tags", (i == 450) ? "new; sale" : "tag " + (i % 3));
+            inputData.add(row);
+        }
+        MultiValueRelations multiValueRelations = new MultiValueRelations();
+
+        // Act
+        List<Map<String, Object>> result = FirstNormalizer.normalizeTo1NF(RowSource.of(inputData), new HeuristicCache(),
+                multiValueRelations).toList();
+
+        // Assert: the column is not split across the main rows and the child relation
+        assertEquals(500, result.size());
+        assertTrue(result.stream().noneMatch(row -> row.containsKey("Tags")));
+        assertEquals(List.of("Tags"), multiValueRelations.columnNames());
+        assertEquals(501, multiValueRelations.valueCount());
+    }
+
+    @Test
+    @DisplayName("Child Relations: A column named like the surrogate key should be rejected")
+    void normalizeTo1NF_childRelationsRowIdCollision() {
+        // Arrange
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("Row Id", "A-17");
+        row.put("Colors", "Red; Blue");
+        RowSource mainRows = FirstNormalizer.normalizeTo1NF(RowSource.of(List.of(row)), new HeuristicCache(),
+                new MultiValueRelations());
+
+        // Act & Assert: the SQL identifier ROW_ID would be ambiguous
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, mainRows::toList);
+        assertTrue(exception.getMessage().contains("Row Id"));
+    }
+
+    @Test
+    @DisplayName("Parallel: Chunks processed in parallel should give the same rows in the same order")
+    void normalizeTo1NF_parallelMatchesSequential() {
+        // Arrange
+        List<Map<String, Object>> inputData = new ArrayList<>();
+        for (int i = 0; i < 30_000; i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("ID", i);
+            row.put("Colors", (i % 3 == 0) ? "Red; Blue" : "Green");
+            row.put("Weight", (i % 50) + " kg");
+            row.put("Company", "Company " + (i % 7) + " (C" + (i % 7) + ")");
+            inputData.add(row);
+        }
+
+        // Act
+        RowExpansionBudget budget = new RowExpansionBudget();
+        List<Map<String, Object>> sequential = FirstNormalizer.normalizeTo1NF(RowSource.of(inputData), new HeuristicCache(),
+                FirstNormalizer.HeuristicImplementation.SCANNER, budget, false).toList();
+        List<Map<String, Object>> parallel = FirstNormalizer.normalizeTo1NF(RowSource.of(inputData), new HeuristicCache(),
+                FirstNormalizer.HeuristicImplementation.SCANNER, budget, true).toList();
+        List<Map<String, Object>> parallelWithGlobalBudget = FirstNormalizer.normalizeTo1NF(RowSource.of(inputData), new HeuristicCache(),
+                FirstNormalizer.HeuristicImplementation.SCANNER, new RowExpansionBudget(10, 35_000), true).toList();
+
+        MultiValueRelations sequentialChildren = new MultiValueRelations();
+        MultiValueRelations parallelChildren = new MultiValueRelations();
+        List<Map<String, Object>> sequentialMain = FirstNormalizer.normalizeTo1NF(
+                RowSource.of(inputData), new HeuristicCache(), sequentialChildren, false).toList();
+        List<Map<String, Object>> parallelMain = FirstNormalizer.normalizeTo1NF(
+                RowSource.of(inputData), new HeuristicCache(), parallelChildren, true).toList();
+
+        // Assert
+        assertEquals(40_000, sequential.size());
+        assertEquals(sequential, parallel);
+        assertEquals(sequential.subList(0, 35_000), parallelWithGlobalBudget.subList(0, 35_000));
+        assertEquals(sequentialMain, parallelMain);
+        assertEquals(29_999, parallelMain.get(29_999).get("ID"));
+        assertEquals(30_000L, parallelMain.get(29_999).get(FirstNormalizer.ROW_ID_COLUMN));
+        List<DecomposedRelation> parents = List.of(new DecomposedRelation("SHOP_MAINRELATION", parallelMain,
+                List.of(FirstNormalizer.ROW_ID_COLUMN), Map.of()));
+        assertEquals(sequentialChildren.toDecomposedRelations("shop", parents), parallelChildren.toDecomposedRelations("shop", parents));
+    }
+
+    @Test
+    @DisplayName("Fused pass: Column splitting should run once per value, not once per row of the Cartesian product")
+    void normalizeTo1NF_columnSplittingBeforeExpansion() {
+        // Arrange
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("Weight", "5 kg");
+        row.put("Colors", "Red; Blue; Green; Black");
+        row.put("Price", "$10|$20");
+        row.put("Note", "gift");
+        HeuristicCache heuristicCache = new HeuristicCache();
+        HeuristicCache parallelCache = new HeuristicCache();
+
+        // Act
+        List<Map<String, Object>> result = FirstNormalizer.normalizeTo1NF(RowSource.of(List.of(row)), heuristicCache).toList();
+        List<Map<String, Object>> parallelResult = FirstNormalizer.normalizeTo1NF(RowSource.of(List.of(row, row)), parallelCache,
+                FirstNormalizer.HeuristicImplementation.SCANNER, new RowExpansionBudget(Long.MAX_VALUE, 12), true).toList();
+
+        // Assert: 8 rows, but "5 kg", "$10" and "$20" were split once each
+        assertEquals(8, result.size());
+        assertEquals(3, heuristicCache.hits() + heuristicCache.misses());
+
+        // The same in parallel mode with a global budget: the first raw row gets 8 rows, the second one the other 4
+        assertEquals(12, parallelResult.size());
+        assertEquals(result, parallelResult.subList(0, 8));
+        assertEquals(result.subList(0, 4), parallelResult.subList(8, 12));
+        assertEquals(2 * 3, parallelCache.hits() + parallelCache.misses());
+        assertEquals(List.of("Weight_Value", "Weight_Unit", "Note", "Colors", "Price_Amount", "Price_Currency"),
+                List.copyOf(result.get(0).keySet()));
+        assertEquals(List.of(5.0, "Red", 10.0), List.of(result.get(0).get("Weight_Value"), result.get(0).get("Colors"), result.get(0).get("Price_Amount")));
+        assertEquals(List.of("Black", 20.0), List.of(result.get(7).get("Colors"), result.get(7).get("Price_Amount")));
+    }
+}
@@ -0,0 +1,75 @@
+package org.melisa.datamodel.normalization;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.melisa.datamodel.model.Relation;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FunctionalDependencyDiscovererTest {
+
+    private static Map<String, Object> row(String student, String course, int fee, String teacher, int grade) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("Student", student);
+        row.put("Course", course);
+        row.put("CourseFee", fee);
+        row.put("Teacher", teacher);
+        row.put("Grade", grade);
+        return row;
+    }
+
+    @Test
+    @DisplayName("Should find exactly the minimal functional dependencies")
+    void discover_minimalDependencies() {
+        // Arrange
+        // Course -> CourseFee, Course -> Teacher, Teacher -> Course and [Student, Course] -> Grade
+        List<Map<String, Object>> data = List.of(
+                row("Melisa", "Math", 500, "Smith", 1),
+                row("Melisa", "Physics", 600, "Jones", 2),
+                row("John", "Math", 500, "Smith", 2),
+                row("John", "Biology", 500, "Brown", 1));
+
+        // Act
+        Set<String> dependencies = new FunctionalDependencyDiscoverer().discover(data).stream()
+                .map(FunctionalDependency::toString)
+                .collect(Collectors.toSet());
+
+        // Assert
+        assertTrue(dependencies.contains("Course -> CourseFee"));
+        assertTrue(dependencies.contains("Course -> Teacher"));
+        assertTrue(dependencies.contains("Teacher -> Course"));
+        assertTrue(dependencies.contains("Student, Course -> Grade"));
+        // Not minimal, Course alone already determines the fee
+        assertFalse(dependencies.contains("Student, Course -> CourseFee"));
+        // Does not hold: Math/Biology share the fee 500
+        assertFalse(dependencies.contains("CourseFee -> Course"));
+    }
+
+    @Test
+    @DisplayName("Should respect the maximum determinant size and reuse partitions of key discovery")
+    void discover_sharedPartitionsAndLimit() {
+        // Arrange
+        List<Map<String, Object>> data = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            data.add(row("S" + (i % 8), "C" + (i / 8), 100 * (i / 8), "T" + (i / 8), i % 3));
+        }
+        PartitionCache partitions = new PartitionCache(
+                Relation.of(data), new ArrayList<>(data.get(0).keySet()));
+        new CandidateKeyIdentifier().identifyAllCandidateKeys(partitions);
+
+        // Act
+        List<FunctionalDependency> all = new FunctionalDependencyDiscoverer().discover(partitions);
+        List<FunctionalDependency> small = new FunctionalDependencyDiscoverer(1).discover(partitions);
+
+        // Assert
+        assertEquals(all.stream().filter(dependency -> dependency.determinant().size() <= 1).toList(), small);
+        assertTrue(all.contains(new FunctionalDependency(Set.of("Student", "Course"), "Grade")));
+        assertTrue(small.stream().allMatch(dependency -> dependency.determinant().size() <= 1));
+    }
+}
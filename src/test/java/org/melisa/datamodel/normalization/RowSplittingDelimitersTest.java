@@ -0,0 +1,51 @@
+package org.melisa.datamodel.normalization;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RowSplittingDelimitersTest {
+
+    // The former regular expression the scanner replaces
+    private static final Pattern DELIMITERS = Pattern.compile(";|\\||\\n|\\r|,(?!\\d)");
+
+    // Delimiters, digits after commas, whitespace around the parts
+    private static final String ALPHABET = ";|\n\r,,1 a\t";
+
+    @Test
+    @DisplayName("Scanner should split exactly like the former regular expression")
+    void split_matchesRegex() {
+        List<String> examples = List.of("red;blue", "alpha|beta", "item1\nitem2", "a\r\nb", "green, yellow", "1,5",
+                "1,5, 2,5", "a,", ";a", "a;;b;;", ";", "; ;", "plain", "");
+        for (String value : examples) {
+            assertSameParts(value);
+        }
+
+        Random random = new Random(11);
+        for (int i = 0; i < 100_000; i++) {
+            StringBuilder value = new StringBuilder();
+            int length = random.nextInt(10);
+            for (int j = 0; j < length; j++) {
+                value.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            }
+            assertSameParts(value.toString().trim());
+        }
+    }
+
+    private static void assertSameParts(String value) {
+        List<String> expected = null;
+        if (DELIMITERS.matcher(value).find()) {
+            expected = new ArrayList<>();
+            for (String part : value.split(DELIMITERS.pattern())) {
+                expected.add(part.trim());
+            }
+        }
+        assertEquals(expected, RowSplittingDelimiters.split(value), "Split of \"" + value + "\"");
+    }
+}
@@ -3,9 +3,11 @@ package org.melisa.datamodel.normalization;
 import org.melisa.datamodel.model.DecomposedRelation;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.LinkedHashMap;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -80,4 +82,36 @@ class SecondNormalizerTest {
         // The Main table should NO LONGER contain "CourseFee"
         assertFalse(mainTable.data().get(0).containsKey("CourseFee"), "Partial dependency should be removed from main table");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should move every partially dependent attribute out of the main table")
+    void normalizeTo2NF_multiplePartialDependencies() {
+        // Arrange
+        // Key [Student, Course]; Course -> CourseFee and Student -> Semester are both partial dependencies
+        List<Map<String, Object>> inputData = new ArrayList<>();
+        String[][] enrollments = {
+                {"Melisa", "Math"}, {"Melisa", "Physics"}, {"John", "Math"}, {"John", "Biology"}, {"Anna", "Physics"}, {"Anna", "Math"}};
+        for (String[] enrollment : enrollments) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("Student", enrollment[0]);
+            row.put("Course", enrollment[1]);
+            row.put("CourseFee", enrollment[1].equals("Physics") ? 600 : 500);
+            row.put("Semester", enrollment[0].equals("John") ? 3 : 1);
+            inputData.add(row);
+        }
+
+        // Act
+        List<DecomposedRelation> results = new SecondNormalizer().normalizeTo2NF(inputData, "Uni");
+
+        // Assert
+        assertEquals(3, results.size(), "One table per partial determinant plus the main table");
+        DecomposedRelation mainTable = results.get(results.size() - 1);
+        assertEquals(List.of("STUDENT", "COURSE"), mainTable.primaryKeys());
+        assertEquals(Set.of("Student", "Course"), mainTable.data().get(0).keySet());
+        assertEquals(Set.of("STUDENT", "COURSE"), mainTable.foreignKeys().keySet());
+        assertEquals("UNI_COURSE_DETAILS(COURSE)", mainTable.foreignKeys().get("COURSE"));
+        assertEquals(3, results.stream()
+                .filter(r -> r.name().equals("UNI_COURSE_DETAILS"))
+                .findFirst().orElseThrow().data().size(), "Details rows must be distinct");
+    }
+}
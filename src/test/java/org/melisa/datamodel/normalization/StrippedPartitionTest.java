@@ -0,0 +1,86 @@
+package org.melisa.datamodel.normalization;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StrippedPartitionTest {
+
+    @Test
+    @DisplayName("Single column partition should strip unique values and count the errors")
+    void fromValueCodes_stripsUniqueValues() {
+        // Arrange: values 0 (3 rows), 1 (unique), 2 (2 rows)
+        int[] valueCodes = {0, 1, 0, 2, 0, 2};
+
+        // Act
+        StrippedPartition partition = StrippedPartition.fromValueCodes(valueCodes);
+
+        // Assert: 5 rows in classes, 6 rows - 3 distinct values = 3 errors
+        assertFalse(partition.isUnique());
+        assertEquals(5, partition.size());
+        assertEquals(3, partition.errorCount());
+        assertEquals(6, partition.rowCount());
+        assertTrue(StrippedPartition.fromValueCodes(new int[]{2, 0, 1}).isUnique());
+        assertEquals(3, StrippedPartition.ofAllRows(4).errorCount());
+        assertTrue(StrippedPartition.ofAllRows(1).isUnique());
+    }
+
+    @Test
+    @DisplayName("Product of partitions should match grouping the rows by both columns")
+    void intersect_matchesBruteForceGrouping() {
+        Random random = new Random(7);
+        for (int round = 0; round < 500; round++) {
+            // Arrange: small value ranges, so that classes of every size occur
+            int rowCount = 1 + random.nextInt(60);
+            int[] first = randomCodes(random, rowCount, 1 + random.nextInt(6));
+            int[] second = randomCodes(random, rowCount, 1 + random.nextInt(6));
+            int[] third = randomCodes(random, rowCount, 1 + random.nextInt(6));
+            int[] probeTable = new int[rowCount];
+            Arrays.fill(probeTable, -1);
+
+            // Act
+            StrippedPartition firstSecond = StrippedPartition.fromValueCodes(first)
+                    .intersect(StrippedPartition.fromValueCodes(second), probeTable);
+            StrippedPartition all = firstSecond.intersect(StrippedPartition.fromValueCodes(third), probeTable);
+
+            // Assert
+            assertSameGrouping(firstSecond, first, second);
+            assertSameGrouping(all, first, second, third);
+            assertTrue(Arrays.stream(probeTable).allMatch(entry -> entry == -1), "The probe table should be left clean");
+            assertEquals(firstSecond.errorCount(), StrippedPartition.fromValueCodes(second)
+                    .intersect(StrippedPartition.fromValueCodes(first)).errorCount(), "The product should be commutative");
+        }
+    }
+
+    private static int[] randomCodes(Random random, int rowCount, int distinctValues) {
+        int[] codes = new int[rowCount];
+        for (int row = 0; row < rowCount; row++) {
+            codes[row] = random.nextInt(distinctValues);
+        }
+        return codes;
+    }
+
+    private static void assertSameGrouping(StrippedPartition partition, int[]... columns) {
+        int rowCount = columns[0].length;
+        Map<List<Integer>, Integer> rowsPerValue = new HashMap<>();
+        for (int row = 0; row < rowCount; row++) {
+            Integer[] value = new Integer[columns.length];
+            for (int column = 0; column < columns.length; column++) {
+                value[column] = columns[column][row];
+            }
+            rowsPerValue.merge(List.of(value), 1, Integer::sum);
+        }
+        int rowsInClasses = rowsPerValue.values().stream().filter(rows -> rows >= 2).mapToInt(Integer::intValue).sum();
+
+        assertEquals(rowCount - rowsPerValue.size(), partition.errorCount());
+        assertEquals(rowsInClasses, partition.size());
+        assertEquals(rowsInClasses == 0, partition.isUnique());
+    }
+}
@@ -0,0 +1,95 @@
+package org.melisa.datamodel.normalization;
+
+import org.melisa.datamodel.model.DecomposedRelation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThirdNormalizerTest {
+
+    private static List<Map<String, Object>> enrollments() {
+        String[] courses = {"Math", "Physics", "Biology", "Chemistry", "History"};
+        String[] teachers = {"Smith", "Jones", "Smith", "Brown", "Brown"};
+        Map<String, String> offices = Map.of("Smith", "A1", "Jones", "B2", "Brown", "A1");
+        int[] fees = {500, 600, 500, 500, 600};
+        Random grades = new Random(42);
+
+        List<Map<String, Object>> data = new ArrayList<>();
+        for (int student = 0; student < 8; student++) {
+            for (int course = 0; course < courses.length; course++) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("Student", "S" + student);
+                row.put("Course", courses[course]);
+                row.put("CourseFee", fees[course]);
+                row.put("Teacher", teachers[course]);
+                row.put("Office", offices.get(teachers[course]));
+                row.put("Grade", grades.nextInt(5) + 1);
+                data.add(row);
+            }
+        }
+        return data;
+    }
+
+    @Test
+    @DisplayName("Should synthesize one relation per determinant and remove the transitive dependency")
+    void normalizeTo3NF_transitiveDependency() {
+        // Arrange
+        // Key [Student, Course]; Course -> CourseFee, Course -> Teacher and the transitive Teacher -> Office
+        List<Map<String, Object>> inputData = enrollments();
+
+        // Act
+        List<DecomposedRelation> results = new ThirdNormalizer().normalizeTo3NF(inputData, "Uni");
+
+        // Assert
+        assertEquals(3, results.size());
+
+        DecomposedRelation teacherTable = results.stream()
+                .filter(r -> r.name().equals("UNI_TEACHER_DETAILS"))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Teacher table was not created"));
+        assertEquals(List.of("TEACHER"), teacherTable.primaryKeys());
+        assertEquals(3, teacherTable.data().size(), "Rows must be distinct");
+
+        DecomposedRelation courseTable = results.stream()
+                .filter(r -> r.name().equals("UNI_COURSE_DETAILS"))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Course table was not created"));
+        assertEquals(Set.of("Course", "CourseFee", "Teacher"), courseTable.data().get(0).keySet());
+        assertEquals("UNI_TEACHER_DETAILS(TEACHER)", courseTable.foreignKeys().get("TEACHER"));
+
+        // The key relation comes last and references the course table
+        DecomposedRelation mainTable = results.get(results.size() - 1);
+        assertEquals("UNI_MAINRELATION", mainTable.name());
+        assertEquals(Set.of("STUDENT", "COURSE"), Set.copyOf(mainTable.primaryKeys()));
+        assertEquals(Set.of("Student", "Course", "Grade"), mainTable.data().get(0).keySet());
+        assertEquals(40, mainTable.data().size());
+        assertEquals("UNI_COURSE_DETAILS(COURSE)", mainTable.foreignKeys().get("COURSE"));
+    }
+
+    @Test
+    @DisplayName("Should keep a relation with a single key column as one relation")
+    void normalizeTo3NF_alreadyNormalized() {
+        // Arrange
+        Map<String, Object> r1 = new LinkedHashMap<>();
+        r1.put("ID", 1);
+        r1.put("Name", "Melisa");
+        Map<String, Object> r2 = new LinkedHashMap<>();
+        r2.put("ID", 2);
+        r2.put("Name", "Melisa");
+
+        // Act
+        List<DecomposedRelation> results = new ThirdNormalizer().normalizeTo3NF(List.of(r1, r2), "Uni");
+
+        // Assert
+        assertEquals(1, results.size());
+        assertEquals(List.of("ID"), results.get(0).primaryKeys());
+        assertEquals(2, results.get(0).data().size());
+    }
+}
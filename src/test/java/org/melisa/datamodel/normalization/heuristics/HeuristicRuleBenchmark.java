@@ -0,0 +1,75 @@
+package org.melisa.datamodel.normalization.heuristics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the regex and the scanner implementations of the column-splitting heuristics on a mix of
+ * matching and non-matching cells. Not part of the test run; start it from the IDE or with
+ * {@code java -cp target/test-classes:<test classpath> org.melisa.datamodel.normalization.heuristics.HeuristicRuleBenchmark}.
+ * The JMH harness is generated by the annotation processor declared for the test compilation in pom.xml.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeuristicRuleBenchmark {
+
+    private static final String[] CELLS = {
+            "50 €", "$60", "-12.5 $", "50 kg", "20.5°C", "101,1 %", "2 books", "12 pens",
+            "Google (Alphabet)", "IBA (ehemals BQL)", "Laptop", "Berlin", "2024-01-01", "42", "n/a", "Jane Doe"
+    };
+
+    @Param({"REGEX", "SCANNER"})
+    public String implementation;
+
+    private List<HeuristicRule> rules;
+    private final Map<String, Object> newRow = new LinkedHashMap<>();
+
+    @Setup
+    public void setUp() {
+        rules = implementation.equals("REGEX")
+                ? List.of(new CurrencyHeuristic(), new ValueUnitHeuristic(), new QuantityItemHeuristic(), new ParentheticalAliasHeuristic())
+                : List.of(new CurrencyScannerHeuristic(), new ValueUnitScannerHeuristic(), new QuantityItemScannerHeuristic(), new ParentheticalAliasScannerHeuristic());
+    }
+
+    /**
+     * Runs the rule chain (first match wins) on every cell, like the 1NF column splitting does.
+     */
+    @Benchmark
+    public void ruleChain(Blackhole blackhole) {
+        for (String cell : CELLS) {
+            newRow.clear();
+            for (HeuristicRule rule : rules) {
+                if (rule.apply("Column", cell, newRow)) {
+                    break;
+                }
+            }
+            blackhole.consume(newRow.size());
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(HeuristicRuleBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,76 @@
+package org.melisa.datamodel.normalization.heuristics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScannerHeuristicsTest {
+
+    private static final List<HeuristicRule> REGEX_RULES = List.of(
+            new CurrencyHeuristic(), new ValueUnitHeuristic(), new QuantityItemHeuristic(), new ParentheticalAliasHeuristic());
+    private static final List<HeuristicRule> SCANNER_RULES = List.of(
+            new CurrencyScannerHeuristic(), new ValueUnitScannerHeuristic(), new QuantityItemScannerHeuristic(), new ParentheticalAliasScannerHeuristic());
+
+    // Characters that are significant for at least one of the patterns
+    private static final String ALPHABET = "0123456789 .,-$€¥()kgmK%°aZ\t\n\r\u000B\u0085\u2028x";
+
+    @Test
+    @DisplayName("Scanners should accept exactly the values of the regex rules and produce the same columns")
+    void scanners_matchRegexRules() {
+        List<String> examples = List.of("50 €", "$60", "-12.5 $", "€ 1.", "50 kg", "20.5°C", "101,1 %", "5.kg", "5 in.",
+                "2 books", "007  boxes ", "99999999999 items", "Google (Alphabet)", "A (x) (y)", "A (x\n (y)",
+                "A\n (x)", "()", "1234567890.123456789 $", "-0 €", "", "   ");
+        for (String value : examples) {
+            assertSameOutcome("Column", value);
+        }
+
+        Random random = new Random(7);
+        for (int i = 0; i < 200_000; i++) {
+            StringBuilder value = new StringBuilder();
+            int length = random.nextInt(12);
+            for (int j = 0; j < length; j++) {
+                value.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            }
+            assertSameOutcome(random.nextInt(10) == 0 ? "Weight_VALUE" : "Column", value.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("The prefilter should reject plain text for all rules and keep only the possible shapes")
+    void prefilter_candidateShapes() {
+        assertEquals(HeuristicPrefilter.ANY, HeuristicPrefilter.candidateShapes("Laptop"));
+        assertEquals(HeuristicPrefilter.ANY, HeuristicPrefilter.candidateShapes("   "));
+        assertEquals(HeuristicPrefilter.ANY, HeuristicPrefilter.candidateShapes("$ total"));
+        assertEquals(HeuristicPrefilter.ANY | HeuristicPrefilter.CURRENCY, HeuristicPrefilter.candidateShapes(" $60 "));
+        assertEquals(HeuristicPrefilter.ANY | HeuristicPrefilter.QUANTITY_ITEM | HeuristicPrefilter.VALUE_UNIT,
+                HeuristicPrefilter.candidateShapes("50 kg"));
+        assertEquals(HeuristicPrefilter.ANY | HeuristicPrefilter.PARENTHETICAL_ALIAS, HeuristicPrefilter.candidateShapes("Google (Alphabet)\n"));
+
+        for (HeuristicRule rule : SCANNER_RULES) {
+            assertFalse(HeuristicPrefilter.mayApply(rule, HeuristicPrefilter.candidateShapes("Laptop")));
+        }
+        assertTrue(HeuristicPrefilter.mayApply((column, value, row) -> false, HeuristicPrefilter.ANY));
+    }
+
+    private static void assertSameOutcome(String columnName, String value) {
+        for (int rule = 0; rule < REGEX_RULES.size(); rule++) {
+            Map<String, Object> expectedRow = new LinkedHashMap<>();
+            Map<String, Object> actualRow = new LinkedHashMap<>();
+            boolean expected = REGEX_RULES.get(rule).apply(columnName, value, expectedRow);
+            boolean actual = SCANNER_RULES.get(rule).apply(columnName, value, actualRow);
+            String message = SCANNER_RULES.get(rule).getClass().getSimpleName() + " on \"" + value + "\"";
+            assertEquals(expected, actual, message);
+            if (expected) {
+                assertEquals(expectedRow, actualRow, message);
+                // The prefilter may never reject a value the rule splits
+                assertTrue(HeuristicPrefilter.mayApply(SCANNER_RULES.get(rule), HeuristicPrefilter.candidateShapes(value)), message);
+            }
+        }
+    }
+}